@@ -0,0 +1,89 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.ProcessFlow;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Measures the time taken to generate a copy of a prototype SimEntity, in the
+ * same way as EntityGenerator, and destroy the oldest copy. Run with
+ * "-prof gc" to report the memory allocated for each copy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityGenerationBenchmark {
+
+	private static final int NUM_LIVE = 1000;
+
+	private JaamSimModel model;
+	private SimEntity proto;
+	private Entity[] live;
+	private int oldest;
+	private int count;
+
+	@Setup
+	public void setup() {
+		model = new JaamSimModel();
+		JaamSimModel.setCurrent(model);
+		proto = InputAgent.defineEntityWithUniqueName(SimEntity.class, "Proto", "", true);
+		InputAgent.applyArgs(proto, "AttributeDefinitionList", "{", "a", "1", "}", "{", "b", "2", "}");
+		live = new Entity[NUM_LIVE];
+		for (int i = 0; i < NUM_LIVE; i++)
+			live[i] = generate();
+	}
+
+	@TearDown
+	public void tearDown() {
+		JaamSimModel.setCurrent(null);
+	}
+
+	@Benchmark
+	public Entity generateCopy() {
+		Entity ent = generate();
+		live[oldest].kill();
+		live[oldest] = ent;
+		oldest = (oldest + 1) % NUM_LIVE;
+		return ent;
+	}
+
+	private SimEntity generate() {
+		count++;
+		SimEntity ent = InputAgent.generateEntityWithName(SimEntity.class, "Proto_", count);
+		Entity.fastCopyInputs(proto, ent);
+		return ent;
+	}
+}
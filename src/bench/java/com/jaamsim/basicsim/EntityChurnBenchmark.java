@@ -0,0 +1,82 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken to create a generated entity and destroy the oldest
+ * one, keeping the number of live entities in the model constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityChurnBenchmark {
+
+	// Number of live generated entities
+	@Param({"1000", "100000"})
+	public int numLive;
+
+	private JaamSimModel model;
+	private Entity[] live;
+	private int oldest;
+
+	@Setup
+	public void setup() {
+		model = new JaamSimModel();
+		JaamSimModel.setCurrent(model);
+		live = new Entity[numLive];
+		for (int i = 0; i < numLive; i++)
+			live[i] = newEntity();
+	}
+
+	@TearDown
+	public void tearDown() {
+		JaamSimModel.setCurrent(null);
+	}
+
+	@Benchmark
+	public Entity churn() {
+		Entity ent = newEntity();
+		live[oldest].kill();
+		live[oldest] = ent;
+		oldest = (oldest + 1) % numLive;
+		return ent;
+	}
+
+	private static Entity newEntity() {
+		Entity ent = new Entity();
+		ent.setFlag(Entity.FLAG_GENERATED);
+		return ent;
+	}
+}
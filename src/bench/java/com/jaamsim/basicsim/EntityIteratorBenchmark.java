@@ -0,0 +1,94 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken to loop over the instances of a class that makes up
+ * a small part of a large model, as is done by earlyInit and validate for
+ * many objects.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityIteratorBenchmark {
+
+	// Number of entities in the model
+	@Param({"50000"})
+	public int numEntities;
+
+	// Number of entities that are instances of the class being looped over
+	@Param({"10", "1000"})
+	public int numMatching;
+
+	private JaamSimModel model;
+
+	public static class RareEntity extends Entity {}
+
+	@Setup
+	public void setup() {
+		model = new JaamSimModel();
+		JaamSimModel.setCurrent(model);
+		int step = numEntities / numMatching;
+		for (int i = 0; i < numEntities; i++) {
+			Entity ent = (i % step == 0) ? new RareEntity() : new Entity();
+			ent.setFlag(Entity.FLAG_GENERATED);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		JaamSimModel.setCurrent(null);
+	}
+
+	@Benchmark
+	public int clonesOf() {
+		int num = 0;
+		for (RareEntity each : Entity.getClonesOfIterator(RareEntity.class)) {
+			if (each != null)
+				num++;
+		}
+		return num;
+	}
+
+	@Benchmark
+	public int instancesOf() {
+		int num = 0;
+		for (RareEntity each : Entity.getInstanceIterator(RareEntity.class)) {
+			if (each != null)
+				num++;
+		}
+		return num;
+	}
+}
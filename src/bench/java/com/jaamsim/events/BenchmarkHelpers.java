@@ -0,0 +1,97 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Runs an EventManager from a benchmark thread and waits for it to stop.
+ */
+final class BenchmarkHelpers {
+
+	private BenchmarkHelpers() {}
+
+	/**
+	 * Executes the events for the given EventManager up to, but not
+	 * including, the given tick and returns once execution has stopped.
+	 * @throws ProcessError if an event raised an error, with the error as its cause
+	 */
+	static void runToTick(EventManager evt, long tick) {
+		StopListener l = new StopListener();
+		evt.setTimeListener(l);
+		evt.setErrorListener(l);
+		evt.resume(tick);
+
+		try {
+			l.stopped.await();
+		}
+		catch (InterruptedException e) {
+			evt.pause();
+			throw new ProcessError("Interrupted while waiting for the events", e);
+		}
+		finally {
+			evt.setTimeListener(null);
+			evt.setErrorListener(null);
+		}
+
+		if (l.error != null)
+			throw new ProcessError("Error while executing an event: " + l.error.getMessage(), l.error);
+	}
+
+	/**
+	 * Starts the given target at the present simulation time and executes
+	 * events until none are left.
+	 */
+	static void runProcess(EventManager evt, ProcessTarget t) {
+		evt.scheduleProcessExternal(0, 0, false, t, null);
+		runToTick(evt, Long.MAX_VALUE);
+	}
+
+	private static class StopListener implements EventTimeListener, EventErrorListener {
+		final CountDownLatch stopped = new CountDownLatch(1);
+		volatile Throwable error;
+
+		@Override
+		public void tickUpdate(long tick) {}
+
+		@Override
+		public void timeRunning(boolean running) {
+			if (!running)
+				stopped.countDown();
+		}
+
+		@Override
+		public void handleError(EventManager evt, Throwable t, long currentTick) {
+			// Execution stops without reporting that time has stopped
+			error = t;
+			stopped.countDown();
+		}
+	}
+
+	/**
+	 * Target that does nothing, used as the payload for scheduled events.
+	 */
+	static final class NoopTarget extends ProcessTarget {
+		@Override
+		public String getDescription() {
+			return "NoopTarget";
+		}
+
+		@Override
+		public void process() {}
+	}
+}
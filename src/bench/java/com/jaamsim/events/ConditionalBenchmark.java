@@ -0,0 +1,126 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of each advance of simulation time while a number of
+ * conditional events are waiting. Conditionals that are scanned are evaluated
+ * on every advance, while those that declare their dependencies are only
+ * evaluated when a dependency changes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConditionalBenchmark {
+
+	private static final int NUM_ADVANCES = 1000;
+
+	@Param({"10", "100", "1000"})
+	public int numConditionals;
+
+	// TRUE if the conditionals declare their dependencies
+	@Param({"false", "true"})
+	public boolean declared;
+
+	// TRUE if the conditionals are evaluated in parallel
+	@Param({"false", "true"})
+	public boolean parallel;
+
+	private EventManager evt;
+
+	@Setup
+	public void setup() {
+		evt = new EventManager("ConditionalBenchmark");
+		evt.clear();
+		evt.setParallelConditionals(parallel);
+
+		// Avoid thread switches, so that the time is spent on the conditionals
+		evt.setDirectHandoff(true);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_ADVANCES)
+	public void advanceTime() {
+		BenchmarkHelpers.runProcess(evt, new ProcessTarget() {
+			@Override
+			public String getDescription() {
+				return "ConditionalBenchmark";
+			}
+
+			@Override
+			public void process() {
+				Flag flag = new Flag();
+				ProcessTarget noop = new BenchmarkHelpers.NoopTarget();
+				for (int i = 0; i < numConditionals; i++)
+					EventManager.scheduleUntil(noop, new FlagConditional(flag, declared), null);
+
+				for (int i = 0; i < NUM_ADVANCES; i++)
+					EventManager.waitTicks(1, 0, true, null);
+
+				// Release the conditionals so that none are left for the next invocation
+				flag.set = true;
+				EventManager.markChanged(flag);
+			}
+		});
+	}
+
+	private static class Flag {
+		boolean set;
+	}
+
+	private static class FlagConditional extends Conditional {
+		final Flag flag;
+		final Object[] deps;
+		FlagConditional(Flag f, boolean declared) {
+			flag = f;
+			deps = declared ? new Object[]{ f } : null;
+		}
+
+		@Override
+		public boolean evaluate() {
+			return flag.set;
+		}
+
+		@Override
+		public Object[] getDependencies() {
+			return deps;
+		}
+
+		@Override
+		public boolean isSideEffectFree() {
+			return true;
+		}
+	}
+}
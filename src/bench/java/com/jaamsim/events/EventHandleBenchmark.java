@@ -0,0 +1,91 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken to schedule an event held by an EventHandle and
+ * then either kill it, or interrupt it so that it is executed immediately.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventHandleBenchmark {
+
+	private static final int NUM_OPS = 10000;
+
+	private EventManager evt;
+
+	@Setup
+	public void setup() {
+		evt = new EventManager("EventHandleBenchmark");
+		evt.clear();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OPS)
+	public void killEvent() {
+		BenchmarkHelpers.runProcess(evt, new HandleTarget(false));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_OPS)
+	public void interruptEvent() {
+		BenchmarkHelpers.runProcess(evt, new HandleTarget(true));
+	}
+
+	private static class HandleTarget extends ProcessTarget {
+		final boolean interrupt;
+		HandleTarget(boolean i) {
+			interrupt = i;
+		}
+
+		@Override
+		public String getDescription() {
+			return "HandleTarget";
+		}
+
+		@Override
+		public void process() {
+			EventHandle handle = new EventHandle();
+			ProcessTarget noop = new BenchmarkHelpers.NoopTarget();
+			for (int i = 0; i < NUM_OPS; i++) {
+				EventManager.scheduleTicks(1000, 0, true, noop, handle);
+				if (interrupt)
+					EventManager.interruptEvent(handle);
+				else
+					EventManager.killEvent(handle);
+			}
+		}
+	}
+}
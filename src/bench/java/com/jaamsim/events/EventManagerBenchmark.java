@@ -0,0 +1,87 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the number of events per second that can be scheduled from outside
+ * the model, one at a time or as a batch, and then executed, for each type of
+ * event queue.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventManagerBenchmark {
+
+	private static final int NUM_EVENTS = 100000;
+
+	@Param({"RED_BLACK_TREE", "LADDER_QUEUE", "TIMING_WHEEL"})
+	public String queueType;
+
+	// TRUE if every event is scheduled at the same tick, giving a single long node
+	@Param({"false", "true"})
+	public boolean sameTick;
+
+	private EventManager evt;
+	private ProcessTarget target;
+	private EventBatch batch;
+
+	@Setup
+	public void setup() {
+		evt = new EventManager("EventManagerBenchmark");
+		evt.clear();
+		evt.setQueueType(EventManager.QueueType.valueOf(queueType));
+		target = new BenchmarkHelpers.NoopTarget();
+
+		batch = new EventBatch(NUM_EVENTS);
+		for (int i = 0; i < NUM_EVENTS; i++)
+			batch.add(sameTick ? 0 : i, 0, target);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_EVENTS)
+	public void scheduleExecute() {
+		for (int i = 0; i < NUM_EVENTS; i++)
+			evt.scheduleProcessExternal(sameTick ? 0 : i, 0, true, target, null);
+
+		BenchmarkHelpers.runToTick(evt, Long.MAX_VALUE);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_EVENTS)
+	public void scheduleBatchExecute() {
+		evt.scheduleBatchExternal(batch);
+		BenchmarkHelpers.runToTick(evt, Long.MAX_VALUE);
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken to remove the next event from an event queue and
+ * insert a new one after a random delay, keeping the number of pending events
+ * constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventQueueBenchmark {
+
+	@Param({"RED_BLACK_TREE", "LADDER_QUEUE", "TIMING_WHEEL"})
+	public String queueType;
+
+	// Number of pending events
+	@Param({"10", "1000", "100000"})
+	public int size;
+
+	private EventQueue queue;
+	private long[] delays;
+	private int nextDelay;
+
+	@Setup
+	public void setup() {
+		switch (EventManager.QueueType.valueOf(queueType)) {
+		case LADDER_QUEUE:
+			queue = new LadderQueue();
+			break;
+		case TIMING_WHEEL:
+			queue = new TimingWheel(1L << 24);
+			break;
+		default:
+			queue = new EventTree();
+			break;
+		}
+
+		// Delays of up to one second with a one microsecond tick
+		Random rand = new Random(1);
+		delays = new long[1024];
+		for (int i = 0; i < delays.length; i++)
+			delays[i] = 1 + rand.nextInt(1000000);
+
+		for (int i = 0; i < size; i++)
+			addEvent(nextDelay(), i % 3);
+	}
+
+	@Benchmark
+	public EventNode hold() {
+		EventNode node = queue.getNextNode();
+		long tick = node.schedTick;
+		int prio = node.priority;
+		Event evt = node.head;
+		node.removeEvent(evt);
+		if (node.head == null)
+			queue.removeNode(tick, prio);
+
+		// Reuse the removed event, so that only the queue operations are measured
+		evt.node = queue.createOrFindNode(tick + nextDelay(), prio);
+		evt.node.addEvent(evt, true);
+		return evt.node;
+	}
+
+	private long nextDelay() {
+		long ret = delays[nextDelay];
+		nextDelay = (nextDelay + 1) % delays.length;
+		return ret;
+	}
+
+	private void addEvent(long tick, int prio) {
+		Event evt = new Event();
+		evt.node = queue.createOrFindNode(tick, prio);
+		evt.node.addEvent(evt, true);
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken for a Process to wait and be resumed. With a single
+ * Process each wait resumes the same Process, with many Processes every wait
+ * passes control to a different one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessHandoffBenchmark {
+
+	private static final int NUM_WAITS = 10000;
+
+	@Param({"1", "100"})
+	public int numProcesses;
+
+	@Param({"false", "true"})
+	public boolean directHandoff;
+
+	private EventManager evt;
+
+	@Setup
+	public void setup() {
+		evt = new EventManager("ProcessHandoffBenchmark");
+		evt.clear();
+		evt.setDirectHandoff(directHandoff);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(NUM_WAITS)
+	public void waitTicks() {
+		int waitsPerProc = NUM_WAITS / numProcesses;
+		for (int i = 0; i < numProcesses; i++)
+			evt.scheduleProcessExternal(0, 0, true, new WaitTarget(waitsPerProc), null);
+
+		BenchmarkHelpers.runToTick(evt, Long.MAX_VALUE);
+	}
+
+	private static class WaitTarget extends ProcessTarget {
+		final int numWaits;
+		WaitTarget(int n) {
+			numWaits = n;
+		}
+
+		@Override
+		public String getDescription() {
+			return "WaitTarget";
+		}
+
+		@Override
+		public void process() {
+			for (int i = 0; i < numWaits; i++)
+				EventManager.waitTicks(1, 0, true, null);
+		}
+	}
+}
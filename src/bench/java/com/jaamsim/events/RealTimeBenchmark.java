@@ -0,0 +1,65 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the wall clock time taken to execute an event that is scheduled a
+ * fixed time in the future in real-time mode. The amount by which the sampled
+ * times exceed the delay is the jitter in the start time of the event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RealTimeBenchmark {
+
+	// Delay to the event in microseconds, equal to ticks
+	@Param({"1000", "3000"})
+	public long delay;
+
+	private EventManager evt;
+	private final ProcessTarget target = new BenchmarkHelpers.NoopTarget();
+
+	@Setup
+	public void setup() {
+		evt = new EventManager("RealTimeBenchmark");
+		evt.clear();
+		evt.setExecuteRealTime(true, 1.0d);
+	}
+
+	@Benchmark
+	public void delayedEvent() {
+		evt.scheduleProcessExternal(delay, 0, false, target, null);
+		BenchmarkHelpers.runToTick(evt, Long.MAX_VALUE);
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.JaamSimModel;
+
+/**
+ * Measures the time taken to read and assign an entity's attributes from an
+ * expression, as is done by an Assign object or an expression input.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttributeBenchmark {
+
+	private JaamSimModel model;
+	private ExpParser.Expression read;
+	private ExpParser.Assignment assign;
+
+	@Setup
+	public void setup() throws ExpError {
+		model = new JaamSimModel();
+		JaamSimModel.setCurrent(model);
+		InputAgent.setRecordEdits(false);
+		InputAgent.readResource("<res>/inputs/autoload.cfg");
+
+		// Eight attributes, the last of which is used
+		Entity ent = InputAgent.defineEntityWithUniqueName(Entity.class, "Ent", "", true);
+		InputAgent.applyArgs(ent, "AttributeDefinitionList",
+				"{", "Attrib1", "0", "}", "{", "Attrib2", "0", "}", "{", "Attrib3", "0", "}", "{", "Attrib4", "0", "}",
+				"{", "Attrib5", "0", "}", "{", "Attrib6", "0", "}", "{", "Attrib7", "0", "}", "{", "Count", "0", "}");
+
+		read = ExpParser.parseExpression(ExpEvaluator.getParseContext(ent, ""), "this.Count * 2 + 1");
+		assign = ExpParser.parseAssignment(ExpEvaluator.getParseContext(ent, ""), "this.Count = this.Count + 1");
+	}
+
+	@TearDown
+	public void tearDown() {
+		JaamSimModel.setCurrent(null);
+	}
+
+	@Benchmark
+	public double readAttribute() throws ExpError {
+		return ExpEvaluator.evaluateExpression(read, 0.0d).value;
+	}
+
+	@Benchmark
+	public ExpResult assignAttribute() throws ExpError {
+		return ExpEvaluator.evaluateExpression(assign, 0.0d);
+	}
+}
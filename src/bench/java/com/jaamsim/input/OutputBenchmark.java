@@ -0,0 +1,92 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jaamsim.ProcessFlow.Queue;
+import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.JaamSimModel;
+
+/**
+ * Measures the time taken to find an entity's output by name and to read its
+ * value, as is done by an expression, a Logger or a Graph.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputBenchmark {
+
+	private JaamSimModel model;
+	private Entity ent;
+	private OutputHandle length;
+	private OutputHandle name;
+	private ExpParser.Expression read;
+
+	@Setup
+	public void setup() throws ExpError {
+		model = new JaamSimModel();
+		JaamSimModel.setCurrent(model);
+		InputAgent.setRecordEdits(false);
+		InputAgent.readResource("<res>/inputs/autoload.cfg");
+
+		ent = InputAgent.defineEntityWithUniqueName(Queue.class, "Queue", "", true);
+		length = ent.getOutputHandle("QueueLength");
+		name = ent.getOutputHandle("Name");
+		read = ExpParser.parseExpression(ExpEvaluator.getParseContext(ent, ""), "this.QueueLength * 2 + 1");
+	}
+
+	@TearDown
+	public void tearDown() {
+		JaamSimModel.setCurrent(null);
+	}
+
+	@Benchmark
+	public OutputHandle resolveOutput() {
+		return ent.getOutputHandle("NumberReneged");
+	}
+
+	@Benchmark
+	public double readNumericOutput() {
+		return length.getValueAsDouble(0.0d, 0.0d);
+	}
+
+	@Benchmark
+	public String readObjectOutput() {
+		return name.getValue(0.0d, String.class);
+	}
+
+	@Benchmark
+	public double readOutputExpression() throws ExpError {
+		return ExpEvaluator.evaluateExpression(read, 0.0d).value;
+	}
+}
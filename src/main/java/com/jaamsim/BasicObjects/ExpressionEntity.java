@@ -23,7 +23,6 @@ import com.jaamsim.input.Input;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.input.UnitTypeInput;
-import com.jaamsim.ui.FrameBox;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
 
@@ -57,7 +56,7 @@ public class ExpressionEntity extends DisplayEntity implements SampleProvider {
 
 		if (in == unitType) {
 			sampleValue.setUnitType(getUnitType());
-			FrameBox.reSelectEntity();  // Update the units in the Output Viewer
+			getJaamSimModel().updateUI();  // Update the units in the Output Viewer
 			return;
 		}
 	}
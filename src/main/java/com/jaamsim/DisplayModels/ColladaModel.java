@@ -34,6 +34,7 @@ import com.jaamsim.collada.ColParser;
 import com.jaamsim.controllers.RenderManager;
 import com.jaamsim.input.ActionListInput;
 import com.jaamsim.input.FileInput;
+import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.InputErrorException;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
@@ -50,7 +51,6 @@ import com.jaamsim.render.MeshProxy;
 import com.jaamsim.render.RenderProxy;
 import com.jaamsim.render.RenderUtils;
 import com.jaamsim.render.VisibilityInfo;
-import com.jaamsim.ui.ContextMenu;
 import com.jaamsim.ui.ContextMenuItem;
 import com.jaamsim.ui.GUIFrame;
 import com.jaamsim.ui.LogBox;
@@ -332,7 +332,8 @@ public class ColladaModel extends DisplayModel {
 	public void validate() {
 		super.validate();
 
-		if (!RenderManager.isGood())
+		// The renderer is not started for a batch run
+		if (InputAgent.getBatch() || !RenderManager.isGood())
 			return;
 
 		// Check that any actions listed in the action list exist in the specified collada file
@@ -385,11 +386,11 @@ public class ColladaModel extends DisplayModel {
 
 	}
 
-	static {
-		ContextMenu.addCustomMenuHandler(new ExportColladaModelHandler());
-	}
-
-	private static class ExportColladaModelHandler implements ContextMenuItem {
+	/**
+	 * Context menu item that exports the mesh to a JSB file. It is registered
+	 * by the ContextMenu so that the model can be loaded without a user interface.
+	 */
+	public static class ExportColladaModelHandler implements ContextMenuItem {
 		@Override
 		public String getMenuText() {
 			return "Export 3D Binary File (*.jsb)";
@@ -31,6 +31,7 @@ import com.jaamsim.datatypes.IntegerVector;
 import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.ColourInput;
 import com.jaamsim.input.Input;
+import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.StringChoiceInput;
 import com.jaamsim.input.StringListInput;
@@ -89,16 +90,29 @@ public class TextModel extends DisplayModel {
 	public static final ArrayList<String> validFontNames;
 	public static final ArrayList<String> validStyles;
 
+	// True if the fonts were not looked up and any font name is accepted
+	private static final boolean anyFontName;
+
 	static {
-		GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-		String[ ] fontNames = ge.getAvailableFontFamilyNames();
-		Arrays.sort(fontNames);
-		validFontNames = new ArrayList<>(Arrays.asList(fontNames));
-		int def = validFontNames.indexOf("Verdana");
-		if (def > -1)
-			defFont = def;
-		else
+		// The fonts are only needed to display the model, so the AWT classes
+		// are not loaded in batch mode
+		anyFontName = InputAgent.getBatch();
+		if (anyFontName) {
+			validFontNames = new ArrayList<>();
+			validFontNames.add("Verdana");
 			defFont = 0;
+		}
+		else {
+			GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
+			String[ ] fontNames = ge.getAvailableFontFamilyNames();
+			Arrays.sort(fontNames);
+			validFontNames = new ArrayList<>(Arrays.asList(fontNames));
+			int def = validFontNames.indexOf("Verdana");
+			if (def > -1)
+				defFont = def;
+			else
+				defFont = 0;
+		}
 
 		validStyles = new ArrayList<>();
 		validStyles.add("BOLD");
@@ -107,7 +121,7 @@ public class TextModel extends DisplayModel {
 
 	{
 		fontName = new StringChoiceInput("FontName", FONT, defFont);
-		fontName.setChoices(validFontNames);
+		TextModel.setFontChoices(fontName);
 		this.addInput(fontName);
 
 		textHeight = new ValueInput("TextHeight", FONT, 0.3d);
@@ -156,6 +170,15 @@ public class TextModel extends DisplayModel {
 		}
 	}
 
+	/**
+	 * Sets the valid choices for an input that selects a font.
+	 * @param in - input for the font name
+	 */
+	public static void setFontChoices(StringChoiceInput in) {
+		in.setChoices(validFontNames);
+		in.setAcceptAnyChoice(anyFontName);
+	}
+
 	private static int getStyle(ArrayList<String> strArray) {
 		int ret = Font.PLAIN;
 		for(String each: strArray ) {
@@ -153,6 +153,8 @@ public class DisplayEntity extends Entity {
 
 	private static final ArrayList<Vec3d> defPoints =  new ArrayList<>();
 	private static final DoubleVector defRange = new DoubleVector(2);
+	private static final Vec3d defZero = new Vec3d();
+	private static final Vec3d defSize = new Vec3d(1.0d, 1.0d, 1.0d);
 	static {
 		defPoints.add(new Vec3d(0.0d, 0.0d, 0.0d));
 		defPoints.add(new Vec3d(1.0d, 0.0d, 0.0d));
@@ -162,19 +164,19 @@ public class DisplayEntity extends Entity {
 	}
 
 	{
-		positionInput = new Vec3dInput("Position", GRAPHICS, new Vec3d());
+		positionInput = new Vec3dInput("Position", GRAPHICS, defZero);
 		positionInput.setUnitType(DistanceUnit.class);
 		this.addInput(positionInput);
 
-		alignmentInput = new Vec3dInput("Alignment", GRAPHICS, new Vec3d());
+		alignmentInput = new Vec3dInput("Alignment", GRAPHICS, defZero);
 		this.addInput(alignmentInput);
 
-		sizeInput = new Vec3dInput("Size", GRAPHICS, new Vec3d(1.0d, 1.0d, 1.0d));
+		sizeInput = new Vec3dInput("Size", GRAPHICS, defSize);
 		sizeInput.setUnitType(DistanceUnit.class);
 		sizeInput.setValidRange(0.0d, Double.POSITIVE_INFINITY);
 		this.addInput(sizeInput);
 
-		orientationInput = new Vec3dInput("Orientation", GRAPHICS, new Vec3d());
+		orientationInput = new Vec3dInput("Orientation", GRAPHICS, defZero);
 		orientationInput.setUnitType(AngleUnit.class);
 		this.addInput(orientationInput);
 
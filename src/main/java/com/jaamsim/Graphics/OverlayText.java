@@ -131,7 +131,7 @@ public class OverlayText extends OverlayEntity {
 		this.addInput(failText);
 
 		fontName = new StringChoiceInput("FontName", FONT, -1);
-		fontName.setChoices(TextModel.validFontNames);
+		TextModel.setFontChoices(fontName);
 		fontName.setDefaultText("TextModel");
 		this.addInput(fontName);
 
@@ -16,10 +16,6 @@
  */
 package com.jaamsim.Graphics;
 
-import java.awt.Toolkit;
-import java.awt.datatransfer.Clipboard;
-import java.awt.datatransfer.DataFlavor;
-import java.awt.datatransfer.StringSelection;
 import java.util.ArrayList;
 
 import com.jaamsim.DisplayModels.TextModel;
@@ -34,6 +30,7 @@ import com.jaamsim.input.ValueInput;
 import com.jaamsim.input.Vec3dInput;
 import com.jaamsim.math.Transform;
 import com.jaamsim.math.Vec3d;
+import com.jaamsim.ui.GUIFrame;
 import com.jaamsim.units.DistanceUnit;
 import com.jogamp.newt.event.KeyEvent;
 
@@ -82,7 +79,7 @@ public abstract class TextBasics extends DisplayEntity {
 	{
 
 		fontName = new StringChoiceInput("FontName", FONT, -1);
-		fontName.setChoices(TextModel.validFontNames);
+		TextModel.setFontChoices(fontName);
 		fontName.setDefaultText("TextModel");
 		this.addInput(fontName);
 
@@ -187,23 +184,20 @@ public abstract class TextBasics extends DisplayEntity {
 	}
 
 	private void copyToClipboard() {
-		Clipboard clpbrd = Toolkit.getDefaultToolkit().getSystemClipboard();
 		int start = Math.min(insertPos, insertPos+numSelected);
 		int end = Math.max(insertPos, insertPos+numSelected);
 		StringBuilder sb = new StringBuilder(editText);
 		String copiedText = sb.substring(start, end).toString();
-		clpbrd.setContents(new StringSelection(copiedText), null);
+		GUIFrame.copyToClipboard(copiedText);
 	}
 
 	private void pasteFromClipboard() {
-		Clipboard clpbrd = Toolkit.getDefaultToolkit().getSystemClipboard();
-		try {
-			String newText = (String)clpbrd.getData(DataFlavor.stringFlavor);
-			StringBuilder sb = new StringBuilder(editText);
-			editText = sb.insert(insertPos, newText).toString();
-			insertPos += newText.length();
-		}
-		catch (Throwable err) {}
+		String newText = GUIFrame.getStringFromClipboard();
+		if (newText == null)
+			return;
+		StringBuilder sb = new StringBuilder(editText);
+		editText = sb.insert(insertPos, newText).toString();
+		insertPos += newText.length();
 	}
 
 	@Override
@@ -62,6 +62,7 @@ public class Assemble extends LinkedService {
 
 	private DisplayEntity assembledEntity;	// the generated entity representing the assembled part
 	private int numberGenerated = 0;  // Number of entities generated so far
+	private String entityPrefix;      // Prefix for the names of the assembled entities
 
 	{
 		waitQueue.setHidden(true);
@@ -98,6 +99,7 @@ public class Assemble extends LinkedService {
 
 		assembledEntity = null;
 		numberGenerated = 0;
+		entityPrefix = this.getName() + "_";
 	}
 
 	@Override
@@ -157,11 +159,9 @@ public class Assemble extends LinkedService {
 		// Create the entity representing the assembled part
 		numberGenerated++;
 		DisplayEntity proto = prototypeEntity.getValue();
-		StringBuilder sb = new StringBuilder();
-		sb.append(this.getName()).append("_").append(numberGenerated);
 
 		// Create the new entity
-		assembledEntity = InputAgent.generateEntityWithName(proto.getClass(), sb.toString());
+		assembledEntity = InputAgent.generateEntityWithName(proto.getClass(), entityPrefix, numberGenerated);
 		Entity.fastCopyInputs(proto, assembledEntity);
 		assembledEntity.earlyInit();
 
@@ -49,12 +49,11 @@ public class Duplicate extends LinkedComponent {
 
 		// Make the duplicates and send them to the targets
 		int n = 1;
+		String prefix = ent.getName() + "_Dup";
 		for (Linkable target : targetComponentList.getValue()) {
 
 			// Create the duplicated entity
-			StringBuilder sb = new StringBuilder();
-			sb.append(ent.getName()).append("_Dup").append(n);
-			DisplayEntity dup = InputAgent.generateEntityWithName(ent.getClass(), sb.toString());
+			DisplayEntity dup = InputAgent.generateEntityWithName(ent.getClass(), prefix, n);
 			Entity.fastCopyInputs(ent, dup);
 
 			// Set the state for the duplicated entity
@@ -18,6 +18,7 @@
 package com.jaamsim.ProcessFlow;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
 import com.jaamsim.Commands.KeywordCommand;
 import com.jaamsim.EntityProviders.EntityProvInput;
@@ -27,8 +28,11 @@ import com.jaamsim.Graphics.TextBasics;
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.EntityPool;
+import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.InputErrorException;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.KeywordIndex;
 import com.jaamsim.input.Output;
@@ -67,8 +71,16 @@ public class EntityGenerator extends LinkedService {
 	         exampleList = {"3", "InputValue1", "[InputValue1].Value"})
 	private final SampleInput maxNumber;
 
+	@Keyword(description = "If TRUE, generated entities that have been destroyed, for example by "
+	                     + "an EntitySink, are re-used in place of new entities. "
+	                     + "This option reduces the memory used by a long run, but must not be "
+	                     + "used if any object retains a reference to a destroyed entity.",
+	         exampleList = {"TRUE"})
+	private final BooleanInput recycleEntities;
+
 	private int numberGenerated = 0;  // Number of entities generated so far
 	private double presentIAT;
+	private final HashMap<DisplayEntity, EntityPool> pools = new HashMap<>(); // destroyed entities for each prototype
 
 	{
 		defaultEntity.setHidden(true);
@@ -114,15 +126,33 @@ public class EntityGenerator extends LinkedService {
 		maxNumber.setValidRange(1, Double.POSITIVE_INFINITY);
 		maxNumber.setDefaultText(Input.POSITIVE_INFINITY);
 		this.addInput(maxNumber);
+
+		recycleEntities = new BooleanInput("RecycleEntities", KEY_INPUTS, false);
+		this.addInput(recycleEntities);
 	}
 
 	public EntityGenerator() {}
 
+	@Override
+	public void validate() {
+		super.validate();
+
+		// The base name is used for generated names without being checked again
+		String name = baseName.getValue();
+		if (name != null && !InputAgent.isValidName(name))
+			throw new InputErrorException("%s cannot contain spaces, tabs, { or }: %s",
+					baseName.getKeyword(), name);
+	}
+
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
 		numberGenerated = 0;
 		presentIAT = 0.0d;
+
+		for (EntityPool pool : pools.values())
+			pool.clear();
+		pools.clear();
 	}
 
 	@Override
@@ -176,10 +206,7 @@ public class EntityGenerator extends LinkedService {
 		for (int i=0; i<num; i++) {
 			numberGenerated++;
 			DisplayEntity proto = prototypeEntity.getValue().getNextEntity(simTime);
-			StringBuilder sb = new StringBuilder();
-			sb.append(name).append(numberGenerated);
-			DisplayEntity ent = InputAgent.generateEntityWithName(proto.getClass(), sb.toString());
-			Entity.fastCopyInputs(proto, ent);
+			DisplayEntity ent = this.generateEntity(proto, name, numberGenerated);
 			ent.earlyInit();
 
 			// Set the obj output to the assembled part
@@ -191,6 +218,35 @@ public class EntityGenerator extends LinkedService {
 		return true;
 	}
 
+	/**
+	 * Returns a copy of the prototype named by the given prefix and number,
+	 * re-using a destroyed copy if entities are being recycled.
+	 */
+	private DisplayEntity generateEntity(DisplayEntity proto, String prefix, long num) {
+		if (!recycleEntities.getValue()) {
+			DisplayEntity ent = InputAgent.generateEntityWithName(proto.getClass(), prefix, num);
+			Entity.fastCopyInputs(proto, ent);
+			return ent;
+		}
+
+		EntityPool pool = pools.get(proto);
+		if (pool == null) {
+			pool = new EntityPool();
+			pools.put(proto, pool);
+		}
+
+		DisplayEntity ent = (DisplayEntity) pool.acquire(prefix, num);
+		if (ent != null) {
+			ent.resetGraphics();
+			return ent;
+		}
+
+		ent = InputAgent.generateEntityWithName(proto.getClass(), prefix, num);
+		Entity.fastCopyInputs(proto, ent);
+		pool.manage(ent);
+		return ent;
+	}
+
 	@Override
 	protected double getStepDuration(double simTime) {
 		return presentIAT;
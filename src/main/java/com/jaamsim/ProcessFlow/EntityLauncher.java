@@ -44,6 +44,7 @@ public class EntityLauncher extends GameEntity implements LinkDisplayable {
 	protected final InterfaceEntityInput<Linkable> nextComponent;
 
 	private int numberGenerated = 0;  // Number of entities generated so far
+	private String entityPrefix;      // Prefix for the names of the generated entities
 
 	{
 		prototypeEntity = new EntityProvInput<>(DisplayEntity.class, "PrototypeEntity", KEY_INPUTS, null);
@@ -60,15 +61,19 @@ public class EntityLauncher extends GameEntity implements LinkDisplayable {
 
 	public EntityLauncher() {}
 
+	@Override
+	public void earlyInit() {
+		super.earlyInit();
+		entityPrefix = this.getName() + "_";
+	}
+
 	@Override
 	public void doAction() {
 
 		// Create a new entity
 		numberGenerated++;
 		DisplayEntity proto = prototypeEntity.getValue().getNextEntity(0.0d);
-		StringBuilder sb = new StringBuilder();
-		sb.append(this.getName()).append("_").append(numberGenerated);
-		DisplayEntity ent = InputAgent.generateEntityWithName(proto.getClass(), sb.toString());
+		DisplayEntity ent = InputAgent.generateEntityWithName(proto.getClass(), entityPrefix, numberGenerated);
 		Entity.fastCopyInputs(proto, ent);
 		ent.earlyInit();
 
@@ -50,6 +50,7 @@ public class Pack extends LinkedService {
 
 	protected EntityContainer container;	// the generated EntityContainer
 	private int numberGenerated;  // Number of EntityContainers generated so far
+	private String entityPrefix;  // Prefix for the names of the EntityContainers
 	private int numberInserted;   // Number of entities inserted to the EntityContainer
 	private int numberToInsert;   // Number of entities to insert in the present EntityContainer
 	private boolean startedPacking;  // True if the packing process has already started
@@ -85,6 +86,7 @@ public class Pack extends LinkedService {
 		super.earlyInit();
 		container = null;
 		numberGenerated = 0;
+		entityPrefix = this.getName() + "_";
 		numberInserted = 0;
 		startedPacking = false;
 		packedEntity = null;
@@ -93,9 +95,7 @@ public class Pack extends LinkedService {
 	protected EntityContainer getNextContainer() {
 		numberGenerated++;
 		EntityContainer proto = prototypeEntityContainer.getValue();
-		StringBuilder sb = new StringBuilder();
-		sb.append(this.getName()).append("_").append(numberGenerated);
-		EntityContainer ret = InputAgent.generateEntityWithName(proto.getClass(), sb.toString());
+		EntityContainer ret = InputAgent.generateEntityWithName(proto.getClass(), entityPrefix, numberGenerated);
 		Entity.fastCopyInputs(proto, ret);
 		ret.earlyInit();
 		return ret;
@@ -34,12 +34,14 @@ public class SimEntity extends StateEntity implements LinkDisplayable {
 	         exampleList = "Idle Working")
 	protected final StringListInput defaultStateList;
 
+	private static final ArrayList<String> defStates = new ArrayList<>(0);
+
 	{
 		attributeDefinitionList.setHidden(false);
 		stateGraphics.setHidden(false);
 		workingStateListInput.setHidden(true);
 
-		defaultStateList = new StringListInput("DefaultStateList", KEY_INPUTS, new ArrayList<String>());
+		defaultStateList = new StringListInput("DefaultStateList", KEY_INPUTS, defStates);
 		this.addInput(defaultStateList);
 	}
 
@@ -213,9 +213,13 @@ public class SampleListInput extends ListInput<ArrayList<SampleProvider>> {
 
 	@Override
 	public void removeReferences(Entity ent) {
-		if (value == null)
+		if (value == null || !value.contains(ent))
 			return;
-		value.removeAll(Collections.singleton(ent));
+
+		// The value may be shared with other inputs, so it is replaced instead of modified
+		ArrayList<SampleProvider> newValue = new ArrayList<>(value);
+		newValue.removeAll(Collections.singleton(ent));
+		value = newValue;
 	}
 
 }
@@ -169,7 +169,13 @@ public class StringProvListInput extends ListInput<ArrayList<StringProvider>> {
 				}
 			}
 		}
-		value.removeAll(list);
+		if (list.isEmpty())
+			return;
+
+		// The value may be shared with other inputs, so it is replaced instead of modified
+		ArrayList<StringProvider> newValue = new ArrayList<>(value);
+		newValue.removeAll(list);
+		value = newValue;
 	}
 
 }
@@ -17,9 +17,11 @@
 package com.jaamsim.Thresholds;
 
 import java.util.ArrayList;
+import java.util.WeakHashMap;
 
 import com.jaamsim.DisplayModels.ShapeModel;
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.JaamSimModel;
 import com.jaamsim.events.EventHandle;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.ProcessTarget;
@@ -82,7 +84,7 @@ public class Threshold extends StateEntity {
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
-		thresholdChangedTarget.users.clear();
+		getThresholdChangedTarget(getJaamSimModel()).users.clear();
 		open = initialOpenValue;
 		openCount = 0L;
 		closedCount = 0L;
@@ -119,11 +121,23 @@ public class Threshold extends StateEntity {
 		return "Open".equals(state);
 	}
 
-	private static final EventHandle thresholdChangedHandle = new EventHandle();
-	private static final ThresholdChangedTarget thresholdChangedTarget = new ThresholdChangedTarget();
+	// Each model batches the notifications for its own thresholds
+	private static final WeakHashMap<JaamSimModel, ThresholdChangedTarget> thresholdChangedTargets = new WeakHashMap<>();
+
+	private static ThresholdChangedTarget getThresholdChangedTarget(JaamSimModel model) {
+		synchronized (thresholdChangedTargets) {
+			ThresholdChangedTarget target = thresholdChangedTargets.get(model);
+			if (target == null) {
+				target = new ThresholdChangedTarget();
+				thresholdChangedTargets.put(model, target);
+			}
+			return target;
+		}
+	}
 
 	private static class ThresholdChangedTarget extends ProcessTarget {
 		public final ArrayList<ThresholdUser> users = new ArrayList<>();
+		public final EventHandle handle = new EventHandle();
 
 		public ThresholdChangedTarget() {}
 
@@ -162,12 +176,13 @@ public class Threshold extends StateEntity {
 			closedCount++;
 		}
 
+		ThresholdChangedTarget thresholdChangedTarget = getThresholdChangedTarget(getJaamSimModel());
 		for (ThresholdUser user : this.userList) {
 			if (!thresholdChangedTarget.users.contains(user))
 				thresholdChangedTarget.users.add(user);
 		}
-		if (!thresholdChangedTarget.users.isEmpty() && !thresholdChangedHandle.isScheduled())
-			this.scheduleProcessTicks(0, 2, false, thresholdChangedTarget, thresholdChangedHandle);
+		if (!thresholdChangedTarget.users.isEmpty() && !thresholdChangedTarget.handle.isScheduled())
+			this.scheduleProcessTicks(0, 2, false, thresholdChangedTarget, thresholdChangedTarget.handle);
 	}
 
 	@Override
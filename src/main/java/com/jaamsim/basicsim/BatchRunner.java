@@ -0,0 +1,212 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.concurrent.CountDownLatch;
+
+import com.jaamsim.BasicObjects.Logger;
+import com.jaamsim.events.EventErrorListener;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventTimeListener;
+import com.jaamsim.events.EventTraceListener;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.InputErrorException;
+
+/**
+ * Loads a configuration file, executes its runs and writes the output reports
+ * without a user interface. The simulation classes only reach the user
+ * interface through a GUIListener, so none of the Swing, AWT or rendering
+ * classes are loaded and a short model finishes much sooner than it does with
+ * the "-batch" option for GUIFrame.
+ * <p>
+ * The runs are executed one after another in the calling thread's current
+ * model, unless they can be shared between threads by a ReplicationRunner.
+ */
+public class BatchRunner implements EventTimeListener, EventErrorListener, GUIListener {
+	private CountDownLatch runsDone;
+	private volatile Throwable runError;
+
+	public BatchRunner() {}
+
+	/**
+	 * Loads the specified configuration file into the current model and
+	 * executes all of its runs.
+	 * @param file - configuration file for the model.
+	 * @throws Throwable - the input errors found in the configuration file or
+	 * the first error found during a run.
+	 */
+	public void run(File file) throws Throwable {
+		this.load(file);
+		this.execute();
+	}
+
+	/**
+	 * Loads the specified configuration file into the current model.
+	 * @param file - configuration file for the model.
+	 * @throws URISyntaxException
+	 * @throws InputErrorException - if input errors were found in the file.
+	 */
+	public void load(File file) throws URISyntaxException {
+		File abs = file.getAbsoluteFile();
+		InputAgent.setBatch(true);
+		InputAgent.setRecordEdits(false);
+		InputAgent.readResource("<res>/inputs/autoload.cfg");
+		InputAgent.setPreDefinedEntityCount(Entity.getAll().get(Entity.getAll().size() - 1).getEntityNumber());
+
+		InputAgent.setConfigFile(abs);
+		InputAgent.loadConfigurationFile(abs);
+		InputAgent.setRecordEdits(true);
+	}
+
+	/**
+	 * Executes all the runs for the model that has been loaded into the
+	 * current model. The method returns once the output reports and the
+	 * selected outputs for the last run have been written.
+	 * @throws Throwable - the first error found during a run.
+	 */
+	public void execute() throws Throwable {
+		InputAgent.setBatch(true);
+		if (BatchRunner.canRunConcurrently()) {
+			ReplicationRunner runner = new ReplicationRunner(InputAgent.getConfigFile(),
+					Simulation.getStartingRunNumber(), Simulation.getEndingRunNumber(),
+					Simulation.getNumberOfThreads());
+			runner.run();
+			return;
+		}
+
+		JaamSimModel model = JaamSimModel.getCurrent();
+		GUIListener gui = model.getGUIListener();
+		model.setGUIListener(this);
+		try {
+			EventManager evt = model.getEventManager();
+			evt.setTimeListener(this);
+			evt.setErrorListener(this);
+			runsDone = new CountDownLatch(1);
+			runError = null;
+			if (!Simulation.start(evt))
+				throw new InputErrorException("Validation errors found in %s", InputAgent.getRunName());
+			runsDone.await();
+		}
+		finally {
+			model.setGUIListener(gui);
+		}
+
+		if (runError != null)
+			throw runError;
+	}
+
+	/**
+	 * Returns true if the runs for the model can be executed on separate
+	 * threads. Models that write their own files during a run, such as Loggers
+	 * and event traces, must be executed one run at a time.
+	 */
+	public static boolean canRunConcurrently() {
+		if (Simulation.getNumberOfThreads() <= 1 || !Simulation.isMultipleRuns())
+			return false;
+		if (InputAgent.getConfigFile() == null || InputAgent.isScriptMode())
+			return false;
+		if (Simulation.traceEvents() || Simulation.verifyEvents())
+			return false;
+		return !Entity.getClonesOfIterator(Logger.class).hasNext();
+	}
+
+	@Override
+	public void tickUpdate(long tick) {}
+
+	@Override
+	public void timeRunning(boolean running) {}
+
+	@Override
+	public void handleError(EventManager evt, Throwable t, long currentTick) {
+		runError = t;
+		runsDone.countDown();
+	}
+
+	@Override
+	public void logLine(String line) {}
+
+	@Override
+	public void updateAll() {}
+
+	@Override
+	public void updateForSimulationState(int state) {}
+
+	@Override
+	public void updateForUndo() {}
+
+	@Override
+	public void updateSaveButton() {}
+
+	@Override
+	public void updateForSnapToGrid() {}
+
+	@Override
+	public void updateForRealTime(boolean executeRT, double factorRT) {}
+
+	@Override
+	public void updateForPauseTime(String str) {}
+
+	@Override
+	public void showTool(Tool tool, boolean visible) {}
+
+	@Override
+	public void setToolLocation(Tool tool, int x, int y) {}
+
+	@Override
+	public void setToolSize(Tool tool, int width, int height) {}
+
+	@Override
+	public void setControlPanelWidth(int width) {}
+
+	@Override
+	public EventTraceListener getEventViewer() {
+		return null;
+	}
+
+	@Override
+	public void invokeErrorDialogBox(String title, String pre, String message, String post) {}
+
+	@Override
+	public void exit(int errorCode) {
+		runsDone.countDown();
+	}
+
+	/**
+	 * Executes the model in each of the configuration files given on the
+	 * command line and then terminates the program. The exit status is 1 if
+	 * any of the models could not be loaded or failed during a run.
+	 */
+	public static void main(String[] args) {
+		int ret = 0;
+		for (String each : args) {
+			JaamSimModel model = new JaamSimModel();
+			JaamSimModel.setCurrent(model);
+			try {
+				new BatchRunner().run(new File(each));
+			}
+			catch (Throwable t) {
+				InputAgent.logMessage("Error while running '%s': %s", each, t.getMessage());
+				InputAgent.logStackTrace(t);
+				ret = 1;
+			}
+			InputAgent.closeLogFile();
+		}
+		System.exit(ret);
+	}
+}
@@ -19,11 +19,6 @@ package com.jaamsim.basicsim;
 
 public class ClonesOfIterable<T extends Entity> extends EntityIterator<T> {
 	public ClonesOfIterable(Class<T> aClass) {
-		super(aClass);
-	}
-
-	@Override
-	public boolean matches(Class<?> entklass) {
-		return entClass.isAssignableFrom(entklass);
+		super(aClass, JaamSimModel.getCurrent().getMembers(aClass, null, false));
 	}
 }
@@ -18,14 +18,7 @@ package com.jaamsim.basicsim;
 
 
 public class ClonesOfIterableInterface<T extends Entity> extends EntityIterator<T> {
-	private final Class<?> ifaceClass;
 	public ClonesOfIterableInterface(Class<T> aClass, Class<?> iface) {
-		super(aClass);
-		ifaceClass = iface;
-	}
-
-	@Override
-	public boolean matches(Class<?> entklass) {
-		return entClass.isAssignableFrom(entklass) && ifaceClass.isAssignableFrom(entklass);
+		super(aClass, JaamSimModel.getCurrent().getMembers(aClass, iface, false));
 	}
 }
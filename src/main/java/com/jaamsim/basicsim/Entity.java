@@ -20,6 +20,7 @@ package com.jaamsim.basicsim;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map.Entry;
 
 import com.jaamsim.datatypes.DoubleVector;
@@ -27,6 +28,7 @@ import com.jaamsim.events.Conditional;
 import com.jaamsim.events.EventHandle;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.input.AttributeDefinition;
 import com.jaamsim.input.AttributeDefinitionListInput;
 import com.jaamsim.input.AttributeHandle;
 import com.jaamsim.input.BooleanInput;
@@ -45,7 +47,6 @@ import com.jaamsim.input.Output;
 import com.jaamsim.input.OutputHandle;
 import com.jaamsim.input.StringInput;
 import com.jaamsim.input.SynonymInput;
-import com.jaamsim.ui.FrameBox;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.TimeUnit;
 import com.jaamsim.units.Unit;
@@ -57,10 +58,13 @@ import com.jaamsim.units.UserSpecifiedUnit;
  * event execution.
  */
 public class Entity {
-	private static final JaamSimModel sim = new JaamSimModel();
+	private final JaamSimModel simModel;
 
 	String entityName;
-	private final long entityNumber;
+	String namePrefix;  // generated entity's name is built from these when first needed
+	private long nameNumber;
+	private long entityNumber;
+	EntityPool pool; // pool to which the entity is returned when killed, or null
 
 	private static final int FLAG_TRACE = 0x01;
 	//public static final int FLAG_TRACEREQUIRED = 0x02;
@@ -75,7 +79,11 @@ public class Entity {
 
 	private final ArrayList<Input<?>> inpList = new ArrayList<>();
 
-	private final HashMap<String, AttributeHandle> attributeMap = new LinkedHashMap<>();
+	// Attribute values are held in slots given by the position of each definition
+	private ArrayList<AttributeDefinition> attribDefs = defAttributes;
+	private HashMap<String, Integer> attribSlots = noSlots;  // slot for each attribute name, shared with attribDefs
+	private ExpResult[] attribVals = noVals;
+	private AttributeHandle[] attribHandles = null;  // output handle for each slot, created on demand
 	private final HashMap<String, ExpressionHandle> customOutputMap = new LinkedHashMap<>();
 
 	public static final String KEY_INPUTS = "Key Inputs";
@@ -114,6 +122,12 @@ public class Entity {
 	                        "{ FirstEnt 'size([Queue1].QueueList)>0 ? [Queue1].QueueList(1) : [SimEntity1]' }"})
 	public final NamedExpressionListInput namedExpressionInput;
 
+	// Default values are shared by every entity, since an input replaces its value when changed
+	private static final ArrayList<AttributeDefinition> defAttributes = new ArrayList<>(0);
+	private static final HashMap<String, Integer> noSlots = new HashMap<>(0);
+	private static final ExpResult[] noVals = new ExpResult[0];
+	private static final ArrayList<NamedExpression> defCustomOutputs = new ArrayList<>(0);
+
 	{
 		trace = new BooleanInput("Trace", KEY_INPUTS, false);
 		trace.setHidden(true);
@@ -124,12 +138,12 @@ public class Entity {
 		this.addInput(desc);
 
 		attributeDefinitionList = new AttributeDefinitionListInput(this, "AttributeDefinitionList",
-				KEY_INPUTS, new ArrayList<AttributeHandle>());
+				KEY_INPUTS, defAttributes);
 		attributeDefinitionList.setHidden(false);
 		this.addInput(attributeDefinitionList);
 
 		namedExpressionInput = new NamedExpressionListInput(this, "CustomOutputList",
-				KEY_INPUTS, new ArrayList<NamedExpression>());
+				KEY_INPUTS, defCustomOutputs);
 		namedExpressionInput.setHidden(false);
 		this.addInput(namedExpressionInput);
 
@@ -139,13 +153,14 @@ public class Entity {
 	 * Constructor for entity initializing members.
 	 */
 	public Entity() {
-		entityNumber = sim.getNextEntityID();
-		sim.addInstance(this);
+		simModel = JaamSimModel.getCurrent();
+		entityNumber = simModel.getNextEntityID();
+		simModel.addInstance(this);
 		flags = 0;
 	}
 
-	public static ArrayList<? extends Entity> getAll() {
-		return sim.getEntities();
+	public static List<? extends Entity> getAll() {
+		return JaamSimModel.getCurrent().getEntities();
 	}
 
 	/**
@@ -183,7 +198,7 @@ public class Entity {
 	}
 
 	public static Entity idToEntity(long id) {
-		return sim.idToEntity(id);
+		return JaamSimModel.getCurrent().idToEntity(id);
 	}
 
 	public void validate() throws InputErrorException {
@@ -201,9 +216,7 @@ public class Entity {
 	public void earlyInit() {
 
 		// Reset the attributes to their initial values
-		for (AttributeHandle h : attributeMap.values()) {
-			h.setValue(h.getInitialValue());
-		}
+		this.resetAttributes();
 	}
 
 	/**
@@ -234,7 +247,19 @@ public class Entity {
 
 
 	public void kill() {
-		sim.removeInstance(this);
+		simModel.removeInstance(this);
+	}
+
+	/**
+	 * Returns a killed entity to the model with a new entity number and name.
+	 * @param prefix - start of the new name for the entity
+	 * @param num - number that completes the new name
+	 */
+	final void recycle(String prefix, long num) {
+		entityNumber = simModel.getNextEntityID();
+		simModel.addInstance(this);
+		this.clearFlag(Entity.FLAG_DEAD);
+		this.setGeneratedName(prefix, num);
 	}
 
 	/**
@@ -242,7 +267,7 @@ public class Entity {
 	 * @param name - entity's name before it was deleted
 	 */
 	public void restore(String name) {
-		sim.restoreInstance(this);
+		simModel.restoreInstance(this);
 		this.setName(name);
 		this.clearFlag(Entity.FLAG_DEAD);
 	}
@@ -253,7 +278,14 @@ public class Entity {
 	public void doEnd() {}
 
 	public static long getEntitySequence() {
-		return sim.getEntitySequence();
+		return JaamSimModel.getCurrent().getEntitySequence();
+	}
+
+	/**
+	 * Returns the model to which this entity belongs.
+	 */
+	public final JaamSimModel getJaamSimModel() {
+		return simModel;
 	}
 
 	/**
@@ -368,7 +400,15 @@ public class Entity {
 	 * Note that the name of the entity may not be the unique identifier used in the namedEntityHashMap; see Entity.toString()
 	 */
 	public final String getName() {
-		return entityName;
+		String name = entityName;
+		if (name == null) {
+			String prefix = namePrefix;
+			if (prefix == null)
+				return null;
+			name = prefix + nameNumber;
+			entityName = name;
+		}
+		return name;
 	}
 
 	/**
@@ -389,14 +429,43 @@ public class Entity {
 	}
 
 	public static Entity getNamedEntity(String name) {
-		return sim.getNamedEntity(name);
+		return JaamSimModel.getCurrent().getNamedEntity(name);
 	}
 
 	/**
 	 * Method to set the input name of the entity.
 	 */
 	public void setName(String newName) {
-		sim.renameEntity(this, newName);
+		simModel.renameEntity(this, newName);
+	}
+
+	/**
+	 * Sets the name of a generated entity to the given prefix followed by the
+	 * given number. The string is not built until the name is first requested.
+	 * @param prefix - start of the name, which must be a valid entity name
+	 * @param num - number that completes the name
+	 */
+	public final void setGeneratedName(String prefix, long num) {
+		if (!this.testFlag(FLAG_GENERATED))
+			throw new ErrorException("Only generated entities can be given a generated name: %s", this);
+		namePrefix = prefix;
+		nameNumber = num;
+		entityName = null;
+	}
+
+	/**
+	 * Returns the object used to group the execution times for this entity's
+	 * events when they are profiled. Generated entities are grouped by the
+	 * start of their names, or by their class, so that the profiler does not
+	 * keep each one alive after it has been killed.
+	 */
+	public final Object getProfileOwner() {
+		if (!this.testFlag(FLAG_GENERATED))
+			return this;
+		String prefix = namePrefix;
+		if (prefix != null)
+			return prefix;
+		return this.getClass();
 	}
 
 	/**
@@ -414,13 +483,10 @@ public class Entity {
 		}
 
 		if (in == attributeDefinitionList) {
-			attributeMap.clear();
-			for (AttributeHandle h : attributeDefinitionList.getValue()) {
-				this.addAttribute(h.getName(), h);
-			}
+			this.setAttributeDefinitions(attributeDefinitionList.getValue());
 
 			// Update the OutputBox
-			FrameBox.reSelectEntity();
+			getJaamSimModel().updateUI();
 			return;
 		}
 		if (in == namedExpressionInput) {
@@ -432,7 +498,7 @@ public class Entity {
 			}
 
 			// Update the OutputBox
-			FrameBox.reSelectEntity();
+			getJaamSimModel().updateUI();
 			return;
 		}
 
@@ -585,8 +651,9 @@ public class Entity {
 
 
 	public final OutputHandle getOutputHandle(String outputName) {
-		if (hasAttribute(outputName))
-			return attributeMap.get(outputName);
+		int slot = this.getAttributeSlot(outputName);
+		if (slot >= 0)
+			return this.getAttributeHandle(slot);
 
 		if (customOutputMap.containsKey(outputName))
 			return customOutputMap.get(outputName);
@@ -608,8 +675,9 @@ public class Entity {
 	 * @return
 	 */
 	public final OutputHandle getOutputHandleInterned(String outputName) {
-		if (hasAttribute(outputName))
-			return attributeMap.get(outputName);
+		int slot = this.getAttributeSlot(outputName);
+		if (slot >= 0)
+			return this.getAttributeHandle(slot);
 
 		if (customOutputMap.containsKey(outputName))
 			return customOutputMap.get(outputName);
@@ -628,7 +696,7 @@ public class Entity {
 	public boolean hasOutput(String outputName) {
 		if (OutputHandle.hasOutput(this.getClass(), outputName))
 			return true;
-		if (attributeMap.containsKey(outputName))
+		if (hasAttribute(outputName))
 			return true;
 		if (customOutputMap.containsKey(outputName))
 			return true;
@@ -746,51 +814,141 @@ public class Entity {
 		return desc.getValue();
 	}
 
-	private void addAttribute(String name, AttributeHandle h) {
-		attributeMap.put(name, h);
+	/**
+	 * Returns the attribute definitions for this entity. The list is shared by
+	 * the entities that were copied from the same prototype, so it identifies
+	 * the slot used for each attribute name.
+	 */
+	public final ArrayList<AttributeDefinition> getAttributeDefinitions() {
+		return attribDefs;
+	}
+
+	/**
+	 * Returns the slot that holds the value for the given attribute, or -1 if
+	 * the entity does not have the attribute.
+	 */
+	public final int getAttributeSlot(String name) {
+		Integer slot = attribSlots.get(name);
+		if (slot == null)
+			return -1;
+		return slot.intValue();
+	}
+
+	/**
+	 * Returns the present value of the attribute in the given slot.
+	 */
+	public final ExpResult getAttributeValue(int slot) {
+		return attribVals[slot];
+	}
+
+	/**
+	 * Returns the present value of the attribute in the given slot if it is a
+	 * number, or the given default value if it is not.
+	 */
+	public final double getAttributeNumber(int slot, double def) {
+		ExpResult val = attribVals[slot];
+		if (val.type == ExpResType.NUMBER)
+			return val.value;
+		return def;
+	}
+
+	private AttributeHandle getAttributeHandle(int slot) {
+		if (attribHandles == null)
+			attribHandles = new AttributeHandle[attribDefs.size()];
+
+		AttributeHandle h = attribHandles[slot];
+		if (h == null) {
+			AttributeDefinition def = attribDefs.get(slot);
+			h = new AttributeHandle(this, def.getName());
+			h.setUnitType(def.getUnitType());
+			attribHandles[slot] = h;
+		}
+		return h;
+	}
+
+	private void setAttributeDefinitions(ArrayList<AttributeDefinition> defs) {
+		if (defs == attribDefs)
+			return;
+
+		HashMap<String, Integer> slots = new HashMap<>(defs.size() * 2);
+		for (int i = 0; i < defs.size(); i++)
+			slots.put(defs.get(i).getName(), i);
+
+		attribDefs = defs;
+		attribSlots = slots;
+		attribVals = new ExpResult[defs.size()];
+		attribHandles = null;
+		this.resetAttributes();
+	}
+
+	/**
+	 * Sets the attributes for this entity to the same definitions and present
+	 * values as those for the given entity.
+	 * @param ent - entity whose attributes are to be copied
+	 */
+	public final void copyAttributes(Entity ent) {
+		attribDefs = ent.attribDefs;
+		attribSlots = ent.attribSlots;
+		attribVals = ent.attribVals.clone();
+		attribHandles = null;
+	}
+
+	private void resetAttributes() {
+		// Initial values that are not collections are shared by every entity
+		for (int i = 0; i < attribDefs.size(); i++)
+			attribVals[i] = attribDefs.get(i).getInitialValue();
 	}
 
 	public boolean hasAttribute(String name) {
-		return attributeMap.containsKey(name);
+		return this.getAttributeSlot(name) >= 0;
 	}
 
 	public Class<? extends Unit> getAttributeUnitType(String name) {
-		AttributeHandle h = attributeMap.get(name);
-		if (h == null)
+		int slot = this.getAttributeSlot(name);
+		if (slot < 0)
 			return null;
-		return h.getUnitType();
+		return attribDefs.get(slot).getUnitType();
 	}
 
 	public void setAttribute(String name, ExpResult index, ExpResult value) {
-		AttributeHandle h = attributeMap.get(name);
-		if (h == null)
+		int slot = this.getAttributeSlot(name);
+		if (slot < 0)
 			this.error("Invalid attribute name: %s", name);
 
+		this.setAttribute(slot, index, value);
+	}
+
+	/**
+	 * Assigns a new value to the attribute in the given slot, or to one of its
+	 * elements if an index is given.
+	 */
+	public void setAttribute(int slot, ExpResult index, ExpResult value) {
+		AttributeDefinition def = attribDefs.get(slot);
 		if (index != null) {
-			ExpResult attribValue = h.getValue(getSimTime(), ExpResult.class);
+			ExpResult attribValue = this.getAttributeValue(slot);
 			if (attribValue.type != ExpResType.COLLECTION) {
-				this.error("Trying to set attribute: %s with an index, but it is not a collection", name);
+				this.error("Trying to set attribute: %s with an index, but it is not a collection", def.getName());
 			}
 			try {
 				ExpResult.Collection newCol = attribValue.colVal.assign(index, value.getCopy());
-				h.setValue(ExpResult.makeCollectionResult(newCol));
+				attribVals[slot] = ExpResult.makeCollectionResult(newCol);
 			} catch (ExpError err) {
 				this.error("Error during assignment: %s", err.getMessage());
 			}
 			return;
 		}
 
-		if (value.type == ExpResType.NUMBER && h.getUnitType() != value.unitType)
+		if (value.type == ExpResType.NUMBER && def.getUnitType() != value.unitType)
 			this.error("Invalid unit returned by an expression. Received: %s, expected: %s",
-					value.unitType.getSimpleName(), h.getUnitType().getSimpleName(), "");
+					value.unitType.getSimpleName(), def.getUnitType().getSimpleName(), "");
 
-		h.setValue(value.getCopy());
+		attribVals[slot] = value.getCopy();
 	}
 
 	public ArrayList<String> getAttributeNames(){
-		ArrayList<String> ret = new ArrayList<>();
-		for (String name : attributeMap.keySet()) {
-			ret.add(name);
+		ArrayList<String> ret = new ArrayList<>(attribDefs.size());
+		for (int i = 0; i < attribDefs.size(); i++) {
+			ret.add(attribDefs.get(i).getName());
 		}
 		return ret;
 	}
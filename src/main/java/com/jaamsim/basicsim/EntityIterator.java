@@ -16,59 +16,39 @@
  */
 package com.jaamsim.basicsim;
 
-import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 
 public abstract class EntityIterator<T extends Entity> implements Iterable<T>, Iterator<T> {
-	private final ArrayList<? extends Entity> allInstances = Entity.getAll();
+	private final List<? extends Entity> instances;
 	protected final Class<T> entClass;
-	private int curPos;
 	private int nextPos;
 
-	public EntityIterator(Class<T> aClass) {
+	/**
+	 * Creates an iterator over a list of entities that is maintained by the
+	 * model, so that only the matching entities are visited.
+	 * @param aClass - class for the entities returned
+	 * @param list - entities to be returned, in order of entity number
+	 */
+	EntityIterator(Class<T> aClass, List<? extends Entity> list) {
 		entClass = aClass;
-		curPos = -1;
-		nextPos = -1;
-	}
-
-	abstract boolean matches(Class<?> entklass);
-
-	private void updatePos() {
-		if (nextPos >= allInstances.size())
-			return;
-
-		while (++nextPos < allInstances.size()) {
-			// If we find a match, break out
-			if (matches(allInstances.get(nextPos).getClass()))
-				break;
-		}
+		instances = list;
+		nextPos = 0;
 	}
 
 	@Override
 	public boolean hasNext() {
-		if (curPos == nextPos)
-			updatePos();
-
-		if (nextPos < allInstances.size())
-			return true;
-		else
-			return false;
+		return nextPos < instances.size();
 	}
 
 	@Override
 	public T next() {
-		if (curPos == nextPos)
-			updatePos();
-
-		if (nextPos < allInstances.size()) {
-			curPos = nextPos;
-			return entClass.cast(allInstances.get(curPos));
-		}
-		else {
+		if (nextPos < instances.size())
+			return entClass.cast(instances.get(nextPos++));
+		else
 			throw new NoSuchElementException();
-		}
 	}
 
 	@Override
@@ -0,0 +1,92 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.util.ArrayList;
+
+/**
+ * Holds generated entities that have been killed so that they can be used
+ * again instead of creating new ones. An entity is added to its pool when it
+ * is killed, and is given a new entity number and name when it is taken out.
+ * <p>
+ * A recycled entity keeps the inputs and objects it was created with, so a
+ * pool must only hold entities made from the same prototype. The caller is
+ * responsible for resetting the entity's state, normally by calling its
+ * earlyInit method.
+ */
+public final class EntityPool {
+	private final ArrayList<Entity> free = new ArrayList<>();
+
+	public EntityPool() {}
+
+	/**
+	 * Sets the pool to which the given generated entity is returned when it
+	 * is killed.
+	 * @param ent - generated entity
+	 */
+	public void manage(Entity ent) {
+		if (!ent.testFlag(Entity.FLAG_GENERATED))
+			throw new ErrorException("Only generated entities can be recycled: %s", ent);
+		ent.pool = this;
+	}
+
+	/**
+	 * Returns a killed entity from the pool that has been given a new entity
+	 * number and name, or null if the pool is empty.
+	 * @param prefix - start of the name for the entity
+	 * @param num - number that completes the name
+	 * @see Entity#setGeneratedName(String, long)
+	 */
+	public Entity acquire(String prefix, long num) {
+		Entity ent = null;
+		synchronized (this) {
+			// Skip any entity that was restored after it was killed
+			while (!free.isEmpty()) {
+				ent = free.remove(free.size() - 1);
+				if (ent.testFlag(Entity.FLAG_DEAD))
+					break;
+				ent = null;
+			}
+		}
+		if (ent == null)
+			return null;
+
+		ent.recycle(prefix, num);
+		return ent;
+	}
+
+	synchronized void release(Entity ent) {
+		free.add(ent);
+	}
+
+	/**
+	 * Removes the entities from the pool. The entities that are still alive
+	 * are no longer returned to the pool when they are killed.
+	 */
+	public synchronized void clear() {
+		for (int i = 0; i < free.size(); i++)
+			free.get(i).pool = null;
+		free.clear();
+	}
+
+	/**
+	 * Returns the number of entities waiting to be used again.
+	 */
+	public synchronized int size() {
+		return free.size();
+	}
+}
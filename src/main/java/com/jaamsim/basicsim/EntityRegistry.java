@@ -0,0 +1,230 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+/**
+ * Holds a set of entities in order of increasing entity number.
+ * <p>
+ * Removing an entity leaves an empty slot in its place, so that adding and
+ * removing entities take constant amortized time. The empty slots are
+ * reclaimed when the list is next accessed by position, or when it needs to
+ * grow. A hash index by entity number gives the position of each entity, so
+ * an entity can be held by several registries at once.
+ * <p>
+ * The registry is a read-only List of the entities. All methods synchronize
+ * on the registry.
+ */
+final class EntityRegistry extends AbstractList<Entity> {
+	private Entity[] slots = new Entity[64];
+	private int end;      // number of slots in use, including the empty ones
+	private int numLive;  // number of entities held
+
+	// Hash index using open addressing and linear probing
+	private Entity[] index = new Entity[128];
+	private int[] indexPos = new int[128]; // position in slots for each index entry
+
+	/**
+	 * Adds an entity whose number is larger than any other in the registry.
+	 */
+	synchronized void register(Entity e) {
+		if (end == slots.length) {
+			if (numLive < end / 2)
+				compact();
+			else
+				slots = Arrays.copyOf(slots, end * 2);
+		}
+		slots[end] = e;
+		numLive++;
+		indexAdd(e, end);
+		end++;
+	}
+
+	/**
+	 * Returns an entity that was removed to its position in the registry.
+	 * @throws ErrorException if the entity is already in the registry
+	 */
+	synchronized void restore(Entity e) {
+		if (find(e.getEntityNumber()) != null)
+			throw new ErrorException("Entity already included in allInstances: %s", e);
+
+		compact();
+		if (end == slots.length)
+			slots = Arrays.copyOf(slots, end * 2);
+
+		// Find the first entity with a larger number
+		int low = 0;
+		int high = end;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (slots[mid].getEntityNumber() < e.getEntityNumber())
+				low = mid + 1;
+			else
+				high = mid;
+		}
+
+		System.arraycopy(slots, low, slots, low + 1, end - low);
+		slots[low] = e;
+		end++;
+		numLive++;
+		for (int i = low + 1; i < end; i++)
+			indexPos[slotOf(slots[i])] = i;
+		indexAdd(e, low);
+	}
+
+	/**
+	 * Removes the entity from the registry.
+	 * @return true if the entity was found and removed
+	 */
+	synchronized boolean unregister(Entity e) {
+		int i = slotOf(e);
+		if (i < 0)
+			return false;
+
+		slots[indexPos[i]] = null;
+		numLive--;
+		indexRemove(i);
+
+		// Empty slots at the end can be dropped immediately
+		while (end > 0 && slots[end - 1] == null)
+			end--;
+		return true;
+	}
+
+	/**
+	 * Returns the entity with the given entity number, or null if it is not
+	 * in the registry.
+	 */
+	synchronized Entity find(long id) {
+		int mask = index.length - 1;
+		int i = hash(id) & mask;
+		while (true) {
+			Entity e = index[i];
+			if (e == null)
+				return null;
+			if (e.getEntityNumber() == id)
+				return e;
+			i = (i + 1) & mask;
+		}
+	}
+
+	@Override
+	public synchronized Entity get(int i) {
+		if (i < 0 || i >= numLive)
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + numLive);
+
+		if (end != numLive)
+			compact();
+		return slots[i];
+	}
+
+	@Override
+	public synchronized int size() {
+		return numLive;
+	}
+
+	/**
+	 * Moves the entities to the start of the slots, removing the empty ones.
+	 */
+	private void compact() {
+		if (end == numLive)
+			return;
+
+		int num = 0;
+		for (int i = 0; i < end; i++) {
+			Entity e = slots[i];
+			if (e == null)
+				continue;
+			if (num != i)
+				indexPos[slotOf(e)] = num;
+			slots[num++] = e;
+		}
+		Arrays.fill(slots, num, end, null);
+		end = num;
+	}
+
+	/**
+	 * Returns the index entry for the given entity, or -1 if it is not in the
+	 * registry.
+	 */
+	private int slotOf(Entity e) {
+		int mask = index.length - 1;
+		int i = hash(e.getEntityNumber()) & mask;
+		while (true) {
+			Entity n = index[i];
+			if (n == null)
+				return -1;
+			if (n == e)
+				return i;
+			i = (i + 1) & mask;
+		}
+	}
+
+	private void indexAdd(Entity e, int pos) {
+		if (2 * numLive > index.length) {
+			Entity[] old = index;
+			int[] oldPos = indexPos;
+			index = new Entity[old.length * 2];
+			indexPos = new int[old.length * 2];
+			for (int i = 0; i < old.length; i++) {
+				if (old[i] != null)
+					place(old[i], oldPos[i]);
+			}
+		}
+		place(e, pos);
+	}
+
+	private void indexRemove(int i) {
+		int mask = index.length - 1;
+		index[i] = null;
+
+		// Shift back any following entries that can no longer be reached
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			Entity n = index[j];
+			if (n == null)
+				return;
+
+			int k = hash(n.getEntityNumber()) & mask;
+			boolean reachable = (i <= j) ? (i < k && k <= j) : (i < k || k <= j);
+			if (reachable)
+				continue;
+
+			index[i] = n;
+			indexPos[i] = indexPos[j];
+			index[j] = null;
+			i = j;
+		}
+	}
+
+	private void place(Entity e, int pos) {
+		int mask = index.length - 1;
+		int i = hash(e.getEntityNumber()) & mask;
+		while (index[i] != null)
+			i = (i + 1) & mask;
+		index[i] = e;
+		indexPos[i] = pos;
+	}
+
+	private static int hash(long id) {
+		long h = id * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32));
+	}
+}
@@ -31,4 +31,9 @@ public abstract class EntityTarget<T extends Entity> extends ProcessTarget {
 	public String getDescription() {
 		return ent.getName() + "." + desc;
 	}
+
+	@Override
+	public Object getOwner() {
+		return ent.getProfileOwner();
+	}
 }
@@ -16,29 +16,52 @@
  */
 package com.jaamsim.basicsim;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
 
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.EventTraceListener;
 import com.jaamsim.events.ProcessTarget;
-import com.jaamsim.input.Input;
+import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.InputErrorException;
 
+/**
+ * Writes the trace entries for each event to a binary trace file that can be
+ * used by EventTracer to verify a later run of the model. The descriptions for
+ * the entries are written once to a string table and referenced by index.
+ * <p>
+ * The trace callbacks fill buffers from a pre-allocated ring that are written
+ * to disk by a background thread, so the simulation only waits for the disk
+ * when every buffer in the ring is full.
+ */
 public class EventRecorder implements EventTraceListener {
-	private BufferedWriter outputStream;
-	private int traceLevel;
-	private final ArrayList<String> traces = new ArrayList<>();
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int NUM_BUFFERS = 8;
+
+	private FileChannel channel;
+	private final ByteBuffer[] ring = new ByteBuffer[NUM_BUFFERS];
+	private ByteBuffer buffer;   // buffer being filled by the trace callbacks
+	private final HashMap<String, Integer> stringIds = new HashMap<>();
+	private final EventTraceRecord record = new EventTraceRecord();
+
+	// Ring buffer state, guarded by ringLock
+	private final Object ringLock = new Object();
+	private long published;      // number of buffers passed to the writer thread
+	private long written;        // number of buffers written to the file
+	private boolean closing;     // TRUE when no further buffers will be published
+	private IOException writeError;
+	private final Thread writer;
 
 	public EventRecorder(String fileName) {
-		traceLevel = 0;
 		try {
 			File backingFileObject = new File(fileName);
-			backingFileObject.createNewFile();
-			outputStream = new BufferedWriter(new FileWriter(backingFileObject, false));
+			channel = FileChannel.open(backingFileObject.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
 		}
 		catch (IOException e) {
 			throw new InputErrorException("IOException thrown trying to open FileEntity: " + e);
@@ -49,47 +72,190 @@ public class EventRecorder implements EventTraceListener {
 		catch (SecurityException e) {
 			throw new InputErrorException("SecurityException thrown trying to open File: " + e);
 		}
-	}
 
-	private void append(String record) {
-		StringBuilder rec = new StringBuilder();
+		for (int i = 0; i < NUM_BUFFERS; i++)
+			ring[i] = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		buffer = ring[0];
 
-		for (int i = 0; i < traceLevel; i++) {
-			rec.append(Input.SEPARATOR);
-		}
-		rec.append(record);
-		traces.add(rec.toString());
+		buffer.putInt(EventTraceRecord.FILE_MAGIC);
+		buffer.putInt(EventTraceRecord.FILE_VERSION);
+
+		writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writeBuffers();
+			}
+		}, "EventRecorder-" + new File(fileName).getName());
+		writer.setDaemon(true);
+		writer.start();
 	}
 
-	private void addHeader(String name, long internalTime) {
-		// Don't write anything if not at level 0
-		if (traceLevel != 0)
+	/**
+	 * Writes any buffered records and closes the trace file.
+	 */
+	public synchronized void close() {
+		if (channel == null)
 			return;
 
-		StringBuilder header = new StringBuilder(name).append("\t").append(internalTime);
-		traces.add(header.toString());
-		traceLevel++;
-	}
+		if (buffer.position() > 0)
+			publishBuffer();
 
-	private void finish(EventManager e) {
-		if(traceLevel != 1)
-			return;
+		synchronized (ringLock) {
+			closing = true;
+			ringLock.notifyAll();
+		}
 
-		traces.add("");
-		for (String each : traces) {
+		boolean interrupted = false;
+		while (writer.isAlive()) {
 			try {
-				outputStream.write( each );
-				outputStream.newLine();
+				writer.join();
+			}
+			catch (InterruptedException e) {
+				interrupted = true;
 			}
-			catch( IOException ioe ) {}
 		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+
 		try {
-			outputStream.flush();
+			channel.close();
+		}
+		catch (IOException e) {}
+		channel = null;
+
+		if (writeError != null)
+			InputAgent.logMessage("Unable to write the event trace file: %s", writeError.getMessage());
+	}
+
+	/**
+	 * Passes the buffer being filled to the writer thread and continues with
+	 * the next buffer in the ring, waiting for it to be written if necessary.
+	 */
+	private void publishBuffer() {
+		boolean interrupted = false;
+		synchronized (ringLock) {
+			published++;
+			ringLock.notifyAll();
+			while (published - written >= NUM_BUFFERS) {
+				try {
+					ringLock.wait();
+				}
+				catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+
+		buffer = ring[(int)(published % NUM_BUFFERS)];
+		buffer.clear();
+	}
+
+	/**
+	 * Writes the published buffers to the file in order, executed by the
+	 * writer thread until the recorder is closed.
+	 */
+	private void writeBuffers() {
+		while (true) {
+			ByteBuffer buf;
+			synchronized (ringLock) {
+				while (written == published && !closing) {
+					try {
+						ringLock.wait();
+					}
+					catch (InterruptedException e) {}
+				}
+				if (written == published)
+					return;
+				buf = ring[(int)(written % NUM_BUFFERS)];
+			}
+
+			// Stop writing after the first error, but keep releasing the buffers
+			if (writeError == null) {
+				try {
+					buf.flip();
+					while (buf.hasRemaining())
+						channel.write(buf);
+				}
+				catch (IOException e) {
+					writeError = e;
+				}
+			}
+
+			synchronized (ringLock) {
+				written++;
+				ringLock.notifyAll();
+			}
+		}
+	}
+
+	private void ensureCapacity(int bytes) {
+		if (buffer.remaining() < bytes)
+			publishBuffer();
+	}
+
+	/**
+	 * Returns the index for the given string, adding it to the string table
+	 * in the file if it has not been written before.
+	 */
+	private int getStringId(String str) {
+		if (str == null)
+			return -1;
+
+		Integer id = stringIds.get(str);
+		if (id != null)
+			return id;
+
+		int newId = stringIds.size();
+		stringIds.put(str, newId);
+
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		ensureCapacity(EventTraceRecord.STRING_HEADER_SIZE);
+		buffer.putInt(EventTraceRecord.TAG_STRING);
+		buffer.putInt(newId);
+		buffer.putInt(bytes.length);
+
+		// Long strings are written in pieces through the buffer
+		int pos = 0;
+		while (pos < bytes.length) {
+			if (!buffer.hasRemaining())
+				publishBuffer();
+			int len = Math.min(buffer.remaining(), bytes.length - pos);
+			buffer.put(bytes, pos, len);
+			pos += len;
 		}
-		catch( IOException ioe ) {}
+		return newId;
+	}
+
+	private void finish() {
+		if (record.traceLevel != 1)
+			return;
+
+		if (channel != null) {
+			// Write the strings first so that each record's ids are already defined
+			int nameId = getStringId(record.getEventManagerName());
+			int[] descIds = new int[record.size()];
+			for (int i = 0; i < record.size(); i++)
+				descIds[i] = getStringId(record.getDescription(i));
 
-		traces.clear();
-		traceLevel--;
+			ensureCapacity(EventTraceRecord.RECORD_HEADER_SIZE);
+			buffer.putInt(EventTraceRecord.TAG_RECORD);
+			buffer.putInt(nameId);
+			buffer.putLong(record.getInternalTime());
+			buffer.putInt(record.size());
+			for (int i = 0; i < record.size(); i++) {
+				ensureCapacity(EventTraceRecord.ENTRY_SIZE);
+				buffer.putInt(record.getType(i));
+				buffer.putInt(record.getLevel(i));
+				buffer.putLong(record.getTick(i));
+				buffer.putInt(record.getPriority(i));
+				buffer.putInt(descIds[i]);
+			}
+		}
+
+		record.clear();
+		record.traceLevel--;
 	}
 
 	private static final String entClassName = Entity.class.getName();
@@ -131,72 +297,55 @@ public class EventRecorder implements EventTraceListener {
 
 	@Override
 	public synchronized void traceWait(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		traceLevel--;
-
-		this.append(String.format("Wait\t%d\t%d\t%s", tick, priority, getWaitDescription()));
-
-		this.finish(e);
+		record.traceWait(e, curTick, tick, priority, t);
+		this.finish();
 	}
 
 	@Override
 	public synchronized void traceEvent(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Event\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		traceLevel++;
-		this.finish(e);
+		record.traceEvent(e, curTick, tick, priority, t);
+		this.finish();
 	}
 
 	@Override
 	public synchronized void traceInterrupt(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Int\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		traceLevel++;
-		this.finish(e);
+		record.traceInterrupt(e, curTick, tick, priority, t);
+		this.finish();
 	}
 
 	@Override
 	public synchronized void traceKill(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Kill\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		this.finish(e);
+		record.traceKill(e, curTick, tick, priority, t);
+		this.finish();
 	}
 
 	@Override
 	public synchronized void traceWaitUntil(EventManager e, long tick) {
-		this.addHeader(e.name, tick);
-		traceLevel--;
-		this.append("WaitUntil");
-		this.finish(e);
+		record.traceWaitUntil(e, tick);
+		this.finish();
 	}
 
 	@Override
 	public synchronized void traceWaitUntilEnded(EventManager e, long curTick, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("WaitUntilEnded\t%s", t.getDescription()));
-		this.finish(e);
+		record.traceWaitUntilEnded(e, curTick, t);
+		this.finish();
 	}
 
 	@Override
 	public synchronized void traceProcessStart(EventManager e, ProcessTarget t, long tick) {
-		this.addHeader(e.name, tick);
-		this.append(String.format("StartProcess\t%s", t.getDescription()));
-		traceLevel++;
-		this.finish(e);
+		record.traceProcessStart(e, t, tick);
+		this.finish();
 	}
 
 	@Override
 	public synchronized void traceProcessEnd(EventManager e, long tick) {
-		this.addHeader(e.name, tick);
-		traceLevel--;
-		this.append("Exit");
-		this.finish(e);
+		record.traceProcessEnd(e, tick);
+		this.finish();
 	}
 
 	@Override
 	public synchronized void traceSchedProcess(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("SchedProcess\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		this.finish(e);
+		record.traceSchedProcess(e, curTick, tick, priority, t);
+		this.finish();
 	}
 }
@@ -17,63 +17,124 @@
 package com.jaamsim.basicsim;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.EventTraceListener;
 import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.Input;
 
-class EventTraceRecord extends ArrayList<String> implements EventTraceListener {
+/**
+ * The trace entries generated by an EventManager for a single event, starting
+ * from the callback that begins the event and ending when the trace level
+ * returns to zero.
+ */
+class EventTraceRecord implements EventTraceListener {
+	// Entry types, the values are stored in the binary trace file
+	static final int WAIT = 0;
+	static final int EVENT = 1;
+	static final int INT = 2;
+	static final int KILL = 3;
+	static final int WAIT_UNTIL = 4;
+	static final int WAIT_UNTIL_ENDED = 5;
+	static final int START_PROCESS = 6;
+	static final int EXIT = 7;
+	static final int SCHED_PROCESS = 8;
+
+	// Binary trace file layout: a header followed by string definitions and
+	// records. Each record is a fixed-width header followed by fixed-width
+	// entries, with descriptions stored as indices into the string table.
+	static final int FILE_MAGIC = 0x4A534554; // "JSET"
+	static final int FILE_VERSION = 1;
+	static final int FILE_HEADER_SIZE = 8;
+	static final int TAG_STRING = 1;   // int tag, int id, int length, UTF-8 bytes
+	static final int TAG_RECORD = 2;   // int tag, int name id, long time, int entry count
+	static final int STRING_HEADER_SIZE = 12;
+	static final int RECORD_HEADER_SIZE = 20;
+	static final int ENTRY_SIZE = 24;  // int type, int level, long tick, int priority, int desc id
+
+		private static final String[] typeNames = {
+		"Wait", "Event", "Int", "Kill", "WaitUntil", "WaitUntilEnded", "StartProcess", "Exit",
+		"SchedProcess"
+	};
+
 	private String eventManagerName;
 	private long internalTime;
-	private String targetName;
 	int traceLevel;
 
+	private int size;
+	private int[] types = new int[8];
+	private int[] levels = new int[8];
+	private long[] ticks = new long[8];
+	private int[] priorities = new int[8];
+	private String[] descs = new String[8];
+
 	public EventTraceRecord() {
 		traceLevel = 0;
 	}
 
-	void parse() {
-		String[] temp;
+	String getEventManagerName() {
+		return eventManagerName;
+	}
 
-		// The first line of the trace is always <eventManagerName>\t<InternalSimulationTime>
-		temp = this.get(0).split("\t");
-		eventManagerName = temp[0];
-		internalTime = Long.parseLong(temp[1]);
+	long getInternalTime() {
+		return internalTime;
+	}
 
-		// Try to parse a target entity and method form the second line
-		temp = this.get(1).split("\t");
+	int size() {
+		return size;
+	}
 
-		// A regular event wakeup, parse target/method
-		if (temp[0].endsWith("Event")) {
-			targetName = temp[3];
-			return;
-		}
+	int getType(int i) {
+		return types[i];
+	}
 
-		if (temp[0].endsWith("WaitUntilEnded")) {
-			targetName = temp[3];
-			return;
-		}
+	int getLevel(int i) {
+		return levels[i];
+	}
 
-		if (temp[0].endsWith("StartProcess")) {
-			targetName = temp[1];
-			return;
-		}
+	long getTick(int i) {
+		return ticks[i];
+	}
 
-		if (temp[0].endsWith("SchedProcess")) {
-			targetName = temp[3];
-			return;
-		}
+	int getPriority(int i) {
+		return priorities[i];
 	}
 
-	private void append(String record) {
-		StringBuilder rec = new StringBuilder();
+	String getDescription(int i) {
+		return descs[i];
+	}
 
-		for (int i = 0; i < traceLevel; i++) {
-			rec.append(Input.SEPARATOR);
+	void clear() {
+		Arrays.fill(descs, 0, size, null);
+		size = 0;
+		eventManagerName = null;
+	}
+
+	void setHeader(String name, long time) {
+		eventManagerName = name;
+		internalTime = time;
+	}
+
+	void add(int type, int level, long tick, int priority, String desc) {
+		if (size == types.length) {
+			int cap = size * 2;
+			types = Arrays.copyOf(types, cap);
+			levels = Arrays.copyOf(levels, cap);
+			ticks = Arrays.copyOf(ticks, cap);
+			priorities = Arrays.copyOf(priorities, cap);
+			descs = Arrays.copyOf(descs, cap);
 		}
-		rec.append(record);
-		this.add(rec.toString());
+		types[size] = type;
+		levels[size] = level;
+		ticks[size] = tick;
+		priorities[size] = priority;
+		descs[size] = desc;
+		size++;
+	}
+
+	private void append(int type, long tick, int priority, String desc) {
+		add(type, traceLevel, tick, priority, desc);
 	}
 
 	private void addHeader(String name, long internalTime) {
@@ -81,23 +142,77 @@ class EventTraceRecord extends ArrayList<String> implements EventTraceListener {
 		if (traceLevel != 0)
 			return;
 
-		StringBuilder header = new StringBuilder(name).append("\t").append(internalTime);
-		this.add(header.toString());
+		setHeader(name, internalTime);
 		traceLevel++;
 	}
 
+	/**
+	 * Returns the description used to match this record to a recorded one: the
+	 * target for an event, a started or scheduled process, or null otherwise.
+	 */
+	private String getTargetName() {
+		if (size == 0)
+			return null;
+
+		switch (types[0]) {
+		case EVENT:
+		case WAIT_UNTIL_ENDED:
+		case START_PROCESS:
+		case SCHED_PROCESS:
+			return descs[0];
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the entry in the text form used by earlier versions of the trace file.
+	 */
+	String getLine(int i) {
+		StringBuilder rec = new StringBuilder();
+		for (int j = 0; j < levels[i]; j++) {
+			rec.append(Input.SEPARATOR);
+		}
+		rec.append(typeNames[types[i]]);
+		switch (types[i]) {
+		case WAIT:
+		case EVENT:
+		case INT:
+		case KILL:
+		case SCHED_PROCESS:
+			rec.append("\t").append(ticks[i]).append("\t").append(priorities[i]);
+			rec.append("\t").append(descs[i]);
+			break;
+		case WAIT_UNTIL_ENDED:
+		case START_PROCESS:
+			rec.append("\t").append(descs[i]);
+			break;
+		default:
+		}
+		return rec.toString();
+	}
+
+	ArrayList<String> getLines() {
+		ArrayList<String> ret = new ArrayList<>(size + 1);
+		ret.add(eventManagerName + "\t" + internalTime);
+		for (int i = 0; i < size; i++) {
+			ret.add(getLine(i));
+		}
+		return ret;
+	}
+
 	@Override
 	public void traceWait(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
 		this.addHeader(e.name, curTick);
 		traceLevel--;
 
-		this.append(String.format("Wait\t%d\t%d\t%s", tick, priority, EventRecorder.getWaitDescription()));
+		this.append(WAIT, tick, priority, EventRecorder.getWaitDescription());
 	}
 
 	@Override
 	public void traceEvent(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
 		this.addHeader(e.name, curTick);
-		this.append(String.format("Event\t%d\t%d\t%s", tick, priority, t.getDescription()));
+		this.append(EVENT, tick, priority, t.getDescription());
 
 		traceLevel++;
 	}
@@ -105,33 +220,33 @@ class EventTraceRecord extends ArrayList<String> implements EventTraceListener {
 	@Override
 	public void traceInterrupt(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
 		this.addHeader(e.name, curTick);
-		this.append(String.format("Int\t%d\t%d\t%s", tick, priority, t.getDescription()));
+		this.append(INT, tick, priority, t.getDescription());
 		traceLevel++;
 	}
 
 	@Override
 	public void traceKill(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
 		this.addHeader(e.name, curTick);
-		this.append(String.format("Kill\t%d\t%d\t%s", tick, priority, t.getDescription()));
+		this.append(KILL, tick, priority, t.getDescription());
 	}
 
 	@Override
 	public void traceWaitUntil(EventManager e, long tick) {
 		this.addHeader(e.name, tick);
 		traceLevel--;
-		this.append("WaitUntil");
+		this.append(WAIT_UNTIL, 0, 0, null);
 	}
 
 	@Override
 	public void traceWaitUntilEnded(EventManager e, long curTick, ProcessTarget t) {
 		this.addHeader(e.name, curTick);
-		this.append(String.format("WaitUntilEnded\t%s", t.getDescription()));
+		this.append(WAIT_UNTIL_ENDED, 0, 0, t.getDescription());
 	}
 
 	@Override
 	public void traceProcessStart(EventManager e, ProcessTarget t, long tick) {
 		this.addHeader(e.name, tick);
-		this.append(String.format("StartProcess\t%s", t.getDescription()));
+		this.append(START_PROCESS, 0, 0, t.getDescription());
 		traceLevel++;
 	}
 
@@ -139,37 +254,53 @@ class EventTraceRecord extends ArrayList<String> implements EventTraceListener {
 	public void traceProcessEnd(EventManager e, long tick) {
 		this.addHeader(e.name, tick);
 		traceLevel--;
-		this.append("Exit");
+		this.append(EXIT, 0, 0, null);
 	}
 
 	@Override
 	public void traceSchedProcess(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
 		this.addHeader(e.name, curTick);
-		this.append(String.format("SchedProcess\t%d\t%d\t%s", tick, priority, t.getDescription()));
+		this.append(SCHED_PROCESS, tick, priority, t.getDescription());
 	}
 
 	boolean isDefaultEventManager() {
 		return eventManagerName.equals("DefaultEventManager");
 	}
 
-	long getInternalTime() {
-		return internalTime;
-	}
-
 	/**
 	 * Does a superficial comparison of two records, check number of entries,
 	 * time/target/method and finally the basic contents of the record.
 	 */
 	boolean basicCompare(EventTraceRecord record) {
-		if (record.size() != this.size())
+		if (record.size != this.size)
 			return false;
 
 		if (record.internalTime != this.internalTime)
 			return false;
 
-		if (!record.targetName.equals(this.targetName))
+		String name = this.getTargetName();
+		if (name == null)
+			return record.getTargetName() == null;
+
+		if (!name.equals(record.getTargetName()))
 			return false;
 
 		return true;
 	}
+
+	/**
+	 * Returns true if the i-th entry is the same for both records.
+	 */
+	boolean entryEquals(int i, EventTraceRecord record) {
+		if (types[i] != record.types[i] || levels[i] != record.levels[i])
+			return false;
+
+		if (ticks[i] != record.ticks[i] || priorities[i] != record.priorities[i])
+			return false;
+
+		if (descs[i] == null)
+			return record.descs[i] == null;
+
+		return descs[i].equals(record.descs[i]);
+	}
 }
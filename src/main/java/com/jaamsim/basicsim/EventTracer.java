@@ -16,11 +16,12 @@
  */
 package com.jaamsim.basicsim;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 
 import com.jaamsim.events.EventManager;
@@ -28,8 +29,20 @@ import com.jaamsim.events.EventTraceListener;
 import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.InputAgent;
 
+/**
+ * Compares the trace entries for each event against those in a binary trace
+ * file written by EventRecorder. The file is read through a memory mapped
+ * window that is moved forward as the records are consumed.
+ */
 class EventTracer implements EventTraceListener {
-	private BufferedReader eventVerifyReader;
+	private static final long WINDOW_SIZE = 1L << 26;
+
+	private FileChannel channel;
+	private long fileSize;
+	private MappedByteBuffer window;
+	private long windowStart;  // file position for the start of the window
+
+	private final ArrayList<String> strings = new ArrayList<>();
 	private EventTraceRecord reader;
 	private long bufferTime; // Internal sim time buffer has been filled to
 	private final ArrayList<EventTraceRecord> eventBuffer;
@@ -39,40 +52,128 @@ class EventTracer implements EventTraceListener {
 		bufferTime = 0;
 		File evtFile = new File(evtName);
 		try {
-			eventVerifyReader = new BufferedReader(new FileReader(evtFile));
+			channel = FileChannel.open(evtFile.toPath(), StandardOpenOption.READ);
+			fileSize = channel.size();
+			mapWindow(0);
+			if (!ensure(EventTraceRecord.FILE_HEADER_SIZE)
+					|| window.getInt() != EventTraceRecord.FILE_MAGIC
+					|| window.getInt() != EventTraceRecord.FILE_VERSION) {
+				InputAgent.logMessage("The event verification file is not a valid trace file.");
+				channel.close();
+				channel = null;
+			}
+		}
+		catch (IOException e) {
+			channel = null;
 		}
-		catch (FileNotFoundException e) {}
-		if (eventVerifyReader == null)
+		if (channel == null)
 			InputAgent.logMessage("Unable to open an event verification file.");
 
 		reader = new EventTraceRecord();
 	}
 
-	private void fillBufferUntil(long internalTime) {
-		while (bufferTime <= internalTime) {
-			// Read a full trace record form the file, terminated at a blank line
-			EventTraceRecord temp = new EventTraceRecord();
-			while (true) {
-				String line = null;
-				try {
-					line = eventVerifyReader.readLine();
-				}
-				catch (IOException e) {}
+	private void mapWindow(long pos) throws IOException {
+		windowStart = pos;
+		long len = Math.min(WINDOW_SIZE, fileSize - pos);
+		window = channel.map(FileChannel.MapMode.READ_ONLY, pos, len);
+	}
 
-				if (line == null)
-					break;
+	/**
+	 * Moves the window so that the given number of bytes can be read from it.
+	 * Returns false if the end of the file has been reached.
+	 */
+	private boolean ensure(int bytes) throws IOException {
+		if (window.remaining() >= bytes)
+			return true;
 
-				temp.add(line);
+		long pos = windowStart + window.position();
+		if (fileSize - pos < bytes)
+			return false;
 
-				if (line.length() == 0)
-					break;
+		mapWindow(pos);
+		return true;
+	}
+
+	private void readString() throws IOException {
+		int id = window.getInt();
+		int len = window.getInt();
+		byte[] bytes = new byte[len];
+		int pos = 0;
+		while (pos < len) {
+			if (!ensure(1))
+				throw new IOException("Unexpected end of trace file");
+			int n = Math.min(window.remaining(), len - pos);
+			window.get(bytes, pos, n);
+			pos += n;
+		}
+		while (strings.size() <= id)
+			strings.add(null);
+		strings.set(id, new String(bytes, StandardCharsets.UTF_8));
+	}
+
+	private String getString(int id) {
+		if (id < 0)
+			return null;
+		return strings.get(id);
+	}
+
+	/**
+	 * Reads the next record from the trace file, or returns null at the end of
+	 * the file.
+	 */
+	private EventTraceRecord readRecord() throws IOException {
+		while (true) {
+			if (!ensure(4))
+				return null;
+
+			int tag = window.getInt();
+			if (tag == EventTraceRecord.TAG_STRING) {
+				if (!ensure(EventTraceRecord.STRING_HEADER_SIZE - 4))
+					return null;
+				readString();
+				continue;
 			}
 
-			if (temp.size() == 0)
+			if (tag != EventTraceRecord.TAG_RECORD)
+				throw new IOException("Unknown tag in trace file: " + tag);
+
+			if (!ensure(EventTraceRecord.RECORD_HEADER_SIZE - 4))
+				return null;
+			EventTraceRecord rec = new EventTraceRecord();
+			rec.setHeader(getString(window.getInt()), window.getLong());
+			int count = window.getInt();
+			for (int i = 0; i < count; i++) {
+				if (!ensure(EventTraceRecord.ENTRY_SIZE))
+					return null;
+				int type = window.getInt();
+				int level = window.getInt();
+				long tick = window.getLong();
+				int priority = window.getInt();
+				String desc = getString(window.getInt());
+				rec.add(type, level, tick, priority, desc);
+			}
+			return rec;
+		}
+	}
+
+	private void fillBufferUntil(long internalTime) {
+		if (channel == null)
+			return;
+
+		while (bufferTime <= internalTime) {
+			// Read a full trace record from the file
+			EventTraceRecord temp;
+			try {
+				temp = readRecord();
+			}
+			catch (IOException e) {
+				InputAgent.logMessage("Error reading the event verification file: %s", e.getMessage());
+				temp = null;
+			}
+
+			if (temp == null)
 				break;
 
-			// Parse the key information from the record
-			temp.parse();
 			if (temp.isDefaultEventManager() && temp.getInternalTime() > bufferTime) {
 				bufferTime = temp.getInternalTime();
 			}
@@ -80,6 +181,12 @@ class EventTracer implements EventTraceListener {
 		}
 	}
 
+	private static void printRecord(EventTraceRecord record) {
+		for (String line : record.getLines()) {
+			System.out.println(line);
+		}
+	}
+
 	private void findEventInBuffer(EventManager e, EventTraceRecord record) {
 		// Ensure we have read enough from the log to find this record
 		this.fillBufferUntil(record.getInternalTime());
@@ -90,22 +197,18 @@ class EventTracer implements EventTraceListener {
 				continue;
 			}
 
-			for (int i = 1; i < record.size(); i++) {
-				if (!record.get(i).equals(each.get(i))) {
+			for (int i = 0; i < record.size(); i++) {
+				if (!record.entryEquals(i, each)) {
 					System.out.println("Difference in event stream detected");
 					System.out.println("Received:");
-					for (String line : record) {
-						System.out.println(line);
-					}
+					printRecord(record);
 
 					System.out.println("Expected:");
-					for (String line : each) {
-						System.out.println(line);
-					}
+					printRecord(each);
 
 					System.out.println("Lines:");
-					System.out.println("R:" + record.get(i));
-					System.out.println("E:" + each.get(i));
+					System.out.println("R:" + record.getLine(i));
+					System.out.println("E:" + each.getLine(i));
 
 					e.pause();
 					new Throwable().printStackTrace();
@@ -120,14 +223,10 @@ class EventTracer implements EventTraceListener {
 		}
 
 		System.out.println("No matching event found for:");
-		for (String line : record) {
-			System.out.println(line);
-		}
+		printRecord(record);
 		for (EventTraceRecord rec : eventBuffer) {
 			System.out.println("Buffered Record:");
-			for (String line : rec) {
-				System.out.println(line);
-			}
+			printRecord(rec);
 			System.out.println();
 		}
 		e.pause();
@@ -137,13 +236,10 @@ class EventTracer implements EventTraceListener {
 		if (reader.traceLevel != 1)
 			return;
 
-		reader.add("");
-		reader.parse();
 		findEventInBuffer(e, reader);
 		reader.clear();
 		reader.traceLevel--;
 	}
-
 	@Override
 	public void traceWait(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
 		reader.traceWait(e, curTick, tick, priority, t);
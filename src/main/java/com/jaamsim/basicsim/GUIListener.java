@@ -0,0 +1,104 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import com.jaamsim.events.EventTraceListener;
+
+/**
+ * Receives the notifications that a model sends to its user interface. The
+ * simulation classes call the user interface only through this interface, so
+ * a model that is executed without one never loads the Swing, AWT or
+ * rendering classes.
+ */
+public interface GUIListener {
+
+	/**
+	 * The Tools windows that can be shown, moved and resized by the inputs to
+	 * the Simulation object.
+	 */
+	public enum Tool {
+		MODEL_BUILDER,
+		OBJECT_SELECTOR,
+		INPUT_EDITOR,
+		OUTPUT_VIEWER,
+		PROPERTY_VIEWER,
+		LOG_VIEWER,
+		EVENT_VIEWER
+	}
+
+	/**
+	 * Writes a line of text to the Log Viewer.
+	 * @param line - text to be logged
+	 */
+	public void logLine(String line);
+
+	/**
+	 * Refreshes the windows that show the model, normally because an input
+	 * has been changed.
+	 */
+	public void updateAll();
+
+	/**
+	 * Updates the controls for the specified state of the simulation run.
+	 * @param state - one of the GUIFrame.SIM_STATE values
+	 */
+	public void updateForSimulationState(int state);
+
+	public void updateForUndo();
+
+	public void updateSaveButton();
+
+	public void updateForSnapToGrid();
+
+	public void updateForRealTime(boolean executeRT, double factorRT);
+
+	public void updateForPauseTime(String str);
+
+	/**
+	 * Shows or hides one of the Tools windows.
+	 * @param tool - window to be shown or hidden
+	 * @param visible - true if the window is to be shown
+	 */
+	public void showTool(Tool tool, boolean visible);
+
+	public void setToolLocation(Tool tool, int x, int y);
+
+	public void setToolSize(Tool tool, int width, int height);
+
+	public void setControlPanelWidth(int width);
+
+	/**
+	 * Returns the Event Viewer window, which is opened if necessary.
+	 */
+	public EventTraceListener getEventViewer();
+
+	/**
+	 * Shows an error message to the user.
+	 * @param title - text for the dialog box name
+	 * @param pre - text to appear before the error message
+	 * @param message - error message
+	 * @param post - text to appear after the error message
+	 */
+	public void invokeErrorDialogBox(String title, String pre, String message, String post);
+
+	/**
+	 * Terminates the application once the last run has ended in batch mode
+	 * or when ExitAtStop is set.
+	 * @param errorCode - exit status for the application
+	 */
+	public void exit(int errorCode);
+}
@@ -19,11 +19,6 @@ package com.jaamsim.basicsim;
 
 public class InstanceIterable<T extends Entity> extends EntityIterator<T> {
 	public InstanceIterable(Class<T> aClass) {
-		super(aClass);
-	}
-
-	@Override
-	public boolean matches(Class<?> entklass) {
-		return entClass == entklass;
+		super(aClass, JaamSimModel.getCurrent().getMembers(aClass, null, true));
 	}
 }
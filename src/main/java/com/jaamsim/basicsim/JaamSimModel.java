@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2016-2017 JaamSim Software Inc.
+ * Copyright (C) 2016-2018 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,16 +16,136 @@
  */
 package com.jaamsim.basicsim;
 
+import java.io.File;
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map.Entry;
 import java.util.concurrent.atomic.AtomicLong;
 
+import com.jaamsim.events.EventManager;
+import com.jaamsim.units.Unit;
+
+/**
+ * JaamSimModel holds the state for a single simulation model: its entities,
+ * its EventManager and the model-specific settings used while reading inputs
+ * and writing reports. Several models can be loaded and run in the same JVM
+ * provided each one is accessed from threads on which it is the current model.
+ */
 public class JaamSimModel {
+	private static final JaamSimModel defaultModel = new JaamSimModel();
+	private static final InheritableThreadLocal<JaamSimModel> currentModel = new InheritableThreadLocal<>();
+
 	private final AtomicLong entityCount = new AtomicLong(0);
-	private final ArrayList<Entity> allInstances = new ArrayList<>(100);
+	private final EntityRegistry allInstances = new EntityRegistry();
 	private final HashMap<String, Entity> namedEntities = new HashMap<>(100);
 
+	// Entities for each class and interface used by an entity iterator
+	private final HashMap<MemberKey, EntityRegistry> memberLists = new HashMap<>();
+	private final HashMap<Class<?>, EntityRegistry[]> listsForClass = new HashMap<>();
+	private static final EntityRegistry[] noLists = new EntityRegistry[0];
+
+	private final EventManager eventManager;
+	private Simulation simulation;
+	private GUIListener gui;           // user interface for the model, or null if there is none
+
+	private final ArrayList<ObjectType> objectTypes = new ArrayList<>();
+	private final HashMap<Class<? extends Entity>, ObjectType> objectTypeMap = new HashMap<>();
+	private final HashMap<Class<? extends Unit>, Unit> preferredUnit = new HashMap<>();
+
+	private File configFile;           // present configuration file
+	private File reportDir;
+	private FileEntity reportFile;     // file to which the output report will be written
+	private PrintStream outStream;     // location where the selected outputs will be written
+	private FileEntity logFile;
+	private int numErrors;
+	private int numWarnings;
+	private long lastTickForTrace = -1L;
+	private long preDefinedEntityCount; // Number of Entities after loading autoload.cfg
+	private boolean sessionEdited;     // TRUE if any inputs have been changed after loading a configuration file
+	private boolean recordEditsFound;  // TRUE if the "RecordEdits" marker is found in the configuration file
+	private boolean recordEdits;       // TRUE if input changes are to be marked as edited.
+
 	public JaamSimModel() {
+		eventManager = new EventManager("DefaultEventManager");
+		eventManager.setJaamSimModel(this);
+	}
+
+	/**
+	 * Returns the model that is active on the calling thread.
+	 * <p>
+	 * Process threads use the model for the EventManager they are executing.
+	 * Other threads use the model set by setCurrent() for the thread or one of
+	 * its parents, or the default model if none has been set.
+	 * @return model for the calling thread.
+	 */
+	public static JaamSimModel getCurrent() {
+		if (EventManager.hasCurrent()) {
+			EventManager evt = EventManager.current();
+			if (evt != null && evt.getJaamSimModel() != null)
+				return evt.getJaamSimModel();
+		}
+
+		JaamSimModel model = currentModel.get();
+		if (model != null)
+			return model;
+
+		return defaultModel;
+	}
+
+	/**
+	 * Sets the model that is active on the calling thread and on any threads
+	 * that it subsequently creates.
+	 * @param model - model to be used, or null to revert to the default model.
+	 */
+	public static void setCurrent(JaamSimModel model) {
+		currentModel.set(model);
+	}
+
+	public final EventManager getEventManager() {
+		return eventManager;
+	}
+
+	/**
+	 * Returns the user interface that is notified of changes to the model, or
+	 * null if the model is being executed without one.
+	 */
+	public final GUIListener getGUIListener() {
+		return gui;
+	}
+
+	public final void setGUIListener(GUIListener l) {
+		gui = l;
+	}
+
+	/**
+	 * Refreshes the user interface, if there is one, after a change to the
+	 * model's inputs.
+	 */
+	public final void updateUI() {
+		GUIListener l = gui;
+		if (l != null)
+			l.updateAll();
+	}
+
+	/**
+	 * Returns the Simulation entity for this model, or null if one has not
+	 * been defined.
+	 */
+	public final Simulation getSimulation() {
+		synchronized (allInstances) {
+			if (simulation != null)
+				return simulation;
+
+			for (Entity ent : allInstances) {
+				if (ent instanceof Simulation) {
+					simulation = (Simulation)ent;
+					break;
+				}
+			}
+			return simulation;
+		}
 	}
 
 	final long getNextEntityID() {
@@ -44,44 +164,101 @@ public class JaamSimModel {
 		return seq;
 	}
 
-	private final int idToIndex(long id) {
-		int lowIdx = 0;
-		int highIdx = allInstances.size() - 1;
+	public final Entity idToEntity(long id) {
+		return allInstances.find(id);
+	}
 
-		while (lowIdx <= highIdx) {
-			int testIdx = (lowIdx + highIdx) >>> 1; // Avoid sign extension
-			long testNum = allInstances.get(testIdx).getEntityNumber();
+	/**
+	 * Returns the entities in the model in order of increasing entity number.
+	 * The list is updated as entities are added and removed.
+	 */
+	public final List<? extends Entity> getEntities() {
+		return allInstances;
+	}
 
-			if (testNum < id) {
-				lowIdx = testIdx + 1;
-				continue;
-			}
+	/**
+	 * Returns the entities that are instances of the given class, in order of
+	 * increasing entity number. The list is updated as entities are added and
+	 * removed.
+	 * @param cls - class for the entities
+	 * @param iface - interface that the entities must also implement, or null
+	 * @param exact - if true, instances of sub-classes are not included
+	 */
+	final List<? extends Entity> getMembers(Class<?> cls, Class<?> iface, boolean exact) {
+		MemberKey key = new MemberKey(cls, iface, exact);
+		synchronized (allInstances) {
+			EntityRegistry list = memberLists.get(key);
+			if (list != null)
+				return list;
 
-			if (testNum > id) {
-				highIdx = testIdx - 1;
-				continue;
+			list = new EntityRegistry();
+			for (int i = 0; i < allInstances.size(); i++) {
+				Entity ent = allInstances.get(i);
+				if (key.matches(ent.getClass()))
+					list.register(ent);
 			}
+			memberLists.put(key, list);
 
-			return testIdx;
+			// The lists for each entity class must be found again
+			listsForClass.clear();
+			return list;
 		}
-
-		// Entity number not found
-		return -(lowIdx + 1);
 	}
 
-	public final Entity idToEntity(long id) {
-		synchronized (allInstances) {
-			int idx = this.idToIndex(id);
-			if (idx < 0)
-				return null;
+	/**
+	 * Returns the member lists that include the entities of the given class.
+	 */
+	private EntityRegistry[] getListsForClass(Class<?> klass) {
+		EntityRegistry[] lists = listsForClass.get(klass);
+		if (lists != null)
+			return lists;
 
-			return allInstances.get(idx);
+		ArrayList<EntityRegistry> found = new ArrayList<>();
+		for (Entry<MemberKey, EntityRegistry> each : memberLists.entrySet()) {
+			if (each.getKey().matches(klass))
+				found.add(each.getValue());
 		}
+		lists = found.isEmpty() ? noLists : found.toArray(new EntityRegistry[found.size()]);
+		listsForClass.put(klass, lists);
+		return lists;
 	}
 
-	public final ArrayList<? extends Entity> getEntities() {
-		synchronized(allInstances) {
-			return allInstances;
+	private static final class MemberKey {
+		final Class<?> cls;
+		final Class<?> iface;
+		final boolean exact;
+
+		MemberKey(Class<?> c, Class<?> i, boolean ex) {
+			cls = c;
+			iface = i;
+			exact = ex;
+		}
+
+		boolean matches(Class<?> klass) {
+			if (exact)
+				return cls == klass;
+
+			if (!cls.isAssignableFrom(klass))
+				return false;
+
+			return iface == null || iface.isAssignableFrom(klass);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof MemberKey))
+				return false;
+
+			MemberKey k = (MemberKey)o;
+			return cls == k.cls && iface == k.iface && exact == k.exact;
+		}
+
+		@Override
+		public int hashCode() {
+			int h = cls.hashCode() * 31;
+			if (iface != null)
+				h += iface.hashCode();
+			return exact ? ~h : h;
 		}
 	}
 
@@ -90,6 +267,7 @@ public class JaamSimModel {
 			// Generated Entities do not appear in the named entity hashmap, no consistency checks needed
 			if (e.testFlag(Entity.FLAG_GENERATED)) {
 				e.entityName = newName;
+				e.namePrefix = null;
 				return;
 			}
 
@@ -106,37 +284,159 @@ public class JaamSimModel {
 	}
 
 	final void addInstance(Entity e) {
-		synchronized(allInstances) {
-			allInstances.add(e);
+		synchronized (allInstances) {
+			allInstances.register(e);
+			EntityRegistry[] lists = getListsForClass(e.getClass());
+			for (int i = 0; i < lists.length; i++)
+				lists[i].register(e);
 		}
 	}
 
 	final void restoreInstance(Entity e) {
-		synchronized(allInstances) {
-			int index = idToIndex(e.getEntityNumber());
-			if (index >= 0) {
-				throw new ErrorException("Entity already included in allInstances: %s", e);
-			}
-			allInstances.add(-index - 1, e);
+		synchronized (allInstances) {
+			allInstances.restore(e);
+			EntityRegistry[] lists = getListsForClass(e.getClass());
+			for (int i = 0; i < lists.length; i++)
+				lists[i].restore(e);
 		}
 	}
 
 	final void removeInstance(Entity e) {
 		synchronized (allInstances) {
-			int index = idToIndex(e.getEntityNumber());
-			if (index < 0)
+			if (!allInstances.unregister(e))
 				return;
 
-			if (e != allInstances.remove(index))
-				throw new ErrorException("Internal Consistency Error - Entity List");
+			EntityRegistry[] lists = getListsForClass(e.getClass());
+			for (int i = 0; i < lists.length; i++)
+				lists[i].unregister(e);
 
 			if (!e.testFlag(Entity.FLAG_GENERATED)) {
 				if (e != namedEntities.remove(e.entityName))
 					throw new ErrorException("Named Entities Internal Consistency error: %s", e);
 			}
 
+			if (e == simulation)
+				simulation = null;
+
 			e.entityName = null;
+			e.namePrefix = null;
 			e.setFlag(Entity.FLAG_DEAD);
+
+			if (e.pool != null)
+				e.pool.release(e);
 		}
 	}
+
+	final ArrayList<ObjectType> getObjectTypes() {
+		return objectTypes;
+	}
+
+	final HashMap<Class<? extends Entity>, ObjectType> getObjectTypeMap() {
+		return objectTypeMap;
+	}
+
+	public final HashMap<Class<? extends Unit>, Unit> getPreferredUnitMap() {
+		return preferredUnit;
+	}
+
+	public final File getConfigFile() {
+		return configFile;
+	}
+
+	public final void setConfigFile(File file) {
+		configFile = file;
+	}
+
+	public final File getReportDirectory() {
+		return reportDir;
+	}
+
+	public final void setReportDirectory(File dir) {
+		reportDir = dir;
+	}
+
+	public final FileEntity getReportFile() {
+		return reportFile;
+	}
+
+	public final void setReportFile(FileEntity file) {
+		reportFile = file;
+	}
+
+	public final PrintStream getOutStream() {
+		return outStream;
+	}
+
+	public final void setOutStream(PrintStream stream) {
+		outStream = stream;
+	}
+
+	public final FileEntity getLogFile() {
+		return logFile;
+	}
+
+	public final void setLogFile(FileEntity file) {
+		logFile = file;
+	}
+
+	public final int getNumErrors() {
+		return numErrors;
+	}
+
+	public final int getNumWarnings() {
+		return numWarnings;
+	}
+
+	public final void incrementNumErrors() {
+		numErrors++;
+	}
+
+	public final void incrementNumWarnings() {
+		numWarnings++;
+	}
+
+	public final void resetErrorCounts() {
+		numErrors = 0;
+		numWarnings = 0;
+	}
+
+	public final long getLastTickForTrace() {
+		return lastTickForTrace;
+	}
+
+	public final void setLastTickForTrace(long tick) {
+		lastTickForTrace = tick;
+	}
+
+	public final long getPreDefinedEntityCount() {
+		return preDefinedEntityCount;
+	}
+
+	public final void setPreDefinedEntityCount(long count) {
+		preDefinedEntityCount = count;
+	}
+
+	public final boolean isSessionEdited() {
+		return sessionEdited;
+	}
+
+	public final void setSessionEdited(boolean bool) {
+		sessionEdited = bool;
+	}
+
+	public final boolean getRecordEditsFound() {
+		return recordEditsFound;
+	}
+
+	public final void setRecordEditsFound(boolean bool) {
+		recordEditsFound = bool;
+	}
+
+	public final boolean getRecordEdits() {
+		return recordEdits;
+	}
+
+	public final void setRecordEdits(boolean bool) {
+		recordEdits = bool;
+	}
 }
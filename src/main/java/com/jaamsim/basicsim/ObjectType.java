@@ -33,9 +33,6 @@ import com.jaamsim.math.Vec3d;
 import com.jaamsim.units.DistanceUnit;
 
 public class ObjectType extends Entity {
-	private static final ArrayList<ObjectType> allInstances;
-	private static final HashMap<Class<? extends Entity>, ObjectType> objectTypeMap;
-
 	@Keyword(description = "The java class of the object type",
 	         exampleList = {"This is placeholder example text"})
 	private final ClassInput javaClass;
@@ -67,11 +64,6 @@ public class ObjectType extends Entity {
 
 	private final ArrayList<DisplayModel> displayEntityDefault = new ArrayList<>(1);
 
-	static {
-		allInstances = new ArrayList<>();
-		objectTypeMap = new HashMap<>();
-	}
-
 	{
 		javaClass = new ClassInput( "JavaClass", KEY_INPUTS, null );
 		this.addInput( javaClass );
@@ -97,6 +89,7 @@ public class ObjectType extends Entity {
 	}
 
 	public ObjectType() {
+		ArrayList<ObjectType> allInstances = getJaamSimModel().getObjectTypes();
 		synchronized (allInstances) {
 			allInstances.add(this);
 		}
@@ -113,6 +106,7 @@ public class ObjectType extends Entity {
 		}
 
 		if (in == javaClass) {
+			HashMap<Class<? extends Entity>, ObjectType> objectTypeMap = getJaamSimModel().getObjectTypeMap();
 			synchronized (objectTypeMap) {
 				objectTypeMap.put(javaClass.getValue(), this);
 			}
@@ -122,12 +116,14 @@ public class ObjectType extends Entity {
 	}
 
 	public static ArrayList<ObjectType> getAll() {
+		ArrayList<ObjectType> allInstances = JaamSimModel.getCurrent().getObjectTypes();
 		synchronized (allInstances) {
 			return allInstances;
 		}
 	}
 
 	public static ObjectType getObjectTypeForClass(Class<? extends Entity> klass) {
+		HashMap<Class<? extends Entity>, ObjectType> objectTypeMap = JaamSimModel.getCurrent().getObjectTypeMap();
 		synchronized (objectTypeMap) {
 			return objectTypeMap.get(klass);
 		}
@@ -136,8 +132,8 @@ public class ObjectType extends Entity {
 	@Override
 	public void kill() {
 		super.kill();
-		allInstances.remove(this);
-		objectTypeMap.remove(javaClass.getValue());
+		getJaamSimModel().getObjectTypes().remove(this);
+		getJaamSimModel().getObjectTypeMap().remove(javaClass.getValue());
 	}
 
 	public Class<? extends Entity> getJavaClass() {
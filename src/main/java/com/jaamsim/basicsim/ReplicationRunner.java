@@ -0,0 +1,205 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.jaamsim.events.EventErrorListener;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventTimeListener;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.InputErrorException;
+
+/**
+ * Executes the runs specified by StartingRunNumber and EndingRunNumber on a
+ * number of worker threads. Each worker loads the configuration file into its
+ * own JaamSimModel and executes whichever run is next in line until all the
+ * runs have been claimed. The selected outputs and the output reports for the
+ * runs are written in run number order, so the files are identical to those
+ * produced when the runs are executed one after another.
+ */
+public class ReplicationRunner {
+	private final File configFile;
+	private final int firstRun;
+	private final int lastRun;
+	private final int numThreads;
+
+	private final AtomicInteger nextRun = new AtomicInteger();
+	private final byte[][] runOutputs;  // selected outputs for each run
+	private final File[] runReports;    // output report for each run
+	private volatile Throwable error;   // first error found by a worker
+
+	/**
+	 * Creates a runner for the specified configuration file.
+	 * @param file - configuration file for the model.
+	 * @param first - first run number to be executed.
+	 * @param last - last run number to be executed.
+	 * @param threads - number of runs to be executed at the same time.
+	 */
+	public ReplicationRunner(File file, int first, int last, int threads) {
+		configFile = file;
+		firstRun = first;
+		lastRun = last;
+		numThreads = Math.max(1, Math.min(threads, last - first + 1));
+		runOutputs = new byte[last - first + 1][];
+		runReports = new File[last - first + 1];
+	}
+
+	/**
+	 * Executes all the runs and writes their outputs. The method must be
+	 * called from a thread whose current model has already loaded the
+	 * configuration file, since this model is used to write the headers for
+	 * the selected outputs.
+	 * @throws Throwable - the first error found by any of the runs.
+	 */
+	public void run() throws Throwable {
+		nextRun.set(firstRun);
+
+		Thread[] threads = new Thread[numThreads];
+		for (int i = 0; i < numThreads; i++) {
+			threads[i] = new Thread(new Worker(), "ReplicationRunner-" + i);
+			threads[i].start();
+		}
+		for (Thread each : threads)
+			each.join();
+
+		try {
+			if (error != null)
+				throw error;
+
+			writeOutputs();
+		}
+		finally {
+			for (File each : runReports) {
+				if (each != null)
+					each.delete();
+			}
+		}
+	}
+
+	private void writeOutputs() throws IOException {
+
+		// Selected outputs
+		if (Simulation.getRunOutputList().getValue() != null) {
+			PrintStream outStream = InputAgent.openRunOutputStream();
+			InputAgent.printRunOutputHeaders(outStream);
+			for (byte[] each : runOutputs)
+				outStream.write(each);
+			outStream.close();
+		}
+
+		// Output reports
+		if (Simulation.getPrintReport()) {
+			StringBuilder sb = new StringBuilder();
+			sb.append(InputAgent.getReportFileName(InputAgent.getRunName()));
+			sb.append(".rep");
+			FileEntity reportFile = new FileEntity(sb.toString());
+			for (File each : runReports)
+				reportFile.write(new String(Files.readAllBytes(each.toPath())));
+			reportFile.close();
+		}
+	}
+
+	private class Worker implements Runnable, EventTimeListener, EventErrorListener {
+		private CountDownLatch runDone;
+		private Throwable runError;
+
+		@Override
+		public void run() {
+			try {
+				JaamSimModel model = loadModel();
+				for (int n = nextRun.getAndIncrement(); n <= lastRun; n = nextRun.getAndIncrement()) {
+					if (error != null)
+						return;
+					executeRun(model, n);
+				}
+			}
+			catch (Throwable t) {
+				synchronized (ReplicationRunner.this) {
+					if (error == null)
+						error = t;
+				}
+			}
+		}
+
+		private JaamSimModel loadModel() throws URISyntaxException {
+			JaamSimModel model = new JaamSimModel();
+			JaamSimModel.setCurrent(model);
+
+			InputAgent.setRecordEdits(false);
+			InputAgent.readResource("<res>/inputs/autoload.cfg");
+			InputAgent.setConfigFile(configFile);
+			InputAgent.readStream("", configFile.getParentFile().toURI(), configFile.getName());
+			if (InputAgent.numErrors() > 0)
+				throw new InputErrorException("%d input errors found in %s",
+						InputAgent.numErrors(), configFile.getName());
+
+			EventManager evt = model.getEventManager();
+			evt.setTimeListener(this);
+			evt.setErrorListener(this);
+			return model;
+		}
+
+		private void executeRun(JaamSimModel model, int n) throws Throwable {
+			int index = n - firstRun;
+
+			// Redirect the outputs for the run so that they can be merged later
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			model.setOutStream(new PrintStream(bytes));
+			if (Simulation.getPrintReport()) {
+				runReports[index] = File.createTempFile("run" + n + "-", ".rep");
+				model.setReportFile(new FileEntity(runReports[index].getPath()));
+			}
+
+			runDone = new CountDownLatch(1);
+			runError = null;
+			EventManager evt = model.getEventManager();
+			if (!Simulation.startSingleRun(evt, n))
+				throw new InputErrorException("Validation error found in %s", configFile.getName());
+			runDone.await();
+
+			if (runError != null)
+				throw runError;
+
+			// Closes the redirected outputs and resets the model for the next run
+			Simulation.stop(evt);
+			runOutputs[index] = bytes.toByteArray();
+		}
+
+		@Override
+		public void tickUpdate(long tick) {}
+
+		@Override
+		public void timeRunning(boolean running) {
+			if (!running)
+				runDone.countDown();
+		}
+
+		@Override
+		public void handleError(EventManager evt, Throwable t, long currentTick) {
+			runError = t;
+			runDone.countDown();
+		}
+	}
+}
@@ -21,8 +21,7 @@ import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
-
-import javax.swing.JFrame;
+import java.util.LinkedHashMap;
 
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleInput;
@@ -30,9 +29,11 @@ import com.jaamsim.StringProviders.StringProvListInput;
 import com.jaamsim.datatypes.IntegerVector;
 import com.jaamsim.events.Conditional;
 import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventProfiler;
 import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.DirInput;
 import com.jaamsim.input.EntityListInput;
+import com.jaamsim.input.EnumInput;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.IntegerInput;
@@ -44,15 +45,7 @@ import com.jaamsim.input.UnitTypeListInput;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.math.Vec3d;
 import com.jaamsim.ui.AboutBox;
-import com.jaamsim.ui.EditBox;
-import com.jaamsim.ui.EntityPallet;
-import com.jaamsim.ui.EventViewer;
-import com.jaamsim.ui.FrameBox;
 import com.jaamsim.ui.GUIFrame;
-import com.jaamsim.ui.LogBox;
-import com.jaamsim.ui.ObjectSelector;
-import com.jaamsim.ui.OutputBox;
-import com.jaamsim.ui.PropertyBox;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.DistanceUnit;
 import com.jaamsim.units.TimeUnit;
@@ -70,7 +63,7 @@ public class Simulation extends Entity {
 	// Key Inputs tab
 	@Keyword(description = "The duration of the simulation run in which all statistics will be recorded.",
 	         exampleList = {"8760 h"})
-	private static final ValueInput runDuration;
+	private final ValueInput runDuration;
 
 	@Keyword(description = "The initialization interval for the simulation run. The model will "
 	                     + "run for the InitializationDuration interval and then clear the "
@@ -78,11 +71,11 @@ public class Simulation extends Entity {
 	                     + "The total length of the simulation run will be the sum of the "
 	                     + "InitializationDuration and RunDuration inputs.",
 	         exampleList = {"720 h"})
-	private static final ValueInput initializationTime;
+	private final ValueInput initializationTime;
 
 	@Keyword(description = "An optional expression that pauses the run when TRUE is returned.",
 	         exampleList = {"'[Queue1].QueueLength > 20'"})
-	private static final SampleInput pauseConditionInput;
+	private final SampleInput pauseConditionInput;
 
 	@Keyword(description = "If TRUE, the simulation run will be terminated when the "
 	                     + "PauseCondition expression returns TRUE. If multiple runs have been "
@@ -90,12 +83,12 @@ public class Simulation extends Entity {
 	                     + "been specified, the simulation will be paused or terminated "
 	                     + "depending on the input to the ExitAtStop keyword.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput exitAtPauseCondition;
+	private final BooleanInput exitAtPauseCondition;
 
 	@Keyword(description = "If TRUE, the program will be closed on completion of the last "
 	                     + "simulation run. Otherwise, the last run will be paused.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput exitAtStop;
+	private final BooleanInput exitAtStop;
 
 	@Keyword(description = "Global seed that sets the substream for each probability "
 	                     + "distribution. Must be an integer >= 0. GlobalSubstreamSeed works "
@@ -106,22 +99,22 @@ public class Simulation extends Entity {
 	                     + "and then set the GlobalSubstreamSeed input to the run number or to "
 	                     + "one of the run indices.",
 	         exampleList = {"5", "[Simulation].RunNumber", "[Simulation].RunIndex(3)"})
-	private static final SampleInput globalSeedInput;
+	private final SampleInput globalSeedInput;
 
 	@Keyword(description = "If TRUE, a full output report is printed to the file "
 	                     + "<configuration file name>.rep at the end of the simulation run.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput printReport;
+	private final BooleanInput printReport;
 
 	@Keyword(description = "The directory in which to place the output report. Defaults to the "
 	                     + "directory containing the configuration file for the run.",
 	         exampleList = {"'c:/reports/'"})
-	private static final DirInput reportDirectory;
+	private final DirInput reportDirectory;
 
 	@Keyword(description = "The unit types for the selected outputs for the simulation run. "
 	                     + "Use DimensionlessUnit for a text output.",
 	         exampleList = {"DistanceUnit  SpeedUnit"})
-	private static final UnitTypeListInput unitTypeList;
+	private final UnitTypeListInput unitTypeList;
 
 	@Keyword(description = "One or more selected outputs to be printed at the end of each "
 	                     + "simulation run. Each output is specified by an expression. In script "
@@ -129,11 +122,35 @@ public class Simulation extends Entity {
 	                     + "(standard out). Otherwise, they are printed to the file "
 	                     + "<configuration file name>.dat.",
 	         exampleList = {"{ [Entity1].Out1 } { [Entity2].Out2 }"})
-	protected static final StringProvListInput runOutputList;
+	protected final StringProvListInput runOutputList;
 
 	@Keyword(description = "The length of time represented by one simulation tick.",
 	         exampleList = {"1e-6 s"})
-	private static final ValueInput tickLengthInput;
+	private final ValueInput tickLengthInput;
+
+	@Keyword(description = "The data structure used to hold the future event list. "
+	                     + "RED_BLACK_TREE is a balanced binary tree. LADDER_QUEUE is a "
+	                     + "multi-tier bucket structure whose insertion and removal times do "
+	                     + "not grow with the number of scheduled events, which can be faster "
+	                     + "for models with a very large number of future events. TIMING_WHEEL "
+	                     + "holds the events within the TimingWheelHorizon in fixed slots, which "
+	                     + "can be faster for models dominated by short delays. Events are "
+	                     + "executed in the same order for every choice.",
+	         exampleList = {"LADDER_QUEUE"})
+	private final EnumInput<EventManager.QueueType> eventQueueType;
+
+	@Keyword(description = "The length of time beyond the present simulation time for which "
+	                     + "events are held in the timing wheel when EventQueueType is "
+	                     + "TIMING_WHEEL. Events scheduled further in the future are held in a "
+	                     + "red-black tree until the simulation time approaches them.",
+	         exampleList = {"60 s"})
+	private final ValueInput timingWheelHorizon;
+
+	@Keyword(description = "If TRUE, the wall clock time spent executing each event is recorded "
+	                     + "and the totals are provided by the EventCount, EventTime and "
+	                     + "MaxEventTime outputs, grouped by event type and by entity.",
+	         exampleList = {"TRUE"})
+	private final BooleanInput profileEvents;
 
 	// Multiple Runs tab
 	@Keyword(description = "Defines the number of run indices and the maximum value N for each "
@@ -143,7 +160,7 @@ public class Simulation extends Entity {
 	                     + "indices are defined with ranges of 3, 5, and 10, then at total of "
 	                     + "3*5*10 = 150 runs will be executed.",
 	         exampleList = {"3 5 10"})
-	private static final IntegerListInput runIndexDefinitionList;
+	private final IntegerListInput runIndexDefinitionList;
 
 	@Keyword(description = "The first run number to be executed. The value can be entered as "
 	                     + "either an integer or as the equivalent combination of run indices. "
@@ -151,7 +168,7 @@ public class Simulation extends Entity {
 	                     + "3, 5, and 10, then run number 22 can be expressed as 1-3-2 because "
 	                     + "22 = (1-1)*5*10 + (3-1)*10 + 2.",
 	         exampleList = {"22", "1-3-2"})
-	private static final RunNumberInput startingRunNumber;
+	private final RunNumberInput startingRunNumber;
 
 	@Keyword(description = "The last run number to be executed. The value can be entered as "
 	                     + "either an integer or as the equivalent combination of run indices. "
@@ -159,36 +176,43 @@ public class Simulation extends Entity {
 	                     + "3, 5, and 10, then run number 78 can be expressed as 2-3-8 because "
 	                     + "78 = (2-1)*5*10 + (3-1)*10 + 8.",
 	         exampleList = {"78", "2-3-8"})
-	private static final RunNumberInput endingRunNumber;
+	private final RunNumberInput endingRunNumber;
+
+	@Keyword(description = "The maximum number of simulation runs to execute at the same time "
+	                     + "when the model is run in batch mode. Each run is executed in a "
+	                     + "separate copy of the model and the outputs are written in run "
+	                     + "number order.",
+	         exampleList = {"8"})
+	private final IntegerInput numberOfThreads;
 
 	// GUI tab
 	@Keyword(description = "An optional list of units to be used for displaying model outputs.",
 	         exampleList = {"h kt"})
-	private static final EntityListInput<? extends Unit> displayedUnits;
+	private final EntityListInput<? extends Unit> displayedUnits;
 
 	@Keyword(description = "If TRUE, a dragged object will be positioned to the nearest grid "
 	                     + "point.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput snapToGrid;
+	private final BooleanInput snapToGrid;
 
 	@Keyword(description = "The distance between snap grid points.",
 	         exampleList = {"1 m"})
-	private static final ValueInput snapGridSpacing;
+	private final ValueInput snapGridSpacing;
 
 	@Keyword(description = "The distance moved by the selected entity when the an arrow key is "
 	                     + "pressed.",
 	         exampleList = {"1 cm"})
-	private static final ValueInput incrementSize;
+	private final ValueInput incrementSize;
 
 	@Keyword(description = "If TRUE, the simulation is executed a constant multiple of real time. "
 	                     + "Otherwise, the run is executed as fast as possible, limited only by "
 	                     + "processor speed.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput realTime;
+	private final BooleanInput realTime;
 
 	@Keyword(description = "The target ratio of elapsed simulation time to elapsed real time.",
 	         exampleList = {"1200"})
-	private static final ValueInput realTimeFactor;
+	private final ValueInput realTimeFactor;
 
 	public static final double DEFAULT_REAL_TIME_FACTOR = 1;
 	public static final double MIN_REAL_TIME_FACTOR = 1e-6;
@@ -196,133 +220,133 @@ public class Simulation extends Entity {
 
 	@Keyword(description = "The time at which the simulation will be paused.",
 	         exampleList = {"200 h"})
-	private static final ValueInput pauseTime;
+	private final ValueInput pauseTime;
 
 	@Keyword(description = "If TRUE, the Model Builder tool is shown on startup.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput showModelBuilder;
+	private final BooleanInput showModelBuilder;
 
 	@Keyword(description = "If TRUE, the Object Selector tool is shown on startup.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput showObjectSelector;
+	private final BooleanInput showObjectSelector;
 
 	@Keyword(description = "If TRUE, the Input Editor tool is shown on startup.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput showInputEditor;
+	private final BooleanInput showInputEditor;
 
 	@Keyword(description = "If TRUE, the Output Viewer tool is shown on startup.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput showOutputViewer;
+	private final BooleanInput showOutputViewer;
 
 	@Keyword(description = "If TRUE, the Property Viewer tool is shown on startup.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput showPropertyViewer;
+	private final BooleanInput showPropertyViewer;
 
 	@Keyword(description = "If TRUE, the Log Viewer tool is shown on startup.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput showLogViewer;
+	private final BooleanInput showLogViewer;
 
 	@Keyword(description = "If TRUE, the Event Viewer tool is shown on startup.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput showEventViewer;
+	private final BooleanInput showEventViewer;
 
 	@Keyword(description = "The position of the upper left corner of the Model Builder window "
 	                     + "in pixels measured from the top left corner of the screen.",
 	         exampleList = {"220 110"})
-	private static final IntegerListInput modelBuilderPos;
+	private final IntegerListInput modelBuilderPos;
 
 	@Keyword(description = "The size of the Model Builder window in pixels (width, height).",
 	         exampleList = {"500 300"})
-	private static final IntegerListInput modelBuilderSize;
+	private final IntegerListInput modelBuilderSize;
 
 	@Keyword(description = "The position of the upper left corner of the Object Selector window "
 	                     + "in pixels measured from the top left corner of the screen.",
 	         exampleList = {"220 110"})
-	private static final IntegerListInput objectSelectorPos;
+	private final IntegerListInput objectSelectorPos;
 
 	@Keyword(description = "The size of the Object Selector window in pixels (width, height).",
 	         exampleList = {"500 300"})
-	private static final IntegerListInput objectSelectorSize;
+	private final IntegerListInput objectSelectorSize;
 
 	@Keyword(description = "The position of the upper left corner of the Input Editor window "
 	                     + "in pixels measured from the top left corner of the screen.",
 	         exampleList = {"220 110"})
-	private static final IntegerListInput inputEditorPos;
+	private final IntegerListInput inputEditorPos;
 
 	@Keyword(description = "The size of the Input Editor window in pixels (width, height).",
 	         exampleList = {"500 300"})
-	private static final IntegerListInput inputEditorSize;
+	private final IntegerListInput inputEditorSize;
 
 	@Keyword(description = "The position of the upper left corner of the Output Viewer window "
 	                     + "in pixels measured from the top left corner of the screen.",
 	         exampleList = {"220 110"})
-	private static final IntegerListInput outputViewerPos;
+	private final IntegerListInput outputViewerPos;
 
 	@Keyword(description = "The size of the Output Viewer window in pixels (width, height).",
 	         exampleList = {"500 300"})
-	private static final IntegerListInput outputViewerSize;
+	private final IntegerListInput outputViewerSize;
 
 	@Keyword(description = "The position of the upper left corner of the Property Viewer window "
 	                     + "in pixels measured from the top left corner of the screen.",
 	         exampleList = {"220 110"})
-	private static final IntegerListInput propertyViewerPos;
+	private final IntegerListInput propertyViewerPos;
 
 	@Keyword(description = "The size of the Property Viewer window in pixels (width, height).",
 	         exampleList = {"500 300"})
-	private static final IntegerListInput propertyViewerSize;
+	private final IntegerListInput propertyViewerSize;
 
 	@Keyword(description = "The position of the upper left corner of the Log Viewer window "
 	                     + "in pixels measured from the top left corner of the screen.",
 	         exampleList = {"220 110"})
-	private static final IntegerListInput logViewerPos;
+	private final IntegerListInput logViewerPos;
 
 	@Keyword(description = "The size of the Log Viewer window in pixels (width, height).",
 	         exampleList = {"500 300"})
-	private static final IntegerListInput logViewerSize;
+	private final IntegerListInput logViewerSize;
 
 	@Keyword(description = "The position of the upper left corner of the Event Viewer window "
 	                     + "in pixels measured from the top left corner of the screen.",
 	         exampleList = {"220 110"})
-	private static final IntegerListInput eventViewerPos;
+	private final IntegerListInput eventViewerPos;
 
 	@Keyword(description = "The size of the Event Viewer window in pixels (width, height).",
 	         exampleList = {"500 300"})
-	private static final IntegerListInput eventViewerSize;
+	private final IntegerListInput eventViewerSize;
 
 	@Keyword(description = "The width of the Control Panel window in pixels.",
 	         exampleList = {"1920"})
-	private static final IntegerInput controlPanelWidth;
+	private final IntegerInput controlPanelWidth;
 
 	@Keyword(description = "Time at which the simulation run is started (hh:mm).",
 	         exampleList = {"2160 h"})
-	private static final ValueInput startTimeInput;
+	private final ValueInput startTimeInput;
 
 	// Hidden keywords
 	@Keyword(description = "If TRUE, then the input report file will be printed after loading "
 	                     + "the configuration file.  The input report can always be generated "
 	                     + "when needed by selecting \"Print Input Report\" under the File menu.",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput printInputReport;
+	private final BooleanInput printInputReport;
 
 	@Keyword(description = "This is placeholder description text",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput traceEventsInput;
+	private final BooleanInput traceEventsInput;
 
 	@Keyword(description = "This is placeholder description text",
 	         exampleList = {"TRUE"})
-	private static final BooleanInput verifyEventsInput;
+	private final BooleanInput verifyEventsInput;
 
-	private static double startTime; // simulation time (seconds) for the start of the run (not necessarily zero)
-	private static double endTime;   // simulation time (seconds) for the end of the run
-	private static int runNumber;    // labels each run when multiple runs are being made
-	private static IntegerVector runIndexList;
+	private double startTime; // simulation time (seconds) for the start of the run (not necessarily zero)
+	private double endTime;   // simulation time (seconds) for the end of the run
+	private int runNumber;    // labels each run when multiple runs are being made
+	private IntegerVector runIndexList;
+	private boolean singleRun;  // TRUE if the model is to stop at the end of the present run
+	private EventRecorder recorder;  // trace file for the present run, if any
 
-	private static Simulation myInstance;
 
 	private static String modelName = "JaamSim";
 
-	static {
-
+	{
 		// Key Inputs tab
 		runDuration = new ValueInput("RunDuration", KEY_INPUTS, 31536000.0d);
 		runDuration.setUnitType(TimeUnit.class);
@@ -357,6 +381,15 @@ public class Simulation extends Entity {
 		tickLengthInput.setUnitType(TimeUnit.class);
 		tickLengthInput.setValidRange(1e-12d, Double.POSITIVE_INFINITY);
 
+		eventQueueType = new EnumInput<>(EventManager.QueueType.class, "EventQueueType", KEY_INPUTS,
+				EventManager.QueueType.RED_BLACK_TREE);
+
+		timingWheelHorizon = new ValueInput("TimingWheelHorizon", KEY_INPUTS, 10.0d);
+		timingWheelHorizon.setUnitType(TimeUnit.class);
+		timingWheelHorizon.setValidRange(0.0d, Double.POSITIVE_INFINITY);
+
+		profileEvents = new BooleanInput("ProfileEvents", KEY_INPUTS, false);
+
 		// Multiple Runs tab
 		IntegerVector defRangeList = new IntegerVector();
 		defRangeList.add(1);
@@ -366,6 +399,9 @@ public class Simulation extends Entity {
 
 		endingRunNumber = new RunNumberInput("EndingRunNumber", MULTIPLE_RUNS, 1);
 
+		numberOfThreads = new IntegerInput("NumberOfThreads", MULTIPLE_RUNS, 1);
+		numberOfThreads.setValidRange(1, Integer.MAX_VALUE);
+
 		// GUI tab
 		displayedUnits = new EntityListInput<>(Unit.class, "DisplayedUnits", GUI, new ArrayList<Unit>());
 		displayedUnits.setDefaultText("SI Units");
@@ -549,11 +585,15 @@ public class Simulation extends Entity {
 		this.addInput(unitTypeList);
 		this.addInput(runOutputList);
 		this.addInput(tickLengthInput);
+		this.addInput(eventQueueType);
+		this.addInput(timingWheelHorizon);
+		this.addInput(profileEvents);
 
 		// Multiple Runs tab
 		this.addInput(runIndexDefinitionList);
 		this.addInput(startingRunNumber);
 		this.addInput(endingRunNumber);
+		this.addInput(numberOfThreads);
 
 		// GUI tab
 		this.addInput(displayedUnits);
@@ -599,9 +639,9 @@ public class Simulation extends Entity {
 		printInputReport.setHidden(true);
 
 		// Set the entity corresponding to "this" for keywords that can accept an expression
-		pauseConditionInput.setEntity(Simulation.getInstance());
-		globalSeedInput.setEntity(Simulation.getInstance());
-		runOutputList.setEntity(Simulation.getInstance());
+		pauseConditionInput.setEntity(this);
+		globalSeedInput.setEntity(this);
+		runOutputList.setEntity(this);
 
 		// Set the default unit type for the custom output report
 		ArrayList<Class<? extends Unit>> defList = new ArrayList<>();
@@ -611,16 +651,12 @@ public class Simulation extends Entity {
 
 	public Simulation() {}
 
+	/**
+	 * Returns the Simulation entity for the model that is active on the
+	 * calling thread.
+	 */
 	public static Simulation getInstance() {
-		if (myInstance == null) {
-			for (Entity ent : Entity.getClonesOfIterator(Entity.class)) {
-				if (ent instanceof Simulation) {
-					myInstance = (Simulation)ent;
-					break;
-				}
-			}
-		}
-		return myInstance;
+		return JaamSimModel.getCurrent().getSimulation();
 	}
 
 	@Override
@@ -664,154 +700,141 @@ public class Simulation extends Entity {
 			return;
 		}
 
+		// The remaining inputs only affect the user interface
+		GUIListener gui = getJaamSimModel().getGUIListener();
+		if (gui == null)
+			return;
+
 		if (in == snapToGrid) {
-			if (GUIFrame.getInstance() != null)
-				GUIFrame.getInstance().updateForSnapToGrid();
+			gui.updateForSnapToGrid();
 			return;
 		}
 
 		if (in == showModelBuilder) {
-			if (GUIFrame.getInstance() != null)
-				setWindowVisible(EntityPallet.getInstance(), showModelBuilder.getValue());
+			gui.showTool(GUIListener.Tool.MODEL_BUILDER, showModelBuilder.getValue());
 			return;
 		}
 
 		if (in == showObjectSelector) {
-			if (GUIFrame.getInstance() != null)
-				setWindowVisible(ObjectSelector.getInstance(), showObjectSelector.getValue());
+			gui.showTool(GUIListener.Tool.OBJECT_SELECTOR, showObjectSelector.getValue());
 			return;
 		}
 
 		if (in == showInputEditor) {
-			if (GUIFrame.getInstance() != null)
-				setWindowVisible(EditBox.getInstance(), showInputEditor.getValue());
-			FrameBox.reSelectEntity();
+			gui.showTool(GUIListener.Tool.INPUT_EDITOR, showInputEditor.getValue());
+			gui.updateAll();
 			return;
 		}
 
 		if (in == showOutputViewer) {
-			if (GUIFrame.getInstance() != null)
-				setWindowVisible(OutputBox.getInstance(), showOutputViewer.getValue());
-			FrameBox.reSelectEntity();
+			gui.showTool(GUIListener.Tool.OUTPUT_VIEWER, showOutputViewer.getValue());
+			gui.updateAll();
 			return;
 		}
 
 		if (in == showPropertyViewer) {
-			if (GUIFrame.getInstance() != null)
-				setWindowVisible(PropertyBox.getInstance(), showPropertyViewer.getValue());
-			FrameBox.reSelectEntity();
+			gui.showTool(GUIListener.Tool.PROPERTY_VIEWER, showPropertyViewer.getValue());
+			gui.updateAll();
 			return;
 		}
 
 		if (in == showLogViewer) {
-			if (GUIFrame.getInstance() != null)
-				setWindowVisible(LogBox.getInstance(), showLogViewer.getValue());
-			FrameBox.reSelectEntity();
+			gui.showTool(GUIListener.Tool.LOG_VIEWER, showLogViewer.getValue());
+			gui.updateAll();
 			return;
 		}
 
 		if (in == showEventViewer) {
-			if (GUIFrame.getInstance() != null) {
-				if (showEventViewer.getValue())
-					setWindowVisible(EventViewer.getInstance(), true);
-				else if (EventViewer.hasInstance())
-					EventViewer.getInstance().dispose();
-			}
+			gui.showTool(GUIListener.Tool.EVENT_VIEWER, showEventViewer.getValue());
 			return;
 		}
 
 		if (in == modelBuilderPos) {
 			IntegerVector pos = modelBuilderPos.getValue();
-			EntityPallet.getInstance().setLocation(pos.get(0), pos.get(1));
+			gui.setToolLocation(GUIListener.Tool.MODEL_BUILDER, pos.get(0), pos.get(1));
 			return;
 		}
 
 		if (in == modelBuilderSize) {
 			IntegerVector size = modelBuilderSize.getValue();
-			EntityPallet.getInstance().setSize(size.get(0), size.get(1));
+			gui.setToolSize(GUIListener.Tool.MODEL_BUILDER, size.get(0), size.get(1));
 			return;
 		}
 
 		if (in == objectSelectorPos) {
 			IntegerVector pos = objectSelectorPos.getValue();
-			ObjectSelector.getInstance().setLocation(pos.get(0), pos.get(1));
+			gui.setToolLocation(GUIListener.Tool.OBJECT_SELECTOR, pos.get(0), pos.get(1));
 			return;
 		}
 
 		if (in == objectSelectorSize) {
 			IntegerVector size = objectSelectorSize.getValue();
-			ObjectSelector.getInstance().setSize(size.get(0), size.get(1));
+			gui.setToolSize(GUIListener.Tool.OBJECT_SELECTOR, size.get(0), size.get(1));
 			return;
 		}
 
 		if (in == inputEditorPos) {
 			IntegerVector pos = inputEditorPos.getValue();
-			EditBox.getInstance().setLocation(pos.get(0), pos.get(1));
+			gui.setToolLocation(GUIListener.Tool.INPUT_EDITOR, pos.get(0), pos.get(1));
 			return;
 		}
 
 		if (in == inputEditorSize) {
 			IntegerVector size = inputEditorSize.getValue();
-			EditBox.getInstance().setSize(size.get(0), size.get(1));
+			gui.setToolSize(GUIListener.Tool.INPUT_EDITOR, size.get(0), size.get(1));
 			return;
 		}
 
 		if (in == outputViewerPos) {
 			IntegerVector pos = outputViewerPos.getValue();
-			OutputBox.getInstance().setLocation(pos.get(0), pos.get(1));
+			gui.setToolLocation(GUIListener.Tool.OUTPUT_VIEWER, pos.get(0), pos.get(1));
 			return;
 		}
 
 		if (in == outputViewerSize) {
 			IntegerVector size = outputViewerSize.getValue();
-			OutputBox.getInstance().setSize(size.get(0), size.get(1));
+			gui.setToolSize(GUIListener.Tool.OUTPUT_VIEWER, size.get(0), size.get(1));
 			return;
 		}
 
 		if (in == propertyViewerPos) {
 			IntegerVector pos = propertyViewerPos.getValue();
-			PropertyBox.getInstance().setLocation(pos.get(0), pos.get(1));
+			gui.setToolLocation(GUIListener.Tool.PROPERTY_VIEWER, pos.get(0), pos.get(1));
 			return;
 		}
 
 		if (in == propertyViewerSize) {
 			IntegerVector size = propertyViewerSize.getValue();
-			PropertyBox.getInstance().setSize(size.get(0), size.get(1));
+			gui.setToolSize(GUIListener.Tool.PROPERTY_VIEWER, size.get(0), size.get(1));
 			return;
 		}
 
 		if (in == logViewerPos) {
 			IntegerVector pos = logViewerPos.getValue();
-			LogBox.getInstance().setLocation(pos.get(0), pos.get(1));
+			gui.setToolLocation(GUIListener.Tool.LOG_VIEWER, pos.get(0), pos.get(1));
 			return;
 		}
 
 		if (in == logViewerSize) {
 			IntegerVector size = logViewerSize.getValue();
-			LogBox.getInstance().setSize(size.get(0), size.get(1));
+			gui.setToolSize(GUIListener.Tool.LOG_VIEWER, size.get(0), size.get(1));
 			return;
 		}
 
 		if (in == eventViewerPos) {
-			if (EventViewer.hasInstance()) {
-				IntegerVector pos = eventViewerPos.getValue();
-				EventViewer.getInstance().setLocation(pos.get(0), pos.get(1));
-			}
+			IntegerVector pos = eventViewerPos.getValue();
+			gui.setToolLocation(GUIListener.Tool.EVENT_VIEWER, pos.get(0), pos.get(1));
 			return;
 		}
 
 		if (in == eventViewerSize) {
-			if (EventViewer.hasInstance()) {
-				IntegerVector size = eventViewerSize.getValue();
-				EventViewer.getInstance().setSize(size.get(0), size.get(1));
-			}
+			IntegerVector size = eventViewerSize.getValue();
+			gui.setToolSize(GUIListener.Tool.EVENT_VIEWER, size.get(0), size.get(1));
 			return;
 		}
 
 		if (in == controlPanelWidth) {
-			int width = controlPanelWidth.getValue();
-			int height = GUIFrame.getInstance().getSize().height;
-			GUIFrame.getInstance().setSize(width, height);
+			gui.setControlPanelWidth(controlPanelWidth.getValue());
 			return;
 		}
 	}
@@ -834,30 +857,30 @@ public class Simulation extends Entity {
 	 * Clears the Simulation prior to loading a new model
 	 */
 	public static void clear() {
+		Simulation simulation = getInstance();
 
 		// Reset all Simulation inputs to their default values
-		for (Input<?> inp : Simulation.getInstance().getEditableInputs()) {
-			InputAgent.applyArgs(getInstance(), inp.getKeyword());
+		for (Input<?> inp : simulation.getEditableInputs()) {
+			InputAgent.applyArgs(simulation, inp.getKeyword());
 		}
 
 		updateRealTime();
 
 		// Initialize basic model information
-		startTime = 0.0;
-		endTime = 8760.0*3600.0;
-		myInstance = null;
+		simulation.startTime = 0.0;
+		simulation.endTime = 8760.0*3600.0;
+
+		// Reset the run number and run indices
+		Simulation.setRunNumber(1);
 
 		// close warning/error trace file
 		InputAgent.closeLogFile();
 
-		// Kill all entities except simulation
+		// Kill all entities, including the Simulation entity
 		while(Entity.getAll().size() > 0) {
 			Entity ent = Entity.getAll().get(Entity.getAll().size()-1);
 			ent.kill();
 		}
-
-		// Reset the run number and run indices
-		Simulation.setRunNumber(1);
 	}
 
 	/**
@@ -865,8 +888,48 @@ public class Simulation extends Entity {
 	 *		1) Initializes EventManager to accept events.
 	 *		2) calls startModel() to allow the model to add its starting events to EventManager
 	 *		3) start EventManager processing events
+	 * @param evt - EventManager for the run.
+	 * @return false if the model failed validation and was not started.
+	 */
+	public static boolean start(EventManager evt) {
+		Simulation simulation = getInstance();
+		if (!Simulation.initRun(evt))
+			return false;
+
+		simulation.singleRun = false;
+		Simulation.setRunNumber(simulation.startingRunNumber.getValue());
+		Simulation.startRun(evt);
+		return true;
+	}
+
+	/**
+	 * Initializes and starts the model for the specified run number only. The
+	 * model is paused at the end of the run instead of continuing with the
+	 * next run.
+	 * @param evt - EventManager for the run.
+	 * @param n - run number to be executed.
+	 * @return false if the model failed validation and was not started.
+	 */
+	public static boolean startSingleRun(EventManager evt, int n) {
+		Simulation simulation = getInstance();
+		if (!Simulation.initRun(evt))
+			return false;
+
+		simulation.singleRun = true;
+		Simulation.setRunNumber(n);
+		Simulation.startRun(evt);
+		return true;
+	}
+
+	/**
+	 * Validates the model and prepares the EventManager for a run.
+	 * @param evt - EventManager for the run.
+	 * @return false if an input error was found.
 	 */
-	public static void start(EventManager evt) {
+	private static boolean initRun(EventManager evt) {
+		Simulation simulation = getInstance();
+		GUIListener gui = simulation.getJaamSimModel().getGUIListener();
+
 		// Validate each entity based on inputs only
 		for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
 			try {
@@ -874,41 +937,45 @@ public class Simulation extends Entity {
 			}
 			catch (Throwable e) {
 				InputAgent.logMessage("Validation Error - %s: %s", each.getName(), e.getMessage());
-				GUIFrame.showErrorDialog("Input Error",
-						"JaamSim has detected the following input error during validation:",
-						String.format("%s: %-70s", each.getName(), e.getMessage()),
-						"The error must be corrected before the simulation can be started.");
-
-				GUIFrame.updateForSimState(GUIFrame.SIM_STATE_CONFIGURED);
-				return;
+				if (gui != null) {
+					gui.invokeErrorDialogBox("Input Error",
+							"JaamSim has detected the following input error during validation:",
+							String.format("%s: %-70s", each.getName(), e.getMessage()),
+							"The error must be corrected before the simulation can be started.");
+					gui.updateForSimulationState(GUIFrame.SIM_STATE_CONFIGURED);
+				}
+				return false;
 			}
 		}
 
 		InputAgent.prepareReportDirectory();
 		evt.clear();
+		evt.setTimingWheelHorizon(Math.round(simulation.timingWheelHorizon.getValue() / simulation.tickLengthInput.getValue()));
+		evt.setQueueType(simulation.eventQueueType.getValue());
+		evt.setProfiler(simulation.profileEvents.getValue() ? new EventProfiler() : null);
 		evt.setTraceListener(null);
+		Simulation.closeEventRecorder();
 
 		if( Simulation.traceEvents() ) {
 			String evtName = InputAgent.getConfigFile().getParentFile() + File.separator + InputAgent.getRunName() + ".evt";
 			EventRecorder rec = new EventRecorder(evtName);
 			evt.setTraceListener(rec);
+			simulation.recorder = rec;
 		}
 		else if( Simulation.verifyEvents() ) {
 			String evtName = InputAgent.getConfigFile().getParentFile() + File.separator + InputAgent.getRunName() + ".evt";
 			EventTracer trc = new EventTracer(evtName);
 			evt.setTraceListener(trc);
 		}
-		else if (Simulation.showEventViewer.getValue()) {
-			evt.setTraceListener(EventViewer.getInstance());
+		else if (simulation.showEventViewer.getValue() && gui != null) {
+			evt.setTraceListener(gui.getEventViewer());
 		}
 
-		evt.setTickLength(tickLengthInput.getValue());
-
-		startTime = startTimeInput.getValue();
-		endTime = startTime + Simulation.getInitializationTime() + Simulation.getRunDuration();
+		evt.setTickLength(simulation.tickLengthInput.getValue());
 
-		Simulation.setRunNumber(startingRunNumber.getValue());
-		Simulation.startRun(evt);
+		simulation.startTime = simulation.startTimeInput.getValue();
+		simulation.endTime = simulation.startTime + Simulation.getInitializationTime() + Simulation.getRunDuration();
+		return true;
 	}
 
 	/**
@@ -916,6 +983,8 @@ public class Simulation extends Entity {
 	 * @param evt - EventManager for the run.
 	 */
 	private static void startRun(EventManager evt) {
+		if (evt.getProfiler() != null)
+			evt.getProfiler().clear();
 		evt.scheduleProcessExternal(0, 0, false, new InitModelTarget(), null);
 		evt.resume(evt.secondsToNearestTick(Simulation.getPauseTime()));
 	}
@@ -924,6 +993,7 @@ public class Simulation extends Entity {
 	 * Ends a single simulation run and if appropriate restarts the model for the next run.
 	 */
 	public static void endRun() {
+		Simulation simulation = getInstance();
 
 		// Execute the end of run method for each entity
 		for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
@@ -931,14 +1001,20 @@ public class Simulation extends Entity {
 		}
 
 		// Print the output report
-		if (printReport.getValue())
+		if (simulation.printReport.getValue())
 			InputAgent.printReport(EventManager.simSeconds());
 
 		// Print the selected outputs
-		if (runOutputList.getValue() != null) {
+		if (simulation.runOutputList.getValue() != null) {
 			InputAgent.printRunOutputs(EventManager.simSeconds());
 		}
 
+		// A single run stops here so that the caller can decide what to do next
+		if (simulation.singleRun) {
+			EventManager.current().pause();
+			return;
+		}
+
 		// Increment the run number and check for last run
 		if (Simulation.isLastRun()) {
 			Simulation.end();
@@ -947,11 +1023,13 @@ public class Simulation extends Entity {
 
 		// Start the next run
 		final EventManager currentEvt = EventManager.current();
-		Simulation.setRunNumber(runNumber + 1);
+		final JaamSimModel model = JaamSimModel.getCurrent();
+		Simulation.setRunNumber(simulation.runNumber + 1);
 		Simulation.stopRun(currentEvt);
 		new Thread(new Runnable() {
 			@Override
 			public void run() {
+				JaamSimModel.setCurrent(model);
 				Simulation.startRun(currentEvt);
 			}
 		}).start();
@@ -963,12 +1041,15 @@ public class Simulation extends Entity {
 	private static void end() {
 
 		// Close warning/error trace file
-		LogBox.logLine("Made it to do end at");
+		GUIListener gui = getInstance().getJaamSimModel().getGUIListener();
+		if (gui != null)
+			gui.logLine("Made it to do end at");
 		InputAgent.closeLogFile();
+		Simulation.closeEventRecorder();
 
 		// Always terminate the run when in batch mode
-		if (InputAgent.getBatch() || exitAtStop.getValue())
-			GUIFrame.shutdown(0);
+		if (gui != null && (InputAgent.getBatch() || getInstance().exitAtStop.getValue()))
+			gui.exit(0);
 
 		EventManager.current().pause();
 	}
@@ -983,10 +1064,23 @@ public class Simulation extends Entity {
 		Simulation.stopRun(evt);
 
 		// Reset the run number and run indices
-		Simulation.setRunNumber(startingRunNumber.getValue());
+		Simulation.setRunNumber(getInstance().startingRunNumber.getValue());
 
 		// Close the output reports
 		InputAgent.stop();
+		Simulation.closeEventRecorder();
+	}
+
+	/**
+	 * Writes the remaining records to the event trace file and closes it.
+	 */
+	private static void closeEventRecorder() {
+		Simulation simulation = getInstance();
+		if (simulation.recorder == null)
+			return;
+
+		simulation.recorder.close();
+		simulation.recorder = null;
 	}
 
 	/**
@@ -1000,12 +1094,15 @@ public class Simulation extends Entity {
 		evt.clear();
 
 		// Destroy the entities that were generated during the run
-		for (int i = 0; i < Entity.getAll().size();) {
-			Entity ent = Entity.getAll().get(i);
+		ArrayList<Entity> generated = new ArrayList<>();
+		for (Entity ent : Entity.getAll()) {
 			if (ent.testFlag(Entity.FLAG_GENERATED))
+				generated.add(ent);
+		}
+		for (Entity ent : generated) {
+			// An entity can be destroyed along with the one that contains it
+			if (!ent.testFlag(Entity.FLAG_DEAD))
 				ent.kill();
-			else
-				i++;
 		}
 
 		// Re-initialise the model
@@ -1026,27 +1123,31 @@ public class Simulation extends Entity {
 	}
 
 	public static int getSubstreamNumber() {
-		return (int)globalSeedInput.getValue().getNextSample(0.0);
+		// Entities used outside of a loaded model have no Simulation and take the default seed
+		Simulation simulation = getInstance();
+		if (simulation == null)
+			return 0;
+		return (int)simulation.globalSeedInput.getValue().getNextSample(0.0);
 	}
 
 	public static boolean getPrintReport() {
-		return printReport.getValue();
+		return getInstance().printReport.getValue();
 	}
 
 	public static boolean traceEvents() {
-		return traceEventsInput.getValue();
+		return getInstance().traceEventsInput.getValue();
 	}
 
 	public static boolean verifyEvents() {
-		return verifyEventsInput.getValue();
+		return getInstance().verifyEventsInput.getValue();
 	}
 
 	public static double getTickLength() {
-		return tickLengthInput.getValue();
+		return getInstance().tickLengthInput.getValue();
 	}
 
 	public static double getPauseTime() {
-		return pauseTime.getValue();
+		return getInstance().pauseTime.getValue();
 	}
 
 	/**
@@ -1054,7 +1155,7 @@ public class Simulation extends Entity {
 	 * @return - simulation time in seconds for the start of the run.
 	 */
 	public static double getStartTime() {
-		return startTime;
+		return getInstance().startTime;
 	}
 
 	/**
@@ -1062,41 +1163,41 @@ public class Simulation extends Entity {
 	 * @return - simulation time in seconds when the current run will stop.
 	 */
 	public static double getEndTime() {
-		return endTime;
+		return getInstance().endTime;
 	}
 
 	/**
 	 * Returns the duration of the run (not including intialization)
 	 */
 	public static double getRunDuration() {
-		return runDuration.getValue();
+		return getInstance().runDuration.getValue();
 	}
 
 	/**
 	 * Returns the duration of the initialization period
 	 */
 	public static double getInitializationTime() {
-		return initializationTime.getValue();
+		return getInstance().initializationTime.getValue();
 	}
 
 	public static StringProvListInput getRunOutputList() {
-		return runOutputList;
+		return getInstance().runOutputList;
 	}
 
 	public static double getIncrementSize() {
-		return incrementSize.getValue();
+		return getInstance().incrementSize.getValue();
 	}
 
 	public static boolean isSnapToGrid() {
-		return snapToGrid.getValue();
+		return getInstance().snapToGrid.getValue();
 	}
 
 	public static double getSnapGridSpacing() {
-		return snapGridSpacing.getValue();
+		return getInstance().snapGridSpacing.getValue();
 	}
 
 	public static boolean getExitAtPauseCondition() {
-		return exitAtPauseCondition.getValue();
+		return getInstance().exitAtPauseCondition.getValue();
 	}
 
 	public void doPauseCondition() {
@@ -1106,7 +1207,7 @@ public class Simulation extends Entity {
 
 	private final PauseModelTarget pauseModel = new PauseModelTarget();
 
-	static class PauseConditional extends Conditional {
+	class PauseConditional extends Conditional {
 		@Override
 		public boolean evaluate() {
 			if (pauseConditionInput.getValue() == null)
@@ -1126,7 +1227,7 @@ public class Simulation extends Entity {
 	 * @return newest snap grid point.
 	 */
 	public static Vec3d getSnapGridPosition(Vec3d newPos, Vec3d oldPos) {
-		double spacing = snapGridSpacing.getValue();
+		double spacing = getInstance().snapGridSpacing.getValue();
 		Vec3d ret = new Vec3d(newPos);
 		if (Math.abs(newPos.x - oldPos.x) < spacing)
 			ret.x = oldPos.x;
@@ -1143,7 +1244,7 @@ public class Simulation extends Entity {
 	 * @return nearest snap grid point.
 	 */
 	public static Vec3d getSnapGridPosition(Vec3d pos) {
-		double spacing = snapGridSpacing.getValue();
+		double spacing = getInstance().snapGridSpacing.getValue();
 		Vec3d ret = new Vec3d(pos);
 		ret.x = spacing*Math.rint(ret.x/spacing);
 		ret.y = spacing*Math.rint(ret.y/spacing);
@@ -1164,11 +1265,17 @@ public class Simulation extends Entity {
 	}
 
 	static void updateRealTime() {
-		GUIFrame.updateForRealTime(realTime.getValue(), realTimeFactor.getValue());
+		Simulation simulation = getInstance();
+		GUIListener gui = simulation.getJaamSimModel().getGUIListener();
+		if (gui != null)
+			gui.updateForRealTime(simulation.realTime.getValue(), simulation.realTimeFactor.getValue());
 	}
 
 	static void updatePauseTime() {
-		GUIFrame.updateForPauseTime(pauseTime.getValueString());
+		Simulation simulation = getInstance();
+		GUIListener gui = simulation.getJaamSimModel().getGUIListener();
+		if (gui != null)
+			gui.updateForPauseTime(simulation.pauseTime.getValueString());
 	}
 
 	public static void setModelName(String newModelName) {
@@ -1180,238 +1287,238 @@ public class Simulation extends Entity {
 	}
 
 	public static boolean getExitAtStop() {
-		return exitAtStop.getValue();
+		return getInstance().exitAtStop.getValue();
 	}
 
 	public static boolean getPrintInputReport() {
-		return printInputReport.getValue();
+		return getInstance().printInputReport.getValue();
 	}
 
 	public static boolean isRealTime() {
-		return realTime.getValue();
-	}
-
-	public static void setWindowVisible(JFrame f, boolean visible) {
-		f.setVisible(visible);
-		if (visible)
-			f.toFront();
+		return getInstance().realTime.getValue();
 	}
 
 	public static void setWindowDefaults() {
-		modelBuilderPos.setDefaultValue(GUIFrame.COL1_START, GUIFrame.TOP_START);
-		modelBuilderSize.setDefaultValue(GUIFrame.COL1_WIDTH, GUIFrame.HALF_TOP);
-		objectSelectorPos.setDefaultValue(GUIFrame.COL1_START, GUIFrame.BOTTOM_START);
-		objectSelectorSize.setDefaultValue(GUIFrame.COL1_WIDTH, GUIFrame.HALF_BOTTOM);
-		inputEditorPos.setDefaultValue(GUIFrame.COL2_START, GUIFrame.LOWER_START);
-		inputEditorSize.setDefaultValue(GUIFrame.COL2_WIDTH, GUIFrame.LOWER_HEIGHT);
-		outputViewerPos.setDefaultValue(GUIFrame.COL3_START, GUIFrame.LOWER_START);
-		outputViewerSize.setDefaultValue(GUIFrame.COL3_WIDTH, GUIFrame.LOWER_HEIGHT);
-		propertyViewerPos.setDefaultValue(GUIFrame.COL4_START, GUIFrame.TOP_START);
-		propertyViewerSize.setDefaultValue(GUIFrame.COL4_WIDTH, GUIFrame.HALF_TOP);
-		logViewerPos.setDefaultValue(GUIFrame.COL4_START, GUIFrame.BOTTOM_START);
-		logViewerSize.setDefaultValue(GUIFrame.COL4_WIDTH, GUIFrame.HALF_BOTTOM);
-		eventViewerPos.setDefaultValue(GUIFrame.COL4_START, GUIFrame.BOTTOM_START);
-		eventViewerSize.setDefaultValue(GUIFrame.COL4_WIDTH, GUIFrame.HALF_BOTTOM);
-		controlPanelWidth.setDefaultValue(GUIFrame.DEFAULT_GUI_WIDTH);
+		Simulation simulation = getInstance();
+		simulation.modelBuilderPos.setDefaultValue(GUIFrame.COL1_START, GUIFrame.TOP_START);
+		simulation.modelBuilderSize.setDefaultValue(GUIFrame.COL1_WIDTH, GUIFrame.HALF_TOP);
+		simulation.objectSelectorPos.setDefaultValue(GUIFrame.COL1_START, GUIFrame.BOTTOM_START);
+		simulation.objectSelectorSize.setDefaultValue(GUIFrame.COL1_WIDTH, GUIFrame.HALF_BOTTOM);
+		simulation.inputEditorPos.setDefaultValue(GUIFrame.COL2_START, GUIFrame.LOWER_START);
+		simulation.inputEditorSize.setDefaultValue(GUIFrame.COL2_WIDTH, GUIFrame.LOWER_HEIGHT);
+		simulation.outputViewerPos.setDefaultValue(GUIFrame.COL3_START, GUIFrame.LOWER_START);
+		simulation.outputViewerSize.setDefaultValue(GUIFrame.COL3_WIDTH, GUIFrame.LOWER_HEIGHT);
+		simulation.propertyViewerPos.setDefaultValue(GUIFrame.COL4_START, GUIFrame.TOP_START);
+		simulation.propertyViewerSize.setDefaultValue(GUIFrame.COL4_WIDTH, GUIFrame.HALF_TOP);
+		simulation.logViewerPos.setDefaultValue(GUIFrame.COL4_START, GUIFrame.BOTTOM_START);
+		simulation.logViewerSize.setDefaultValue(GUIFrame.COL4_WIDTH, GUIFrame.HALF_BOTTOM);
+		simulation.eventViewerPos.setDefaultValue(GUIFrame.COL4_START, GUIFrame.BOTTOM_START);
+		simulation.eventViewerSize.setDefaultValue(GUIFrame.COL4_WIDTH, GUIFrame.HALF_BOTTOM);
+		simulation.controlPanelWidth.setDefaultValue(GUIFrame.DEFAULT_GUI_WIDTH);
 	}
 
 	public static void resetWindowPositionsAndSizes() {
-		InputAgent.applyArgs(getInstance(), modelBuilderPos.getKeyword());
-		InputAgent.applyArgs(getInstance(), modelBuilderSize.getKeyword());
-		InputAgent.applyArgs(getInstance(), objectSelectorPos.getKeyword());
-		InputAgent.applyArgs(getInstance(), objectSelectorSize.getKeyword());
-		InputAgent.applyArgs(getInstance(), inputEditorPos.getKeyword());
-		InputAgent.applyArgs(getInstance(), inputEditorSize.getKeyword());
-		InputAgent.applyArgs(getInstance(), outputViewerPos.getKeyword());
-		InputAgent.applyArgs(getInstance(), outputViewerSize.getKeyword());
-		InputAgent.applyArgs(getInstance(), propertyViewerPos.getKeyword());
-		InputAgent.applyArgs(getInstance(), propertyViewerSize.getKeyword());
-		InputAgent.applyArgs(getInstance(), logViewerPos.getKeyword());
-		InputAgent.applyArgs(getInstance(), logViewerSize.getKeyword());
-		InputAgent.applyArgs(getInstance(), eventViewerPos.getKeyword());
-		InputAgent.applyArgs(getInstance(), eventViewerSize.getKeyword());
-		InputAgent.applyArgs(getInstance(), controlPanelWidth.getKeyword());
+		Simulation simulation = getInstance();
+		InputAgent.applyArgs(simulation, simulation.modelBuilderPos.getKeyword());
+		InputAgent.applyArgs(simulation, simulation.modelBuilderSize.getKeyword());
+		InputAgent.applyArgs(simulation, simulation.objectSelectorPos.getKeyword());
+		InputAgent.applyArgs(simulation, simulation.objectSelectorSize.getKeyword());
+		InputAgent.applyArgs(simulation, simulation.inputEditorPos.getKeyword());
+		InputAgent.applyArgs(simulation, simulation.inputEditorSize.getKeyword());
+		InputAgent.applyArgs(simulation, simulation.outputViewerPos.getKeyword());
+		InputAgent.applyArgs(simulation, simulation.outputViewerSize.getKeyword());
+		InputAgent.applyArgs(simulation, simulation.propertyViewerPos.getKeyword());
+		InputAgent.applyArgs(simulation, simulation.propertyViewerSize.getKeyword());
+		InputAgent.applyArgs(simulation, simulation.logViewerPos.getKeyword());
+		InputAgent.applyArgs(simulation, simulation.logViewerSize.getKeyword());
+		InputAgent.applyArgs(simulation, simulation.eventViewerPos.getKeyword());
+		InputAgent.applyArgs(simulation, simulation.eventViewerSize.getKeyword());
+		InputAgent.applyArgs(simulation, simulation.controlPanelWidth.getKeyword());
 	}
 
 	public static IntegerVector getModelBuilderPos() {
-		return modelBuilderPos.getValue();
+		return getInstance().modelBuilderPos.getValue();
 	}
 
 	public static IntegerVector getModelBuilderSize() {
-		return modelBuilderSize.getValue();
+		return getInstance().modelBuilderSize.getValue();
 	}
 
 	public static IntegerVector getObjectSelectorPos() {
-		return objectSelectorPos.getValue();
+		return getInstance().objectSelectorPos.getValue();
 	}
 
 	public static IntegerVector getObjectSelectorSize() {
-		return objectSelectorSize.getValue();
+		return getInstance().objectSelectorSize.getValue();
 	}
 
 	public static IntegerVector getInputEditorPos() {
-		return inputEditorPos.getValue();
+		return getInstance().inputEditorPos.getValue();
 	}
 
 	public static IntegerVector getInputEditorSize() {
-		return inputEditorSize.getValue();
+		return getInstance().inputEditorSize.getValue();
 	}
 
 	public static IntegerVector getOutputViewerPos() {
-		return outputViewerPos.getValue();
+		return getInstance().outputViewerPos.getValue();
 	}
 
 	public static IntegerVector getOutputViewerSize() {
-		return outputViewerSize.getValue();
+		return getInstance().outputViewerSize.getValue();
 	}
 
 	public static IntegerVector getPropertyViewerPos() {
-		return propertyViewerPos.getValue();
+		return getInstance().propertyViewerPos.getValue();
 	}
 
 	public static IntegerVector getPropertyViewerSize() {
-		return propertyViewerSize.getValue();
+		return getInstance().propertyViewerSize.getValue();
 	}
 
 	public static IntegerVector getLogViewerPos() {
-		return logViewerPos.getValue();
+		return getInstance().logViewerPos.getValue();
 	}
 
 	public static IntegerVector getLogViewerSize() {
-		return logViewerSize.getValue();
+		return getInstance().logViewerSize.getValue();
 	}
 
 	public static IntegerVector getEventViewerPos() {
-		return eventViewerPos.getValue();
+		return getInstance().eventViewerPos.getValue();
 	}
 
 	public static IntegerVector getEventViewerSize() {
-		return eventViewerSize.getValue();
+		return getInstance().eventViewerSize.getValue();
 	}
 
 	public static void setModelBuilderPos(int x, int y) {
-		if (modelBuilderPos.getValue().get(0) == x && modelBuilderPos.getValue().get(1) == y)
+		Simulation simulation = getInstance();
+		if (simulation.modelBuilderPos.getValue().get(0) == x && simulation.modelBuilderPos.getValue().get(1) == y)
 			return;
-		InputAgent.applyIntegers(getInstance(), modelBuilderPos.getKeyword(), x, y);
+		InputAgent.applyIntegers(simulation, simulation.modelBuilderPos.getKeyword(), x, y);
 	}
 
 	public static void setModelBuilderSize(int x, int y) {
-		if (modelBuilderSize.getValue().get(0) == x && modelBuilderSize.getValue().get(1) == y)
+		Simulation simulation = getInstance();
+		if (simulation.modelBuilderSize.getValue().get(0) == x && simulation.modelBuilderSize.getValue().get(1) == y)
 			return;
-		InputAgent.applyIntegers(getInstance(), modelBuilderSize.getKeyword(), x, y);
+		InputAgent.applyIntegers(simulation, simulation.modelBuilderSize.getKeyword(), x, y);
 	}
 
 	public static void setObjectSelectorPos(int x, int y) {
-		if (objectSelectorPos.getValue().get(0) == x && objectSelectorPos.getValue().get(1) == y)
+		Simulation simulation = getInstance();
+		if (simulation.objectSelectorPos.getValue().get(0) == x && simulation.objectSelectorPos.getValue().get(1) == y)
 			return;
-		InputAgent.applyIntegers(getInstance(), objectSelectorPos.getKeyword(), x, y);
+		InputAgent.applyIntegers(simulation, simulation.objectSelectorPos.getKeyword(), x, y);
 	}
 
 	public static void setObjectSelectorSize(int x, int y) {
-		if (objectSelectorSize.getValue().get(0) == x && objectSelectorSize.getValue().get(1) == y)
+		Simulation simulation = getInstance();
+		if (simulation.objectSelectorSize.getValue().get(0) == x && simulation.objectSelectorSize.getValue().get(1) == y)
 			return;
-		InputAgent.applyIntegers(getInstance(), objectSelectorSize.getKeyword(), x, y);
+		InputAgent.applyIntegers(simulation, simulation.objectSelectorSize.getKeyword(), x, y);
 	}
 
 	public static void setInputEditorPos(int x, int y) {
-		if (inputEditorPos.getValue().get(0) == x && inputEditorPos.getValue().get(1) == y)
+		Simulation simulation = getInstance();
+		if (simulation.inputEditorPos.getValue().get(0) == x && simulation.inputEditorPos.getValue().get(1) == y)
 			return;
-		InputAgent.applyIntegers(getInstance(), inputEditorPos.getKeyword(), x, y);
+		InputAgent.applyIntegers(simulation, simulation.inputEditorPos.getKeyword(), x, y);
 	}
 
 	public static void setInputEditorSize(int x, int y) {
-		if (inputEditorSize.getValue().get(0) == x && inputEditorSize.getValue().get(1) == y)
+		Simulation simulation = getInstance();
+		if (simulation.inputEditorSize.getValue().get(0) == x && simulation.inputEditorSize.getValue().get(1) == y)
 			return;
-		InputAgent.applyIntegers(getInstance(), inputEditorSize.getKeyword(), x, y);
+		InputAgent.applyIntegers(simulation, simulation.inputEditorSize.getKeyword(), x, y);
 	}
 
 	public static void setOutputViewerPos(int x, int y) {
-		if (outputViewerPos.getValue().get(0) == x && outputViewerPos.getValue().get(1) == y)
+		Simulation simulation = getInstance();
+		if (simulation.outputViewerPos.getValue().get(0) == x && simulation.outputViewerPos.getValue().get(1) == y)
 			return;
-		InputAgent.applyIntegers(getInstance(), outputViewerPos.getKeyword(), x, y);
+		InputAgent.applyIntegers(simulation, simulation.outputViewerPos.getKeyword(), x, y);
 	}
 
 	public static void setOutputViewerSize(int x, int y) {
-		if (outputViewerSize.getValue().get(0) == x && outputViewerSize.getValue().get(1) == y)
+		Simulation simulation = getInstance();
+		if (simulation.outputViewerSize.getValue().get(0) == x && simulation.outputViewerSize.getValue().get(1) == y)
 			return;
-		InputAgent.applyIntegers(getInstance(), outputViewerSize.getKeyword(), x, y);
+		InputAgent.applyIntegers(simulation, simulation.outputViewerSize.getKeyword(), x, y);
 	}
 
 	public static void setPropertyViewerPos(int x, int y) {
-		if (propertyViewerPos.getValue().get(0) == x && propertyViewerPos.getValue().get(1) == y)
+		Simulation simulation = getInstance();
+		if (simulation.propertyViewerPos.getValue().get(0) == x && simulation.propertyViewerPos.getValue().get(1) == y)
 			return;
-		InputAgent.applyIntegers(getInstance(), propertyViewerPos.getKeyword(), x, y);
+		InputAgent.applyIntegers(simulation, simulation.propertyViewerPos.getKeyword(), x, y);
 	}
 
 	public static void setPropertyViewerSize(int x, int y) {
-		if (propertyViewerSize.getValue().get(0) == x && propertyViewerSize.getValue().get(1) == y)
+		Simulation simulation = getInstance();
+		if (simulation.propertyViewerSize.getValue().get(0) == x && simulation.propertyViewerSize.getValue().get(1) == y)
 			return;
-		InputAgent.applyIntegers(getInstance(), propertyViewerSize.getKeyword(), x, y);
+		InputAgent.applyIntegers(simulation, simulation.propertyViewerSize.getKeyword(), x, y);
 	}
 
 	public static void setLogViewerPos(int x, int y) {
-		if (logViewerPos.getValue().get(0) == x && logViewerPos.getValue().get(1) == y)
+		Simulation simulation = getInstance();
+		if (simulation.logViewerPos.getValue().get(0) == x && simulation.logViewerPos.getValue().get(1) == y)
 			return;
-		InputAgent.applyIntegers(getInstance(), logViewerPos.getKeyword(), x, y);
+		InputAgent.applyIntegers(simulation, simulation.logViewerPos.getKeyword(), x, y);
 	}
 
 	public static void setLogViewerSize(int x, int y) {
-		if (logViewerSize.getValue().get(0) == x && logViewerSize.getValue().get(1) == y)
+		Simulation simulation = getInstance();
+		if (simulation.logViewerSize.getValue().get(0) == x && simulation.logViewerSize.getValue().get(1) == y)
 			return;
-		InputAgent.applyIntegers(getInstance(), logViewerSize.getKeyword(), x, y);
+		InputAgent.applyIntegers(simulation, simulation.logViewerSize.getKeyword(), x, y);
 	}
 
 	public static void setEventViewerPos(int x, int y) {
-		if (eventViewerPos.getValue().get(0) == x && eventViewerPos.getValue().get(1) == y)
+		Simulation simulation = getInstance();
+		if (simulation.eventViewerPos.getValue().get(0) == x && simulation.eventViewerPos.getValue().get(1) == y)
 			return;
-		InputAgent.applyIntegers(getInstance(), eventViewerPos.getKeyword(), x, y);
+		InputAgent.applyIntegers(simulation, simulation.eventViewerPos.getKeyword(), x, y);
 	}
 
 	public static void setEventViewerSize(int x, int y) {
-		if (eventViewerSize.getValue().get(0) == x && eventViewerSize.getValue().get(1) == y)
+		Simulation simulation = getInstance();
+		if (simulation.eventViewerSize.getValue().get(0) == x && simulation.eventViewerSize.getValue().get(1) == y)
 			return;
-		InputAgent.applyIntegers(getInstance(), eventViewerSize.getKeyword(), x, y);
+		InputAgent.applyIntegers(simulation, simulation.eventViewerSize.getKeyword(), x, y);
 	}
 
 	public static void setControlPanelWidth(int width) {
-		if (controlPanelWidth.getValue() == width)
+		Simulation simulation = getInstance();
+		if (simulation.controlPanelWidth.getValue() == width)
 			return;
-		InputAgent.applyIntegers(getInstance(), controlPanelWidth.getKeyword(), width);
+		InputAgent.applyIntegers(simulation, simulation.controlPanelWidth.getKeyword(), width);
 	}
 
 	/**
 	 * Re-open any Tools windows that have been closed temporarily.
 	 */
 	public static void showActiveTools() {
-		setWindowVisible(EntityPallet.getInstance(), showModelBuilder.getValue());
-		setWindowVisible(ObjectSelector.getInstance(), showObjectSelector.getValue());
-		setWindowVisible(EditBox.getInstance(), showInputEditor.getValue());
-		setWindowVisible(OutputBox.getInstance(), showOutputViewer.getValue());
-		setWindowVisible(PropertyBox.getInstance(), showPropertyViewer.getValue());
-		setWindowVisible(LogBox.getInstance(), showLogViewer.getValue());
-		if (EventViewer.hasInstance())
-			setWindowVisible(EventViewer.getInstance(), showEventViewer.getValue());
-	}
-
-	/**
-	 * Closes all the Tools windows temporarily.
-	 */
-	public static void closeAllTools() {
-		if (GUIFrame.getInstance() == null)
+		Simulation simulation = getInstance();
+		GUIListener gui = simulation.getJaamSimModel().getGUIListener();
+		if (gui == null)
 			return;
-		setWindowVisible(EntityPallet.getInstance(), false);
-		setWindowVisible(ObjectSelector.getInstance(), false);
-		setWindowVisible(EditBox.getInstance(), false);
-		setWindowVisible(OutputBox.getInstance(), false);
-		setWindowVisible(PropertyBox.getInstance(), false);
-		setWindowVisible(LogBox.getInstance(), false);
-		if (EventViewer.hasInstance())
-			setWindowVisible(EventViewer.getInstance(), false);
+		gui.showTool(GUIListener.Tool.MODEL_BUILDER, simulation.showModelBuilder.getValue());
+		gui.showTool(GUIListener.Tool.OBJECT_SELECTOR, simulation.showObjectSelector.getValue());
+		gui.showTool(GUIListener.Tool.INPUT_EDITOR, simulation.showInputEditor.getValue());
+		gui.showTool(GUIListener.Tool.OUTPUT_VIEWER, simulation.showOutputViewer.getValue());
+		gui.showTool(GUIListener.Tool.PROPERTY_VIEWER, simulation.showPropertyViewer.getValue());
+		gui.showTool(GUIListener.Tool.LOG_VIEWER, simulation.showLogViewer.getValue());
+		if (simulation.showEventViewer.getValue())
+			gui.showTool(GUIListener.Tool.EVENT_VIEWER, true);
 	}
 
 	private static void setRunNumber(int n) {
-		runNumber = n;
-		runIndexList = Simulation.getRunIndexList(n, runIndexDefinitionList.getValue());
+		Simulation simulation = getInstance();
+		simulation.runNumber = n;
+		simulation.runIndexList = Simulation.getRunIndexList(n, simulation.runIndexDefinitionList.getValue());
 	}
 
 	/**
@@ -1462,23 +1569,38 @@ public class Simulation extends Entity {
 	}
 
 	public static String getRunCode() {
-		return Simulation.getRunCode(runIndexList);
+		return Simulation.getRunCode(getInstance().runIndexList);
 	}
 
 	public static String getRunHeader() {
 		return String.format("##### RUN %s #####", Simulation.getRunCode());
 	}
 
+	public static int getStartingRunNumber() {
+		return getInstance().startingRunNumber.getValue();
+	}
+
+	public static int getEndingRunNumber() {
+		return getInstance().endingRunNumber.getValue();
+	}
+
+	public static int getNumberOfThreads() {
+		return getInstance().numberOfThreads.getValue();
+	}
+
 	public static boolean isMultipleRuns() {
-		return endingRunNumber.getValue() > startingRunNumber.getValue();
+		Simulation simulation = getInstance();
+		return simulation.endingRunNumber.getValue() > simulation.startingRunNumber.getValue();
 	}
 
 	public static boolean isFirstRun() {
-		return runNumber == startingRunNumber.getValue();
+		Simulation simulation = getInstance();
+		return simulation.runNumber == simulation.startingRunNumber.getValue();
 	}
 
 	public static boolean isLastRun() {
-		return runNumber >= endingRunNumber.getValue();
+		Simulation simulation = getInstance();
+		return simulation.runNumber >= simulation.endingRunNumber.getValue();
 	}
 
 	@Output(name = "Software Name",
@@ -1564,4 +1686,123 @@ public class Simulation extends Entity {
 		return simTime;
 	}
 
+	/**
+	 * Returns the profiler for the events executed by this model, or null if
+	 * events are not being profiled.
+	 */
+	private EventProfiler getProfiler() {
+		return getJaamSimModel().getEventManager().getProfiler();
+	}
+
+	private static String getProfileKey(Object key) {
+		if (key instanceof Class) {
+			String name = ((Class<?>) key).getName();
+			return name.substring(name.lastIndexOf('.') + 1);
+		}
+		if (key instanceof Entity)
+			return ((Entity) key).getName();
+		return key.toString();
+	}
+
+	private static final int PROFILE_COUNT = 0;
+	private static final int PROFILE_TOTAL = 1;
+	private static final int PROFILE_MAX = 2;
+
+	private LinkedHashMap<String, Double> getProfileMap(boolean byClass, int type) {
+		LinkedHashMap<String, Double> ret = new LinkedHashMap<>();
+		EventProfiler profiler = getProfiler();
+		if (profiler == null)
+			return ret;
+
+		ArrayList<EventProfiler.Stats> list = byClass ? profiler.getClassStats() : profiler.getOwnerStats();
+		for (EventProfiler.Stats each : list) {
+			double val;
+			switch (type) {
+			case PROFILE_COUNT:
+				val = each.getCount();
+				break;
+			case PROFILE_TOTAL:
+				val = each.getTotalNanos() * 1.0e-9d;
+				break;
+			default:
+				val = each.getMaxNanos() * 1.0e-9d;
+			}
+			ret.put(getProfileKey(each.getKey()), val);
+		}
+		return ret;
+	}
+
+	@Output(name = "EventCount",
+	 description = "The number of events executed for each type of event, when ProfileEvents "
+	             + "is TRUE. Event types are listed in order of decreasing EventTime.",
+	    unitType = DimensionlessUnit.class,
+	    sequence = 9)
+	public LinkedHashMap<String, Double> getEventCount(double simTime) {
+		return getProfileMap(true, PROFILE_COUNT);
+	}
+
+	@Output(name = "EventTime",
+	 description = "The total wall clock time spent executing each type of event, when "
+	             + "ProfileEvents is TRUE.",
+	    unitType = TimeUnit.class,
+	    sequence = 10)
+	public LinkedHashMap<String, Double> getEventTime(double simTime) {
+		return getProfileMap(true, PROFILE_TOTAL);
+	}
+
+	@Output(name = "MaxEventTime",
+	 description = "The longest wall clock time spent executing a single event of each type, "
+	             + "when ProfileEvents is TRUE.",
+	    unitType = TimeUnit.class,
+	    sequence = 11)
+	public LinkedHashMap<String, Double> getMaxEventTime(double simTime) {
+		return getProfileMap(true, PROFILE_MAX);
+	}
+
+	@Output(name = "EntityEventCount",
+	 description = "The number of events executed for each entity, when ProfileEvents is TRUE. "
+	             + "Generated entities are grouped by the start of their names. "
+	             + "Entities are listed in order of decreasing EntityEventTime.",
+	    unitType = DimensionlessUnit.class,
+	    sequence = 12)
+	public LinkedHashMap<String, Double> getEntityEventCount(double simTime) {
+		return getProfileMap(false, PROFILE_COUNT);
+	}
+
+	@Output(name = "EntityEventTime",
+	 description = "The total wall clock time spent executing the events for each entity, when "
+	             + "ProfileEvents is TRUE.",
+	    unitType = TimeUnit.class,
+	    sequence = 13)
+	public LinkedHashMap<String, Double> getEntityEventTime(double simTime) {
+		return getProfileMap(false, PROFILE_TOTAL);
+	}
+
+	@Output(name = "EntityMaxEventTime",
+	 description = "The longest wall clock time spent executing a single event for each entity, "
+	             + "when ProfileEvents is TRUE.",
+	    unitType = TimeUnit.class,
+	    sequence = 14)
+	public LinkedHashMap<String, Double> getEntityMaxEventTime(double simTime) {
+		return getProfileMap(false, PROFILE_MAX);
+	}
+
+	@Output(name = "RealTimeLag",
+	 description = "The wall clock time by which the last event started later than its "
+	             + "scheduled time, when the model is executed in real time.",
+	    unitType = TimeUnit.class,
+	    sequence = 15)
+	public double getRealTimeLag(double simTime) {
+		return getJaamSimModel().getEventManager().getRealTimeLag();
+	}
+
+	@Output(name = "MaxRealTimeLag",
+	 description = "The largest wall clock time by which an event started later than its "
+	             + "scheduled time, when the model is executed in real time.",
+	    unitType = TimeUnit.class,
+	    sequence = 16)
+	public double getMaxRealTimeLag(double simTime) {
+		return getJaamSimModel().getEventManager().getMaxRealTimeLag();
+	}
+
 }
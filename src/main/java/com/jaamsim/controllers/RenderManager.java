@@ -370,7 +370,7 @@ public class RenderManager implements DragSourceListener {
 				ArrayList<DisplayModelBinding> selectedBindings = new ArrayList<>();
 
 				// Update all graphical entities in the simulation
-				final ArrayList<? extends Entity> allEnts = Entity.getAll();
+				final List<? extends Entity> allEnts = Entity.getAll();
 				for (int i = 0; i < allEnts.size(); i++) {
 					DisplayEntity de;
 					try {
@@ -1792,7 +1792,7 @@ public class RenderManager implements DragSourceListener {
 	}
 
 	private void addLinkDisplays(ArrayList<RenderProxy> scene) {
-		ArrayList<? extends Entity> allEnts = Entity.getAll();
+		List<? extends Entity> allEnts = Entity.getAll();
 
 		for (int i = 0; i < allEnts.size(); i++) {
 			try {
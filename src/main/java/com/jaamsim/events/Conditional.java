@@ -18,4 +18,27 @@ package com.jaamsim.events;
 
 public abstract class Conditional {
 	public abstract boolean evaluate();
+
+	/**
+	 * Returns the objects whose changes can alter the value returned by evaluate().
+	 * A conditional that declares its dependencies is evaluated once when it is
+	 * scheduled and then only after one of the objects has been passed to
+	 * EventManager.markChanged(). A conditional that returns null or an empty
+	 * array is evaluated before every advance of simulation time.
+	 * @return the objects this conditional depends on, or null
+	 */
+	public Object[] getDependencies() {
+		return null;
+	}
+
+	/**
+	 * Returns true if evaluate() only reads the model state, allowing it to be
+	 * called on a worker thread at the same time as other side-effect-free
+	 * conditionals. Such a conditional may use the simulation time, but must
+	 * not sample a distribution, schedule an event, or change any object.
+	 * @return true if evaluate() has no side-effects
+	 */
+	public boolean isSideEffectFree() {
+		return false;
+	}
 }
@@ -18,10 +18,18 @@ package com.jaamsim.events;
 
 final class ConditionalEvent extends BaseEvent {
 	Conditional c;
+	Object[] deps;  // objects that trigger evaluation when changed, null if evaluated on every time advance
+	int[] depPos;   // position in the EventManager's list for each dependency, -1 for a repeated dependency
+	long seqNum;    // order in which the conditional events were created
+	boolean dirty;  // TRUE if a dependency has changed since the last evaluation
+	boolean sideEffectFree; // TRUE if the conditional can be evaluated in parallel
+	ConditionalEvent next; // next entry in the EventManager's list of free conditional events
 
-	ConditionalEvent(Conditional c, ProcessTarget t, EventHandle hand) {
-		this.target = t;
-		this.handle = hand;
-		this.c = c;
-	}
+	// Result of a parallel evaluation, used if no conditional with side-effects
+	// was evaluated before this one
+	boolean preEvaluated; // TRUE if the conditional was evaluated in parallel
+	boolean preValue;     // value returned by the parallel evaluation
+	Throwable preError;   // error thrown by the parallel evaluation, or null
+
+	ConditionalEvent() {}
 }
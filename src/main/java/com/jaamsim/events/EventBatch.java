@@ -0,0 +1,93 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.Arrays;
+
+/**
+ * A list of events to be scheduled together by EventManager.scheduleBatch().
+ * The events must be added in order of increasing delay and then priority,
+ * which allows the event queue to be updated in a single pass. Events with
+ * the same delay and priority are executed in the order they were added.
+ */
+public final class EventBatch {
+	long[] delays;
+	int[] priorities;
+	ProcessTarget[] targets;
+	int count;
+
+	public EventBatch() {
+		this(16);
+	}
+
+	/**
+	 * Creates an empty batch with room for the given number of events.
+	 */
+	public EventBatch(int capacity) {
+		int size = Math.max(capacity, 1);
+		delays = new long[size];
+		priorities = new int[size];
+		targets = new ProcessTarget[size];
+	}
+
+	/**
+	 * Adds an event to the end of the batch.
+	 * @param delay - number of ticks after the present time
+	 * @param priority - priority of the event
+	 * @param t - process target to run when the event is executed
+	 * @throws ProcessError if the delay is negative, or the event is before
+	 *                      the last event in the batch
+	 */
+	public void add(long delay, int priority, ProcessTarget t) {
+		if (delay < 0)
+			throw new ProcessError("Negative duration wait is invalid, waitLength = " + delay);
+
+		if (count > 0) {
+			long lastDelay = delays[count - 1];
+			if (delay < lastDelay || (delay == lastDelay && priority < priorities[count - 1]))
+				throw new ProcessError(String.format("Batch event at delay %d and priority %d is before the previous event",
+						delay, priority));
+		}
+
+		if (count == delays.length) {
+			int size = count * 2;
+			delays = Arrays.copyOf(delays, size);
+			priorities = Arrays.copyOf(priorities, size);
+			targets = Arrays.copyOf(targets, size);
+		}
+
+		delays[count] = delay;
+		priorities[count] = priority;
+		targets[count] = t;
+		count++;
+	}
+
+	/**
+	 * Returns the number of events in the batch.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Removes all the events from the batch so that it can be reused.
+	 */
+	public void clear() {
+		Arrays.fill(targets, 0, count, null);
+		count = 0;
+	}
+}
@@ -18,7 +18,14 @@
 package com.jaamsim.events;
 
 import java.util.ArrayList;
-
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.LockSupport;
+
+import com.jaamsim.basicsim.JaamSimModel;
 import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.ui.EventData;
 
@@ -45,12 +52,23 @@ public final class EventManager {
 
 	private final Object lockObject; // Object used as global lock for synchronization
 
-	private final EventTree eventTree;
+	private EventQueue eventTree;
 
 	private volatile boolean executeEvents;
 	private boolean processRunning;
+	private boolean directHandoff; // TRUE if waiting Processes hand control directly to each other
+
+	private final ArrayList<ConditionalEvent> condEvents; // conditionals evaluated before every time advance
+	private final IdentityHashMap<Object, ArrayList<ConditionalEvent>> condDependents; // change-driven conditionals for each dependency
+	private ArrayList<ConditionalEvent> dirtyConds; // change-driven conditionals to evaluate at the next check, can hold removed entries
+	private ArrayList<ConditionalEvent> evalConds;  // change-driven conditionals being evaluated
+	private long condSeqNum;
+	private boolean parallelConds; // TRUE if side-effect-free conditionals are evaluated in parallel
+	private final ArrayList<ConditionalEvent> parallelBatch = new ArrayList<>(); // conditionals evaluated in parallel
 
-	private final ArrayList<ConditionalEvent> condEvents;
+	private static final int PARALLEL_MIN_CONDITIONALS = 64; // fewest conditionals worth evaluating in parallel
+	private static final int PARALLEL_GRAIN = 16; // conditionals evaluated by each parallel task
+	private static ForkJoinPool condPool; // shared by all EventManagers, created when first needed
 
 	private long currentTick; // Master simulation time (long)
 	private long nextTick; // The next tick to execute events at
@@ -62,8 +80,10 @@ public final class EventManager {
 	private double secsPerTick;    // The length of time in seconds each tick represents
 
 	// Real time execution state
-	private long realTimeTick;    // the simulation tick corresponding to the wall-clock millis value
-	private long realTimeMillis;  // the wall-clock time in millis
+	private long realTimeTick;    // the simulation tick corresponding to the wall-clock nanos value
+	private long realTimeNanos;   // the wall-clock time in nanos from System.nanoTime()
+	private volatile long lastLagNanos;   // wall-clock lag of the last event executed in real time
+	private volatile long maxLagNanos;    // largest wall-clock lag since the run was started
 
 	private volatile boolean executeRealTime;  // TRUE if the simulation is to be executed in Real Time mode
 	private volatile boolean rebaseRealTime;   // TRUE if the time keeping for Real Time model needs re-basing
@@ -72,6 +92,11 @@ public final class EventManager {
 	private EventTimeListener timelistener;
 	private EventErrorListener errListener;
 	private EventTraceListener trcListener;
+	private EventProfiler profiler;
+	private long wheelHorizon = DEFAULT_WHEEL_HORIZON;
+	private static final long DEFAULT_WHEEL_HORIZON = 1L << 24;
+
+	private JaamSimModel simModel; // model whose entities are driven by this EventManager
 
 	/**
 	 * Allocates a new EventManager with the given parent and name
@@ -94,6 +119,9 @@ public final class EventManager {
 
 		eventTree = new EventTree();
 		condEvents = new ArrayList<>();
+		condDependents = new IdentityHashMap<>();
+		dirtyConds = new ArrayList<>();
+		evalConds = new ArrayList<>();
 
 		executeEvents = false;
 		processRunning = false;
@@ -130,6 +158,41 @@ public final class EventManager {
 		}
 	}
 
+	/**
+	 * Sets the profiler that records the execution time for each event, or
+	 * null if events are not to be profiled.
+	 */
+	public final void setProfiler(EventProfiler p) {
+		synchronized (lockObject) {
+			profiler = p;
+		}
+	}
+
+	public final EventProfiler getProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * Starts timing a new segment of execution for the profiler, if any.
+	 * Must hold the lockObject when calling this method.
+	 * @param t - target being executed, or null if none
+	 * @param start - true if this is a new event
+	 */
+	private void profile(ProcessTarget t, boolean start) {
+		if (profiler != null)
+			profiler.switchTo(t, start);
+	}
+
+	/**
+	 * Returns the target for the segment being timed by the profiler.
+	 * Must hold the lockObject when calling this method.
+	 */
+	private ProcessTarget profiledTarget() {
+		if (profiler == null)
+			return null;
+		return profiler.getTarget();
+	}
+
 	public void clear() {
 		synchronized (lockObject) {
 			currentTick = 0;
@@ -137,18 +200,25 @@ public final class EventManager {
 			targetTick = Long.MAX_VALUE;
 			timelistener.tickUpdate(currentTick);
 			rebaseRealTime = true;
+			lastLagNanos = 0;
+			maxLagNanos = 0;
 
 			eventTree.runOnAllNodes(new KillAllEvents());
 			eventTree.reset();
 			clearFreeList();
 
-			for (int i = 0; i < condEvents.size(); i++) {
-				condEvents.get(i).target.kill();
-				if (condEvents.get(i).handle != null) {
-					condEvents.get(i).handle.event = null;
+			for (ConditionalEvent cond : getAllConditionals()) {
+				cond.target.kill();
+				if (cond.handle != null) {
+					cond.handle.event = null;
 				}
+				cond.deps = null;
+				cond.dirty = false;
 			}
 			condEvents.clear();
+			condDependents.clear();
+			dirtyConds.clear();
+			condSeqNum = 0;
 		}
 	}
 
@@ -170,6 +240,8 @@ public final class EventManager {
 
 	private boolean executeTarget(Process cur, ProcessTarget t) {
 		try {
+			profile(t, true);
+
 			// If the event has a captured process, pass control to it
 			Process p = t.getProcess();
 			if (p != null) {
@@ -180,7 +252,10 @@ public final class EventManager {
 			}
 
 			// Execute the method
+			cur.setStartTarget(t);
 			t.process();
+			cur.setStartTarget(null);
+			profile(null, false);
 
 			// Notify the event manager that the process has been completed
 			if (trcListener != null) {
@@ -197,6 +272,9 @@ public final class EventManager {
 			}
 		}
 		catch (Throwable e) {
+			cur.setStartTarget(null);
+			profile(null, false);
+
 			// This is how kill() is implemented for sleeping processes.
 			if (e instanceof ThreadKilledException)
 				return false;
@@ -234,90 +312,127 @@ public final class EventManager {
 
 			// Loop continuously
 			while (true) {
-				EventNode nextNode = eventTree.getNextNode();
-				if (nextNode == null ||
-				    currentTick >= targetTick) {
-					executeEvents = false;
-				}
-
-				if (!executeEvents) {
+				EventNode nextNode = getNextEventNode(cur, true);
+				if (nextNode == null) {
 					processRunning = false;
 					timelistener.timeRunning(false);
 					return;
 				}
 
-				// If the next event is at the current tick, execute it
-				if (nextNode.schedTick == currentTick) {
-					// Remove the event from the future events
-					Event nextEvent = nextNode.head;
-					ProcessTarget nextTarget = nextEvent.target;
-					if (trcListener != null) {
-						cur.beginCallbacks();
-						trcListener.traceEvent(this, currentTick, nextNode.schedTick, nextNode.priority, nextTarget);
-						cur.endCallbacks();
-					}
+				// Remove the event from the future events
+				ProcessTarget nextTarget = popEvent(cur, nextNode);
 
-					removeEvent(nextEvent);
-
-					// the return from execute target informs whether or not this
-					// thread should grab an new Event, or return to the pool
-					boolean bool = executeTarget(cur, nextTarget);
-					if (oneEvent) {
-						oneEvent = false;
-						executeEvents = false;
-					}
-					if (bool)
-						continue;
-					else
-						return;
+				// the return from execute target informs whether or not this
+				// thread should grab an new Event, or return to the pool
+				boolean bool = executeTarget(cur, nextTarget);
+				if (oneEvent) {
+					oneEvent = false;
+					executeEvents = false;
 				}
+				if (bool)
+					continue;
+				else
+					return;
+			}
+		}
+	}
 
-				// If the next event would require us to advance the time, check the
-				// conditonal events
-				if (eventTree.getNextNode().schedTick > nextTick) {
-					if (condEvents.size() > 0) {
-						evaluateConditions(cur);
-						if (!executeEvents) continue;
-					}
+	/**
+	 * Advances the simulation time until there is an event to execute at the
+	 * current tick, evaluating conditional events each time the clock is about
+	 * to move. Must hold the lockObject when calling this method.
+	 * @param cur - the Process doing the evaluation
+	 * @param realTimeWait - if false, return null instead of waiting for the
+	 *                       wall clock during real-time execution
+	 * @return the node holding the next event, or null if event execution should stop
+	 */
+	private EventNode getNextEventNode(Process cur, boolean realTimeWait) {
+		while (true) {
+			EventNode nextNode = eventTree.getNextNode();
+			if (nextNode == null ||
+			    currentTick >= targetTick) {
+				executeEvents = false;
+			}
+
+			if (!executeEvents)
+				return null;
 
-					// If a conditional event was satisfied, we will have a new event at the
-					// beginning of the eventStack for the current tick, go back to the
-					// beginning, otherwise fall through to the time-advance
-					nextTick = eventTree.getNextNode().schedTick;
-					if (nextTick == currentTick)
-						continue;
+			// If the next event is at the current tick, execute it
+			if (nextNode.schedTick == currentTick)
+				return nextNode;
+
+			// If the next event would require us to advance the time, check the
+			// conditonal events
+			if (eventTree.getNextNode().schedTick > nextTick) {
+				if (condEvents.size() > 0 || dirtyConds.size() > 0) {
+					evaluateConditions(cur);
+					if (!executeEvents) continue;
 				}
 
-				// Advance to the next event time
-				if (executeRealTime) {
-					// Loop until the next event time is reached
-					long realTick = this.calcRealTimeTick();
-					if (realTick < nextTick && realTick < targetTick) {
-						// Update the displayed simulation time
+				// If a conditional event was satisfied, we will have a new event at the
+				// beginning of the eventStack for the current tick, go back to the
+				// beginning, otherwise fall through to the time-advance
+				nextTick = eventTree.getNextNode().schedTick;
+				if (nextTick == currentTick)
+					continue;
+			}
+
+			// Advance to the next event time
+			if (executeRealTime) {
+				// Wait until the wall clock reaches the time of the next event
+				long now = System.nanoTime();
+				long deadline = calcRealTimeNanos(Math.min(nextTick, targetTick), now);
+				if (now < deadline) {
+					if (!realTimeWait)
+						return null;
+
+					// Update the displayed simulation time
+					long realTick = calcRealTimeTick(now);
+					if (realTick > currentTick && realTick < nextTick) {
 						currentTick = realTick;
 						timelistener.tickUpdate(currentTick);
-						//Halt the thread for 20ms and then reevaluate the loop
-						try { lockObject.wait(20); } catch( InterruptedException e ) {}
-						continue;
 					}
+					waitRealTime(deadline - now);
+					continue;
 				}
 
-				// advance time
-				if (targetTick < nextTick)
-					currentTick = targetTick;
-				else
-					currentTick = nextTick;
+				lastLagNanos = now - deadline;
+				if (lastLagNanos > maxLagNanos)
+					maxLagNanos = lastLagNanos;
+			}
 
-				timelistener.tickUpdate(currentTick);
+			// advance time
+			if (targetTick < nextTick)
+				currentTick = targetTick;
+			else
+				currentTick = nextTick;
 
-				if (oneSimTime) {
-					executeEvents = false;
-					oneSimTime = false;
-				}
+			timelistener.tickUpdate(currentTick);
+
+			if (oneSimTime) {
+				executeEvents = false;
+				oneSimTime = false;
 			}
 		}
 	}
 
+	/**
+	 * Removes the first event from the given node and returns its target.
+	 * Must hold the lockObject when calling this method.
+	 */
+	private ProcessTarget popEvent(Process cur, EventNode node) {
+		Event nextEvent = node.head;
+		ProcessTarget nextTarget = nextEvent.target;
+		if (trcListener != null) {
+			cur.beginCallbacks();
+			trcListener.traceEvent(this, currentTick, node.schedTick, node.priority, nextTarget);
+			cur.endCallbacks();
+		}
+
+		removeEvent(nextEvent);
+		return nextTarget;
+	}
+
 	public void nextOneEvent() {
 		oneEvent = true;
 		resume(this.secondsToNearestTick(Simulation.getPauseTime()));
@@ -329,13 +444,61 @@ public final class EventManager {
 	}
 
 	private void evaluateConditions(Process cur) {
+		// Take the change-driven conditionals to be evaluated, any dependencies
+		// that change during evaluation are collected for the next check
+		ArrayList<ConditionalEvent> dirty = dirtyConds;
+		dirtyConds = evalConds;
+		evalConds = dirty;
+		if (dirty.size() > 1)
+			Collections.sort(dirty, condOrder);
+		removeStaleConditionals(dirty);
+
 		// Protecting the conditional evaluate() callbacks and the traceWaitUntilEnded callback
 		cur.beginCallbacks();
+		int j = 0;
 		try {
-			for (int i = 0; i < condEvents.size();) {
-				ConditionalEvent c = condEvents.get(i);
-				if (c.c.evaluate()) {
-					condEvents.remove(i);
+			if (parallelConds && condEvents.size() + dirty.size() >= PARALLEL_MIN_CONDITIONALS)
+				evaluateParallel(cur, dirty);
+
+			boolean sideEffects = false; // TRUE once a conditional with side-effects has been evaluated
+			// Evaluate both lists of conditionals in the order they were created,
+			// giving the same order as evaluating every conditional
+			for (int i = 0; i < condEvents.size() || j < dirty.size();) {
+				ConditionalEvent c;
+				boolean scanned = j >= dirty.size() ||
+						(i < condEvents.size() && condEvents.get(i).seqNum < dirty.get(j).seqNum);
+				if (scanned) {
+					c = condEvents.get(i);
+				}
+				else {
+					c = dirty.get(j);
+					c.dirty = false;
+					j++;
+				}
+
+				boolean val;
+				if (c.preEvaluated && !sideEffects) {
+					c.preEvaluated = false;
+					if (c.preError != null) {
+						Throwable err = c.preError;
+						c.preError = null;
+						throw err;
+					}
+					val = c.preValue;
+				}
+				else {
+					c.preEvaluated = false;
+					c.preError = null;
+					val = c.c.evaluate();
+					if (!c.sideEffectFree)
+						sideEffects = true;
+				}
+
+				if (val) {
+					if (scanned)
+						condEvents.remove(i);
+					else
+						removeDependencies(c);
 					EventNode node = getEventNode(currentTick, 0);
 					Event evt = getEvent();
 					evt.node = node;
@@ -348,9 +511,11 @@ public final class EventManager {
 					}
 					if (trcListener != null) trcListener.traceWaitUntilEnded(this, currentTick, c.target);
 					node.addEvent(evt, true);
+					reuseConditionalEvent(c);
 					continue;
 				}
-				i++;
+				if (scanned)
+					i++;
 			}
 		}
 		catch (Throwable e) {
@@ -359,25 +524,320 @@ public final class EventManager {
 			errListener.handleError(this, e, currentTick);
 		}
 
+		// Discard any parallel results that were not used
+		for (int i = 0; i < parallelBatch.size(); i++) {
+			parallelBatch.get(i).preEvaluated = false;
+			parallelBatch.get(i).preError = null;
+		}
+		parallelBatch.clear();
+
+		// Keep any conditionals that were not evaluated for the next check
+		for (; j < dirty.size(); j++) {
+			if (dirty.get(j).dirty)
+				dirtyConds.add(dirty.get(j));
+		}
+		dirty.clear();
+
 		cur.endCallbacks();
 	}
 
+	/**
+	 * Evaluates the side-effect-free conditionals from both lists on the shared
+	 * fork-join pool, saving each result in its ConditionalEvent. Must hold the
+	 * lockObject when calling this method.
+	 */
+	private void evaluateParallel(Process cur, ArrayList<ConditionalEvent> dirty) {
+		for (ConditionalEvent each : condEvents) {
+			if (each.sideEffectFree)
+				parallelBatch.add(each);
+		}
+		for (ConditionalEvent each : dirty) {
+			if (each.sideEffectFree)
+				parallelBatch.add(each);
+		}
+		if (parallelBatch.size() < PARALLEL_MIN_CONDITIONALS)
+			return;
+
+		getConditionPool().invoke(new EvaluateTask(cur, parallelBatch, 0, parallelBatch.size()));
+	}
+
+	private static synchronized ForkJoinPool getConditionPool() {
+		if (condPool == null)
+			condPool = new ForkJoinPool();
+		return condPool;
+	}
+
+	/**
+	 * Evaluates a range of side-effect-free conditionals, splitting the range
+	 * between sub-tasks until it is small enough. The worker thread acts on
+	 * behalf of the blocked Process, so the conditionals can read the
+	 * simulation time.
+	 */
+	private static final class EvaluateTask extends RecursiveAction {
+		private final Process proc;
+		private final ArrayList<ConditionalEvent> conds;
+		private final int start;
+		private final int end;
+
+		EvaluateTask(Process p, ArrayList<ConditionalEvent> list, int s, int e) {
+			proc = p;
+			conds = list;
+			start = s;
+			end = e;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start > PARALLEL_GRAIN) {
+				int mid = (start + end) >>> 1;
+				invokeAll(new EvaluateTask(proc, conds, start, mid),
+				          new EvaluateTask(proc, conds, mid, end));
+				return;
+			}
+
+			Process.setEvaluating(proc);
+			try {
+				for (int i = start; i < end; i++) {
+					ConditionalEvent c = conds.get(i);
+					try {
+						c.preValue = c.c.evaluate();
+					}
+					catch (Throwable t) {
+						c.preError = t;
+					}
+					c.preEvaluated = true;
+				}
+			}
+			finally {
+				Process.setEvaluating(null);
+			}
+		}
+	}
+
+	private static final Comparator<ConditionalEvent> condOrder = new Comparator<ConditionalEvent>() {
+		@Override
+		public int compare(ConditionalEvent c1, ConditionalEvent c2) {
+			return Long.compare(c1.seqNum, c2.seqNum);
+		}
+	};
+
+	/**
+	 * Adds a conditional event to be evaluated before the next time advance,
+	 * must hold the lockObject.
+	 */
+	private void addConditional(ConditionalEvent evt) {
+		evt.seqNum = condSeqNum++;
+		evt.sideEffectFree = evt.c.isSideEffectFree();
+		Object[] deps = evt.c.getDependencies();
+		if (deps == null || deps.length == 0) {
+			condEvents.add(evt);
+			return;
+		}
+
+		evt.deps = deps;
+		if (evt.depPos == null || evt.depPos.length < deps.length)
+			evt.depPos = new int[deps.length];
+		for (int k = 0; k < deps.length; k++) {
+			Object dep = deps[k];
+			if (indexOfDependency(evt, dep) < k) {
+				evt.depPos[k] = -1;  // repeated dependency
+				continue;
+			}
+			ArrayList<ConditionalEvent> list = condDependents.get(dep);
+			if (list == null) {
+				int last = freeDepLists.size() - 1;
+				list = (last >= 0) ? freeDepLists.remove(last) : new ArrayList<ConditionalEvent>();
+				condDependents.put(dep, list);
+			}
+			evt.depPos[k] = list.size();
+			list.add(evt);
+		}
+		evt.dirty = true;
+		dirtyConds.add(evt);
+	}
+
+	/**
+	 * Removes a change-driven conditional event from the lists for its
+	 * dependencies, must hold the lockObject. An entry in the list of dirty
+	 * conditionals is not removed, it is discarded by removeStaleConditionals
+	 * once its dirty flag has been cleared.
+	 */
+	private void removeDependencies(ConditionalEvent evt) {
+		for (int k = 0; k < evt.deps.length; k++) {
+			int pos = evt.depPos[k];
+			if (pos == -1)
+				continue;
+
+			// Move the last entry into the removed entry's position
+			Object dep = evt.deps[k];
+			ArrayList<ConditionalEvent> list = condDependents.get(dep);
+			ConditionalEvent last = list.remove(list.size() - 1);
+			if (last != evt) {
+				list.set(pos, last);
+				last.depPos[indexOfDependency(last, dep)] = pos;
+			}
+			if (list.isEmpty()) {
+				condDependents.remove(dep);
+				freeDepLists.add(list);
+			}
+		}
+		evt.deps = null;
+		evt.dirty = false;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the given dependency in the
+	 * conditional event's list of dependencies.
+	 */
+	private static int indexOfDependency(ConditionalEvent evt, Object dep) {
+		for (int k = 0; k < evt.deps.length; k++) {
+			if (evt.deps[k] == dep)
+				return k;
+		}
+		return -1;
+	}
+
+	/**
+	 * Removes the entries for conditionals that are no longer dirty from a
+	 * list sorted by creation order, along with any repeated entries. A
+	 * conditional event that was removed and then re-used can appear twice.
+	 */
+	private static void removeStaleConditionals(ArrayList<ConditionalEvent> list) {
+		compact(list, true);
+	}
+
+	/**
+	 * Returns every conditional event in the order they were created.
+	 */
+	private ArrayList<ConditionalEvent> getAllConditionals() {
+		ArrayList<ConditionalEvent> ret = new ArrayList<>(condEvents);
+		if (condDependents.isEmpty())
+			return ret;
+
+		// A conditional with several dependencies is found more than once
+		for (ArrayList<ConditionalEvent> list : condDependents.values()) {
+			ret.addAll(list);
+		}
+		Collections.sort(ret, condOrder);
+		compact(ret, false);
+		return ret;
+	}
+
+	/**
+	 * Removes the repeated entries from a list sorted by creation order and,
+	 * if requested, the entries that are not dirty.
+	 */
+	private static void compact(ArrayList<ConditionalEvent> list, boolean dirtyOnly) {
+		int n = 0;
+		for (int i = 0; i < list.size(); i++) {
+			ConditionalEvent evt = list.get(i);
+			if (dirtyOnly && !evt.dirty)
+				continue;
+			if (n > 0 && list.get(n - 1) == evt)
+				continue;
+			list.set(n, evt);
+			n++;
+		}
+		for (int i = list.size() - 1; i >= n; i--) {
+			list.remove(i);
+		}
+	}
+
+	/**
+	 * Notifies the EventManager that the given object has changed. Conditionals
+	 * that declared the object as a dependency are evaluated before the next
+	 * advance of simulation time.
+	 * @param obj - object that has changed
+	 */
+	public static final void markChanged(Object obj) {
+		Process cur = Process.current();
+		cur.evt().markChanged(cur, obj);
+	}
+
+	private void markChanged(Process cur, Object obj) {
+		synchronized (lockObject) {
+			ArrayList<ConditionalEvent> list = condDependents.get(obj);
+			if (list == null)
+				return;
+
+			for (ConditionalEvent evt : list) {
+				if (evt.dirty)
+					continue;
+				evt.dirty = true;
+				dirtyConds.add(evt);
+			}
+		}
+	}
+
 	/**
 	 * Return the simulation time corresponding the given wall clock time
-	 * @param simTime = the current simulation time used when setting a real-time basis
-	 * @return simulation time in seconds
+	 * @param nanos - wall clock time from System.nanoTime()
+	 * @return simulation time in ticks
 	 */
-	private long calcRealTimeTick() {
-		long curMS = System.currentTimeMillis();
+	private long calcRealTimeTick(long nanos) {
+		double simElapsedsec = ((nanos - realTimeNanos) * realTimeFactor) / 1.0e9d;
+		long simElapsedTicks = secondsToNearestTick(simElapsedsec);
+		return realTimeTick + simElapsedTicks;
+	}
+
+	/**
+	 * Return the wall clock time at which the given simulation time is reached.
+	 * The real-time basis is set to the current simulation time if it needs
+	 * re-basing.
+	 * @param tick - simulation time in ticks
+	 * @param nanos - present wall clock time from System.nanoTime()
+	 * @return wall clock time in nanos
+	 */
+	private long calcRealTimeNanos(long tick, long nanos) {
 		if (rebaseRealTime) {
 			realTimeTick = currentTick;
-			realTimeMillis = curMS;
+			realTimeNanos = nanos;
 			rebaseRealTime = false;
 		}
 
-		double simElapsedsec = ((curMS - realTimeMillis) * realTimeFactor) / 1000.0d;
-		long simElapsedTicks = secondsToNearestTick(simElapsedsec);
-		return realTimeTick + simElapsedTicks;
+		double wallElapsedsec = (tick - realTimeTick) * secsPerTick / realTimeFactor;
+		return realTimeNanos + (long)Math.ceil(wallElapsedsec * 1.0e9d);
+	}
+
+	// Longest wait before the displayed time is updated and the real-time
+	// settings and pause flag are checked again
+	private static final long REAL_TIME_UPDATE_NANOS = 20000000L;
+	// Waits shorter than this are made without releasing the lock, since
+	// Object.wait() only has millisecond resolution
+	private static final long REAL_TIME_PARK_NANOS = 2000000L;
+
+	/**
+	 * Halts the thread for the given wall clock time or until it is notified.
+	 * Must hold the lockObject when calling this method.
+	 * @param nanos - wall clock time to wait
+	 */
+	private void waitRealTime(long nanos) {
+		if (nanos <= REAL_TIME_PARK_NANOS) {
+			LockSupport.parkNanos(nanos);
+			// A stray interrupt would otherwise end the next wait early
+			Thread.interrupted();
+			return;
+		}
+
+		// Leave the last part of the wait to parkNanos()
+		long millis = Math.min(nanos, REAL_TIME_UPDATE_NANOS + REAL_TIME_PARK_NANOS) - REAL_TIME_PARK_NANOS;
+		try { lockObject.wait(Math.max(millis / 1000000L, 1L)); } catch( InterruptedException e ) {}
+	}
+
+	/**
+	 * Returns the wall clock time in seconds by which the last event executed
+	 * in real-time mode started later than its scheduled time.
+	 */
+	public double getRealTimeLag() {
+		return lastLagNanos / 1.0e9d;
+	}
+
+	/**
+	 * Returns the largest wall clock time in seconds by which an event executed
+	 * in real-time mode started later than its scheduled time.
+	 */
+	public double getMaxRealTimeLag() {
+		return maxLagNanos / 1.0e9d;
 	}
 
 	/**
@@ -390,6 +850,34 @@ public final class EventManager {
 	 * Must hold the lockObject when calling this method.
 	 */
 	private void captureProcess(Process cur) {
+		profile(null, false);
+		if (directHandoff && !oneEvent) {
+			EventNode nextNode = getNextEventNode(cur, false);
+			if (nextNode != null) {
+				ProcessTarget nextTarget = nextNode.head.target;
+				Process p = nextTarget.getProcess();
+
+				// The next event resumes this Process, continue without blocking
+				if (p == cur) {
+					popEvent(cur, nextNode);
+					profile(nextTarget, true);
+					return;
+				}
+
+				// The next event resumes another Process, wake it directly and
+				// give it the Process that would otherwise resume event execution
+				if (p != null && cur.hasNext()) {
+					popEvent(cur, nextNode);
+					profile(nextTarget, true);
+					p.setNextProcess(cur.preCapture());
+					p.wake();
+					threadWait(cur);
+					cur.postCapture();
+					return;
+				}
+			}
+		}
+
 		// if we don't wake a new process, take one from the pool
 		Process next = cur.preCapture();
 		if (next == null) {
@@ -465,7 +953,7 @@ public final class EventManager {
 		synchronized (lockObject) {
 			cur.checkCallback();
 			long nextEventTime = calculateEventTime(ticks);
-			WaitTarget t = new WaitTarget(cur);
+			WaitTarget t = cur.getWaitTarget();
 			EventNode node = getEventNode(nextEventTime, priority);
 			Event evt = getEvent();
 			evt.node = node;
@@ -506,8 +994,42 @@ public final class EventManager {
 		return new Event();
 	}
 
+	private ConditionalEvent freeConds = null;
+	private ConditionalEvent getConditionalEvent(Conditional c, ProcessTarget t, EventHandle handle) {
+		ConditionalEvent evt = freeConds;
+		if (evt != null)
+			freeConds = evt.next;
+		else
+			evt = new ConditionalEvent();
+
+		evt.c = c;
+		evt.target = t;
+		evt.handle = handle;
+		evt.next = null;
+		return evt;
+	}
+
+	/**
+	 * Returns a conditional event that has been removed from every list to the
+	 * free list, must hold the lockObject.
+	 */
+	private void reuseConditionalEvent(ConditionalEvent evt) {
+		evt.c = null;
+		evt.target = null;
+		evt.handle = null;
+		evt.deps = null;
+		evt.dirty = false;
+
+		evt.next = freeConds;
+		freeConds = evt;
+	}
+
+	private final ArrayList<ArrayList<ConditionalEvent>> freeDepLists = new ArrayList<>();
+
 	private void clearFreeList() {
 		freeEvents = null;
+		freeConds = null;
+		freeDepLists.clear();
 	}
 
 	public static final void waitUntil(Conditional cond, EventHandle handle) {
@@ -523,14 +1045,14 @@ public final class EventManager {
 	private void waitUntil(Process cur, Conditional cond, EventHandle handle) {
 		synchronized (lockObject) {
 			cur.checkCallback();
-			WaitTarget t = new WaitTarget(cur);
-			ConditionalEvent evt = new ConditionalEvent(cond, t, handle);
+			WaitTarget t = cur.getWaitTarget();
+			ConditionalEvent evt = getConditionalEvent(cond, t, handle);
 			if (handle != null) {
 				if (handle.isScheduled())
 					throw new ProcessError("Tried to waitUntil using a handle already in use");
 				handle.event = evt;
 			}
-			condEvents.add(evt);
+			addConditional(evt);
 			if (trcListener != null) {
 				cur.beginCallbacks();
 				trcListener.traceWaitUntil(this, currentTick);
@@ -548,13 +1070,13 @@ public final class EventManager {
 	private void schedUntil(Process cur, ProcessTarget t, Conditional cond, EventHandle handle) {
 		synchronized (lockObject) {
 			cur.checkCallback();
-			ConditionalEvent evt = new ConditionalEvent(cond, t, handle);
+			ConditionalEvent evt = getConditionalEvent(cond, t, handle);
 			if (handle != null) {
 				if (handle.isScheduled())
 					throw new ProcessError("Tried to scheduleUntil using a handle already in use");
 				handle.event = evt;
 			}
-			condEvents.add(evt);
+			addConditional(evt);
 			if (trcListener != null) {
 				cur.beginCallbacks();
 				trcListener.traceWaitUntil(this, currentTick);
@@ -579,8 +1101,10 @@ public final class EventManager {
 				cur.endCallbacks();
 			}
 			// Transfer control to the new process
+			ProcessTarget prev = profiledTarget();
 			newProcess.wake();
 			threadWait(cur);
+			profile(prev, false);
 		}
 	}
 
@@ -618,7 +1142,12 @@ public final class EventManager {
 			removeEvent((Event)base);
 		}
 		else {
-			condEvents.remove(base);
+			ConditionalEvent cond = (ConditionalEvent)base;
+			if (cond.deps == null)
+				condEvents.remove(cond);
+			else
+				removeDependencies(cond);
+			reuseConditionalEvent(cond);
 		}
 		return t;
 	}
@@ -693,12 +1222,16 @@ public final class EventManager {
 			}
 			ProcessTarget t = rem(handle);
 
+			ProcessTarget prev = profiledTarget();
 			Process proc = t.getProcess();
 			if (proc == null)
 				proc = Process.allocate(this, cur, t);
+			else
+				profile(t, true);
 			proc.setNextProcess(cur);
 			proc.wake();
 			threadWait(cur);
+			profile(prev, false);
 		}
 	}
 
@@ -712,6 +1245,91 @@ public final class EventManager {
 		}
 	}
 
+	/**
+	 * Selects the way control is passed between Processes when a Process waits.
+	 * <p>
+	 * By default a waiting Process wakes the thread running the event loop,
+	 * which then wakes the next Process to be resumed, costing two thread
+	 * switches for each wait. With direct handoff, the waiting Process advances
+	 * the event loop itself: if the next event resumes the same Process it
+	 * continues without blocking, and if it resumes a different Process that
+	 * Process is woken directly. The order of execution is unchanged.
+	 * @param direct - true if Processes should hand control directly to each other
+	 */
+	public void setDirectHandoff(boolean direct) {
+		synchronized (lockObject) {
+			directHandoff = direct;
+		}
+	}
+
+	/**
+	 * Sets whether the conditionals that are marked as side-effect-free are
+	 * evaluated in parallel on a shared fork-join pool. The results are used in
+	 * the order the conditionals were created, and the remaining parallel
+	 * results are discarded once a conditional with side-effects has been
+	 * evaluated, so the events that are released are the same as for
+	 * sequential evaluation.
+	 * <p>
+	 * The conditionals for the built-in objects evaluate user inputs that can
+	 * sample distributions or schedule events, so none are side-effect-free.
+	 * @param parallel - true if the conditionals are to be evaluated in parallel
+	 */
+	public void setParallelConditionals(boolean parallel) {
+		synchronized (lockObject) {
+			parallelConds = parallel;
+		}
+	}
+
+	/**
+	 * The data structures available for holding the future event list.
+	 */
+	public enum QueueType {
+		RED_BLACK_TREE,
+		LADDER_QUEUE,
+		TIMING_WHEEL,
+	}
+
+	/**
+	 * Selects the data structure used to hold the future event list. The order
+	 * of execution is identical for every type. The event list must be empty
+	 * when the type is changed.
+	 * @param type - data structure to use for the future event list
+	 */
+	public void setQueueType(QueueType type) {
+		synchronized (lockObject) {
+			if (eventTree.getNextNode() != null)
+				throw new ProcessError("Cannot change the event queue while events are scheduled");
+
+			switch (type) {
+			case RED_BLACK_TREE:
+				if (!(eventTree instanceof EventTree))
+					eventTree = new EventTree();
+				break;
+			case LADDER_QUEUE:
+				if (!(eventTree instanceof LadderQueue))
+					eventTree = new LadderQueue();
+				break;
+			case TIMING_WHEEL:
+				// A new wheel is used in case the horizon has changed
+				eventTree = new TimingWheel(wheelHorizon);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Sets the number of ticks beyond the present time for which events are
+	 * held in the timing wheel when the TIMING_WHEEL queue type is selected.
+	 * Events beyond the horizon are held in a red-black tree until they are
+	 * within the horizon. Takes effect the next time the queue type is set.
+	 * @param ticks - timing wheel horizon in ticks
+	 */
+	public void setTimingWheelHorizon(long ticks) {
+		synchronized (lockObject) {
+			wheelHorizon = ticks;
+		}
+	}
+
 	public void setExecuteRealTime(boolean useRealTime, double factor) {
 		executeRealTime = useRealTime;
 		realTimeFactor = factor;
@@ -772,6 +1390,69 @@ public final class EventManager {
 			// execute this event, leading to the state machine becoming broken
 			if (nextTick > eventTree.getNextNode().schedTick)
 				nextTick = eventTree.getNextNode().schedTick;
+
+			// Wake the event thread if it is waiting for the wall clock
+			lockObject.notifyAll();
+		}
+	}
+
+	/**
+	 * Schedules every event in the batch from outside of a Process. The result
+	 * is the same as scheduling each event in turn with FIFO ordering, but the
+	 * event queue is updated in a single pass.
+	 * @param batch the events to schedule, relative to the present time
+	 */
+	public void scheduleBatchExternal(EventBatch batch) {
+		synchronized (lockObject) {
+			addBatch(null, batch);
+
+			// As for scheduleProcessExternal, the next event may now be earlier
+			if (batch.count > 0 && nextTick > eventTree.getNextNode().schedTick)
+				nextTick = eventTree.getNextNode().schedTick;
+
+			// Wake the event thread if it is waiting for the wall clock
+			lockObject.notifyAll();
+		}
+	}
+
+	/**
+	 * Schedules every event in the batch in the controlling EventManager for
+	 * the current Process. The result is the same as scheduling each event in
+	 * turn with FIFO ordering, but the event queue is updated in a single pass.
+	 * @throws ProcessError if called outside of a Process context
+	 *
+	 * @param batch the events to schedule, relative to the present time
+	 */
+	public static final void scheduleBatch(EventBatch batch) {
+		Process cur = Process.current();
+		cur.checkCallback();
+		cur.evt().addBatch(cur, batch);
+	}
+
+	/**
+	 * Adds the events in the batch to the event queue, must hold the lockObject.
+	 * @param cur - Process scheduling the events, or null if called externally
+	 */
+	private void addBatch(Process cur, EventBatch batch) {
+		int count = batch.count;
+		long[] ticks = new long[count];
+		for (int i = 0; i < count; i++)
+			ticks[i] = calculateEventTime(batch.delays[i]);
+
+		EventNode[] nodes = new EventNode[count];
+		eventTree.createOrFindNodes(ticks, batch.priorities, count, nodes);
+
+		for (int i = 0; i < count; i++) {
+			Event evt = getEvent();
+			evt.node = nodes[i];
+			evt.target = batch.targets[i];
+			evt.handle = null;
+			if (trcListener != null) {
+				if (cur != null) cur.beginCallbacks();
+				trcListener.traceSchedProcess(this, currentTick, ticks[i], batch.priorities[i], evt.target);
+				if (cur != null) cur.endCallbacks();
+			}
+			nodes[i].addEvent(evt, true);
 		}
 	}
 
@@ -862,13 +1543,25 @@ public final class EventManager {
 		return name;
 	}
 
+	/**
+	 * Sets the model that this EventManager executes. Process threads running
+	 * events for this EventManager use it as their current model.
+	 */
+	public final void setJaamSimModel(JaamSimModel model) {
+		simModel = model;
+	}
+
+	public final JaamSimModel getJaamSimModel() {
+		return simModel;
+	}
+
 	/**
 	 * Returns whether or not we are currently running in a Process context
 	 * that has a controlling EventManager.
 	 * @return true if we are in a Process context, false otherwise
 	 */
 	public static final boolean hasCurrent() {
-		return (Thread.currentThread() instanceof Process);
+		return Process.hasCurrent();
 	}
 
 	/**
@@ -902,9 +1595,6 @@ public final class EventManager {
 	public final void setTickLength(double tickLength) {
 		secsPerTick = tickLength;
 		ticksPerSecond = Math.round(1e9d / secsPerTick) / 1e9d;
-
-		globalsecsPerTick = secsPerTick;
-		globalticksPerSecond = ticksPerSecond;
 	}
 
 	/**
@@ -921,25 +1611,30 @@ public final class EventManager {
 		return ticks * secsPerTick;
 	}
 
-	/**
-	 * This whole block is a temporary crutch until we decide how access to time conversion
-	 * should be exposed.
-	 */
-	private static double globalsecsPerTick = 1e-6d;
-	private static double globalticksPerSecond = Math.round(1e9d / globalsecsPerTick) / 1e9d;
-
 	/**
 	 * Convert the number of seconds rounded to the nearest tick. The same as EventManager.secondsToNearestTick()
 	 */
 	public static final long secsToNearestTick(double seconds) {
-		return Math.round(seconds * globalticksPerSecond);
+		return activeEventManager().secondsToNearestTick(seconds);
 	}
 
 	/**
 	 * Convert the number of ticks into a value in seconds. The same as EventManager.ticksToSeconds()
 	 */
 	public static final double ticksToSecs(long ticks) {
-		return ticks * globalsecsPerTick;
+		return activeEventManager().ticksToSeconds(ticks);
+	}
+
+	/**
+	 * Returns the EventManager for the calling Process, or the EventManager for
+	 * the calling thread's model if the caller is not executing a Process. Used
+	 * so that models running concurrently with different tick lengths convert
+	 * times correctly.
+	 */
+	private static EventManager activeEventManager() {
+		if (hasCurrent())
+			return Process.current().evt();
+		return JaamSimModel.getCurrent().getEventManager();
 	}
 
 	public ArrayList<EventData> getEventDataList() {
@@ -970,8 +1665,9 @@ public final class EventManager {
 	}
 
 	public ArrayList<String> getConditionalDataList() {
-		ArrayList<String> ret = new ArrayList<>(condEvents.size());
-		for (ConditionalEvent cond : condEvents) {
+		ArrayList<ConditionalEvent> conds = getAllConditionals();
+		ArrayList<String> ret = new ArrayList<>(conds.size());
+		for (ConditionalEvent cond : conds) {
 			ret.add(cond.target.getDescription());
 		}
 		return ret;
@@ -0,0 +1,131 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Hash index of EventNodes by tick and priority, using open addressing and
+ * linear probing. Used by the event queues that do not keep their nodes in a
+ * search tree.
+ */
+final class EventNodeIndex {
+	private EventNode[] index = new EventNode[64];
+	private int count;
+
+	static final Comparator<EventNode> nodeOrder = new Comparator<EventNode>() {
+		@Override
+		public int compare(EventNode n1, EventNode n2) {
+			return n1.compareToNode(n2);
+		}
+	};
+
+	/**
+	 * Returns the node for the given tick and priority, or null if there is
+	 * no such node.
+	 */
+	EventNode find(long schedTick, int priority) {
+		int mask = index.length - 1;
+		int i = hash(schedTick, priority) & mask;
+		while (true) {
+			EventNode n = index[i];
+			if (n == null)
+				return null;
+			if (n.schedTick == schedTick && n.priority == priority)
+				return n;
+			i = (i + 1) & mask;
+		}
+	}
+
+	void add(EventNode node) {
+		if (2 * (count + 1) > index.length) {
+			EventNode[] old = index;
+			index = new EventNode[old.length * 2];
+			for (EventNode n : old) {
+				if (n != null)
+					place(n);
+			}
+		}
+		place(node);
+		count++;
+	}
+
+	void remove(EventNode node) {
+		int mask = index.length - 1;
+		int i = hash(node.schedTick, node.priority) & mask;
+		while (index[i] != node)
+			i = (i + 1) & mask;
+		index[i] = null;
+		count--;
+
+		// Shift back any following entries that can no longer be reached
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			EventNode n = index[j];
+			if (n == null)
+				return;
+
+			int k = hash(n.schedTick, n.priority) & mask;
+			boolean reachable = (i <= j) ? (i < k && k <= j) : (i < k || k <= j);
+			if (reachable)
+				continue;
+
+			index[i] = n;
+			index[j] = null;
+			i = j;
+		}
+	}
+
+	void clear() {
+		Arrays.fill(index, null);
+		count = 0;
+	}
+
+	int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the indexed nodes in order of increasing tick and priority.
+	 */
+	EventNode[] getSortedNodes() {
+		EventNode[] nodes = new EventNode[count];
+		int num = 0;
+		for (EventNode n : index) {
+			if (n != null)
+				nodes[num++] = n;
+		}
+		Arrays.sort(nodes, nodeOrder);
+		return nodes;
+	}
+
+	private void place(EventNode node) {
+		int mask = index.length - 1;
+		int i = hash(node.schedTick, node.priority) & mask;
+		while (index[i] != null)
+			i = (i + 1) & mask;
+		index[i] = node;
+	}
+
+	private static int hash(long tick, int priority) {
+		long h = (tick ^ (tick >>> 32)) * 0x9E3779B97F4A7C15L + priority;
+		h *= 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32));
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects the wall clock time spent executing events, grouped by the class of
+ * the ProcessTarget and by the object that owns the target.
+ * <p>
+ * Time is measured in segments: a segment starts when a target begins or
+ * resumes execution and ends when it finishes, waits, or passes control to
+ * another Process. An event ends when its target finishes or waits, and its
+ * time is the sum of its segments. The event that resumes a Process after a
+ * wait is recorded against the target that started the Process.
+ */
+public final class EventProfiler {
+	private final HashMap<Class<?>, Stats> classStats = new HashMap<>();
+	private final HashMap<Object, Stats> ownerStats = new HashMap<>();
+
+	private ProcessTarget curTarget; // target for the segment being timed
+	private long segStart;           // System.nanoTime() at the start of the segment
+	private long eventNanos;         // time in the earlier segments of the present event
+
+	// Events that have passed control to a Process they started or interrupted
+	private final ArrayList<Suspended> suspended = new ArrayList<>();
+
+	private static final class Suspended {
+		final ProcessTarget target;
+		final long nanos;
+
+		Suspended(ProcessTarget t, long n) {
+			target = t;
+			nanos = n;
+		}
+	}
+
+	/**
+	 * Execution statistics for a group of events.
+	 */
+	public static final class Stats {
+		private final Object key;
+		private long count;
+		private long totalNanos;
+		private long maxNanos;
+
+		Stats(Object k) {
+			key = k;
+		}
+
+		/**
+		 * Returns the ProcessTarget class or owner object for this group.
+		 */
+		public Object getKey() {
+			return key;
+		}
+
+		/**
+		 * Returns the number of events executed.
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * Returns the total wall clock time in nanoseconds.
+		 */
+		public long getTotalNanos() {
+			return totalNanos;
+		}
+
+		/**
+		 * Returns the longest single event in nanoseconds.
+		 */
+		public long getMaxNanos() {
+			return maxNanos;
+		}
+
+		void add(long nanos) {
+			totalNanos += nanos;
+		}
+
+		void addEvent(long nanos) {
+			if (nanos > maxNanos)
+				maxNanos = nanos;
+		}
+	}
+
+	/**
+	 * Removes all the statistics that have been collected.
+	 */
+	public synchronized void clear() {
+		classStats.clear();
+		ownerStats.clear();
+		suspended.clear();
+		curTarget = null;
+		eventNanos = 0L;
+	}
+
+	/**
+	 * Ends the present segment and starts a new one for the given target.
+	 * @param t - target for the new segment, or null if the present event has
+	 *            finished or is waiting
+	 * @param start - true if a new event is starting, rather than an earlier
+	 *                event continuing
+	 */
+	synchronized void switchTo(ProcessTarget t, boolean start) {
+		long now = System.nanoTime();
+		if (curTarget != null) {
+			long nanos = now - segStart;
+			eventNanos += nanos;
+			getStats(classStats, curTarget.getClass()).add(nanos);
+			Object owner = curTarget.getOwner();
+			if (owner != null)
+				getStats(ownerStats, owner).add(nanos);
+
+			// A new event suspends the present one, otherwise it has ended
+			if (t != null && start)
+				suspended.add(new Suspended(curTarget, eventNanos));
+			else
+				endEvent(curTarget, eventNanos);
+		}
+
+		curTarget = chargedTarget(t);
+		segStart = now;
+		eventNanos = 0L;
+		if (curTarget == null)
+			return;
+
+		if (!start) {
+			int last = suspended.size() - 1;
+			if (last >= 0 && suspended.get(last).target == curTarget)
+				eventNanos = suspended.remove(last).nanos;
+			return;
+		}
+
+		getStats(classStats, curTarget.getClass()).count++;
+		Object owner = curTarget.getOwner();
+		if (owner != null)
+			getStats(ownerStats, owner).count++;
+	}
+
+	private void endEvent(ProcessTarget t, long nanos) {
+		getStats(classStats, t.getClass()).addEvent(nanos);
+		Object owner = t.getOwner();
+		if (owner != null)
+			getStats(ownerStats, owner).addEvent(nanos);
+	}
+
+	/**
+	 * Returns the target to be charged for the execution of the given target.
+	 * The target that resumes a Process after a wait is replaced by the target
+	 * that started the Process.
+	 */
+	private static ProcessTarget chargedTarget(ProcessTarget t) {
+		if (t == null)
+			return null;
+		Process proc = t.getProcess();
+		if (proc == null || proc.getStartTarget() == null)
+			return t;
+		return proc.getStartTarget();
+	}
+
+	/**
+	 * Returns the target for the segment that is being timed.
+	 */
+	synchronized ProcessTarget getTarget() {
+		return curTarget;
+	}
+
+	private static <K> Stats getStats(Map<K, Stats> map, K key) {
+		Stats ret = map.get(key);
+		if (ret == null) {
+			ret = new Stats(key);
+			map.put(key, ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the statistics for each ProcessTarget class, in order of
+	 * decreasing total time.
+	 */
+	public synchronized ArrayList<Stats> getClassStats() {
+		return sorted(classStats.values());
+	}
+
+	/**
+	 * Returns the statistics for each owner of a ProcessTarget, in order of
+	 * decreasing total time.
+	 */
+	public synchronized ArrayList<Stats> getOwnerStats() {
+		return sorted(ownerStats.values());
+	}
+
+	private static ArrayList<Stats> sorted(Collection<Stats> vals) {
+		ArrayList<Stats> ret = new ArrayList<>(vals.size());
+		for (Stats each : vals) {
+			Stats copy = new Stats(each.key);
+			copy.count = each.count;
+			copy.totalNanos = each.totalNanos;
+			copy.maxNanos = each.maxNanos;
+			ret.add(copy);
+		}
+		Collections.sort(ret, totalOrder);
+		return ret;
+	}
+
+	private static final Comparator<Stats> totalOrder = new Comparator<Stats>() {
+		@Override
+		public int compare(Stats s1, Stats s2) {
+			return Long.compare(s2.totalNanos, s1.totalNanos);
+		}
+	};
+}
@@ -0,0 +1,86 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+/**
+ * EventQueue is the future event list used by the EventManager. It holds one
+ * EventNode for each (tick, priority) pair that has events scheduled and returns
+ * them in order of increasing tick and then increasing priority. The ordering of
+ * the events within a node is maintained by the EventNode itself.
+ */
+abstract class EventQueue {
+
+	/**
+	 * Returns the node with the lowest tick and priority, or null if the queue
+	 * is empty.
+	 */
+	abstract EventNode getNextNode();
+
+	/**
+	 * Returns the node for the given tick and priority, creating and inserting
+	 * a new node if one does not already exist.
+	 */
+	abstract EventNode createOrFindNode(long schedTick, int priority);
+
+	/**
+	 * Finds or creates the node for each of a batch of ticks and priorities,
+	 * storing it in the same position of the nodes array. The pairs must be in
+	 * order of increasing tick and then priority, and can be repeated.
+	 */
+	void createOrFindNodes(long[] ticks, int[] priorities, int count, EventNode[] nodes) {
+		EventNode last = null;
+		for (int i = 0; i < count; i++) {
+			if (last == null || last.compare(ticks[i], priorities[i]) != 0)
+				last = createOrFindNode(ticks[i], priorities[i]);
+			nodes[i] = last;
+		}
+	}
+
+	/**
+	 * Removes the node for the given tick and priority. The node must not hold
+	 * any events.
+	 * @return true if the node was found and removed
+	 */
+	abstract boolean removeNode(long schedTick, int priority);
+
+	/**
+	 * Returns the node for the given tick and priority, or null if there is
+	 * no such node.
+	 */
+	abstract EventNode find(long schedTick, int priority);
+
+	/**
+	 * Calls the runner for each node in order of increasing tick and priority.
+	 */
+	abstract void runOnAllNodes(EventNode.Runner runner);
+
+	/**
+	 * Removes all nodes from the queue.
+	 */
+	abstract void reset();
+
+	/**
+	 * Verifies the internal structure of the queue, throwing a RuntimeException
+	 * if it is inconsistent.
+	 */
+	abstract void verify();
+
+	/**
+	 * Counts the nodes held in the queue by walking its internal structure.
+	 */
+	abstract int verifyNodeCount();
+}
@@ -0,0 +1,466 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.Arrays;
+
+/**
+ * LadderQueue is an implementation of the ladder queue described by Tang, Goh and
+ * Thng (ACM TOMACS, 2005) that provides O(1) amortized insertion and removal of
+ * EventNodes. The nodes are held in three tiers:
+ * <ul>
+ * <li>Top - an unsorted list of the nodes beyond the range covered by the ladder
+ * <li>Ladder - rungs of buckets, each bucket holding an unsorted list of the nodes
+ * within a range of ticks. A bucket that holds too many nodes is split into a new
+ * rung with narrower buckets.
+ * <li>Bottom - a sorted list of the nodes with the lowest ticks
+ * </ul>
+ * The tier holding a node is not stored in the node, it is recalculated from the
+ * node's tick using the same rule that was used to insert it. The left and right
+ * references in each node are used as the previous and next links for the list
+ * holding it. A hash index on tick and priority is used to find existing nodes.
+ */
+final class LadderQueue extends EventQueue {
+	private static final int THRESHOLD = 50; // maximum number of nodes to sort into bottom at once
+	private static final int MAX_RUNGS = 8;
+
+	// Top tier
+	private EventNode topHead;
+	private int topCount;
+	private long topMin;
+	private long topMax;
+	private long ladderMax; // largest tick covered by the ladder, larger ticks are added to top
+
+	// Ladder tier
+	private final Rung[] rungs = new Rung[MAX_RUNGS];
+	private int numRungs;
+
+	// Bottom tier
+	private EventNode bottomHead;
+	private EventNode bottomTail;
+	private int bottomCount;
+
+	private final EventNodeIndex index = new EventNodeIndex();
+
+	private EventNode[] sortScratch = new EventNode[THRESHOLD];
+	private EventNode freeList = null;
+
+	private static final class Rung {
+		double start;  // tick at the start of the first bucket
+		double width;  // number of ticks covered by each bucket
+		EventNode[] buckets = new EventNode[THRESHOLD];
+		int numBuckets;
+		int cur;       // the first bucket that can hold nodes
+		int count;     // number of nodes held by the rung
+
+		void init(long min, long max, int num) {
+			start = min;
+			width = ((double)max - (double)min + 1.0d) / num;
+			if (buckets.length < num)
+				buckets = new EventNode[num];
+			else
+				Arrays.fill(buckets, 0, numBuckets, null);
+			numBuckets = num;
+			cur = 0;
+			count = 0;
+		}
+
+		/**
+		 * Returns the bucket for the given tick. Ticks beyond the end of the rung
+		 * are assigned to the last bucket and ticks before the start to -1.
+		 */
+		int getBucket(long tick) {
+			double b = Math.floor(((double)tick - start) / width);
+			if (b < 0.0d)
+				return -1;
+			if (b >= numBuckets)
+				return numBuckets - 1;
+			return (int)b;
+		}
+	}
+
+	LadderQueue() {
+		for (int i = 0; i < MAX_RUNGS; i++)
+			rungs[i] = new Rung();
+		this.reset();
+	}
+
+	@Override
+	final EventNode getNextNode() {
+		if (bottomHead == null)
+			refillBottom();
+		return bottomHead;
+	}
+
+	@Override
+	final void reset() {
+		topHead = null;
+		topCount = 0;
+		ladderMax = Long.MIN_VALUE;
+		for (int i = 0; i < numRungs; i++)
+			rungs[i].init(0, 0, 1);
+		numRungs = 0;
+		bottomHead = null;
+		bottomTail = null;
+		bottomCount = 0;
+		index.clear();
+		Arrays.fill(sortScratch, null);
+		freeList = null;
+	}
+
+	@Override
+	final EventNode createOrFindNode(long schedTick, int priority) {
+		EventNode node = find(schedTick, priority);
+		if (node != null)
+			return node;
+
+		node = getNewNode(schedTick, priority);
+		index.add(node);
+		insert(node);
+		return node;
+	}
+
+	@Override
+	final boolean removeNode(long schedTick, int priority) {
+		EventNode node = find(schedTick, priority);
+		if (node == null)
+			return false;
+
+		// Debugging
+		if (node.head != null || node.tail != null)
+			throw new RuntimeException("Removing non-empy node");
+
+		index.remove(node);
+		unlink(node);
+		reuseNode(node);
+		return true;
+	}
+
+	@Override
+	final EventNode find(long schedTick, int priority) {
+		return index.find(schedTick, priority);
+	}
+
+	@Override
+	final void runOnAllNodes(EventNode.Runner runner) {
+		for (EventNode n : index.getSortedNodes()) {
+			runner.runOnNode(n);
+		}
+	}
+
+	// Add a new node to the tier selected by its tick
+	private void insert(EventNode node) {
+		long tick = node.schedTick;
+		if (tick > ladderMax) {
+			addToTop(node);
+			return;
+		}
+
+		for (int i = 0; i < numRungs; i++) {
+			Rung rung = rungs[i];
+			int b = rung.getBucket(tick);
+			if (b >= rung.cur) {
+				addToBucket(rung, b, node);
+				return;
+			}
+		}
+
+		addToBottom(node);
+
+		// Split a large bottom into a new rung
+		if (bottomCount > THRESHOLD && numRungs < MAX_RUNGS &&
+		    bottomHead.schedTick < bottomTail.schedTick) {
+			EventNode list = bottomHead;
+			int num = bottomCount;
+			long min = bottomHead.schedTick;
+			long max = bottomTail.schedTick;
+			bottomHead = null;
+			bottomTail = null;
+			bottomCount = 0;
+			spawnRung(list, num, min, max);
+		}
+	}
+
+	// Remove a node from the tier that holds it
+	private void unlink(EventNode node) {
+		long tick = node.schedTick;
+		EventNode prev = node.left;
+		EventNode next = node.right;
+		if (next != null)
+			next.left = prev;
+
+		if (tick > ladderMax) {
+			if (prev == null)
+				topHead = next;
+			else
+				prev.right = next;
+			topCount--;
+			return;
+		}
+
+		for (int i = 0; i < numRungs; i++) {
+			Rung rung = rungs[i];
+			int b = rung.getBucket(tick);
+			if (b >= rung.cur) {
+				if (prev == null)
+					rung.buckets[b] = next;
+				else
+					prev.right = next;
+				rung.count--;
+				return;
+			}
+		}
+
+		if (prev == null)
+			bottomHead = next;
+		else
+			prev.right = next;
+		if (next == null)
+			bottomTail = prev;
+		bottomCount--;
+	}
+
+	private void addToTop(EventNode node) {
+		long tick = node.schedTick;
+		if (topCount == 0) {
+			topMin = tick;
+			topMax = tick;
+		}
+		else {
+			topMin = Math.min(topMin, tick);
+			topMax = Math.max(topMax, tick);
+		}
+		pushFront(node, topHead);
+		topHead = node;
+		topCount++;
+	}
+
+	private static void addToBucket(Rung rung, int b, EventNode node) {
+		pushFront(node, rung.buckets[b]);
+		rung.buckets[b] = node;
+		rung.count++;
+	}
+
+	private static void pushFront(EventNode node, EventNode head) {
+		node.left = null;
+		node.right = head;
+		if (head != null)
+			head.left = node;
+	}
+
+	// Insert a node into the sorted bottom list, searching from the end
+	private void addToBottom(EventNode node) {
+		EventNode prev = bottomTail;
+		while (prev != null && prev.compareToNode(node) > 0)
+			prev = prev.left;
+
+		EventNode next = (prev == null) ? bottomHead : prev.right;
+		node.left = prev;
+		node.right = next;
+		if (prev == null)
+			bottomHead = node;
+		else
+			prev.right = node;
+		if (next == null)
+			bottomTail = node;
+		else
+			next.left = node;
+		bottomCount++;
+	}
+
+	// Move the nodes with the lowest ticks into the bottom
+	private void refillBottom() {
+		while (bottomHead == null) {
+			if (numRungs == 0) {
+				if (topCount == 0)
+					return;
+
+				// Transfer the top to the first rung
+				EventNode list = topHead;
+				int num = topCount;
+				ladderMax = topMax;
+				topHead = null;
+				topCount = 0;
+				spawnRung(list, num, topMin, topMax);
+				continue;
+			}
+
+			// Discard the lowest rung once it is empty
+			Rung rung = rungs[numRungs - 1];
+			if (rung.count == 0) {
+				numRungs--;
+				continue;
+			}
+
+			// Remove the first non-empty bucket
+			while (rung.buckets[rung.cur] == null)
+				rung.cur++;
+			EventNode list = rung.buckets[rung.cur];
+			rung.buckets[rung.cur] = null;
+			rung.cur++;
+
+			int num = 0;
+			long min = Long.MAX_VALUE;
+			long max = Long.MIN_VALUE;
+			for (EventNode n = list; n != null; n = n.right) {
+				min = Math.min(min, n.schedTick);
+				max = Math.max(max, n.schedTick);
+				num++;
+			}
+			rung.count -= num;
+
+			// Split a large bucket into a new rung, unless all its nodes share a tick
+			if (num > THRESHOLD && min < max && numRungs < MAX_RUNGS) {
+				spawnRung(list, num, min, max);
+				continue;
+			}
+
+			sortIntoBottom(list, num);
+		}
+	}
+
+	private void spawnRung(EventNode list, int num, long min, long max) {
+		Rung rung = rungs[numRungs];
+		numRungs++;
+		rung.init(min, max, num);
+
+		EventNode n = list;
+		while (n != null) {
+			EventNode next = n.right;
+			addToBucket(rung, rung.getBucket(n.schedTick), n);
+			n = next;
+		}
+	}
+
+	private void sortIntoBottom(EventNode list, int num) {
+		if (sortScratch.length < num)
+			sortScratch = new EventNode[num];
+
+		int i = 0;
+		for (EventNode n = list; n != null; n = n.right)
+			sortScratch[i++] = n;
+		Arrays.sort(sortScratch, 0, num, EventNodeIndex.nodeOrder);
+
+		EventNode prev = null;
+		for (i = 0; i < num; i++) {
+			EventNode n = sortScratch[i];
+			sortScratch[i] = null;
+			n.left = prev;
+			n.right = null;
+			if (prev == null)
+				bottomHead = n;
+			else
+				prev.right = n;
+			prev = n;
+		}
+		bottomTail = prev;
+		bottomCount = num;
+	}
+
+	private EventNode getNewNode(long schedTick, int priority) {
+		if (freeList == null) {
+			return new EventNode(schedTick, priority);
+		}
+
+		EventNode ret = freeList;
+		freeList = freeList.right;
+
+		ret.schedTick = schedTick;
+		ret.priority = priority;
+		ret.head = null;
+		ret.tail = null;
+		return ret;
+	}
+
+	private void reuseNode(EventNode node) {
+		node.left = null;
+		node.head = null;
+		node.tail = null;
+
+		node.right = freeList;
+		freeList = node;
+	}
+
+	@Override
+	final void verify() {
+		int num = 0;
+		for (EventNode n = topHead; n != null; n = n.right) {
+			if (n.schedTick <= ladderMax)
+				throw new RuntimeException("Ladder queue top verify failed");
+			verifyLinks(n);
+			num++;
+		}
+		if (num != topCount)
+			throw new RuntimeException("Ladder queue top count verify failed");
+
+		for (int i = 0; i < numRungs; i++) {
+			Rung rung = rungs[i];
+			num = 0;
+			for (int b = 0; b < rung.numBuckets; b++) {
+				for (EventNode n = rung.buckets[b]; n != null; n = n.right) {
+					if (b < rung.cur || n.schedTick > ladderMax || findRung(n.schedTick) != i ||
+					    rung.getBucket(n.schedTick) != b)
+						throw new RuntimeException("Ladder queue rung verify failed");
+					verifyLinks(n);
+					num++;
+				}
+			}
+			if (num != rung.count)
+				throw new RuntimeException("Ladder queue rung count verify failed");
+		}
+
+		num = 0;
+		for (EventNode n = bottomHead; n != null; n = n.right) {
+			if (n.schedTick > ladderMax || findRung(n.schedTick) != -1)
+				throw new RuntimeException("Ladder queue bottom verify failed");
+			if (n.right != null && n.compareToNode(n.right) >= 0)
+				throw new RuntimeException("Ladder queue bottom order verify failed");
+			if (n.right == null && n != bottomTail)
+				throw new RuntimeException("Ladder queue bottom tail verify failed");
+			verifyLinks(n);
+			num++;
+		}
+		if (num != bottomCount)
+			throw new RuntimeException("Ladder queue bottom count verify failed");
+
+		if (verifyNodeCount() != index.size())
+			throw new RuntimeException("Ladder queue index count verify failed");
+	}
+
+	private void verifyLinks(EventNode n) {
+		if (n.right != null && n.right.left != n)
+			throw new RuntimeException("Ladder queue link verify failed");
+		if (find(n.schedTick, n.priority) != n)
+			throw new RuntimeException("Ladder queue index verify failed");
+	}
+
+	private int findRung(long tick) {
+		for (int i = 0; i < numRungs; i++) {
+			if (rungs[i].getBucket(tick) >= rungs[i].cur)
+				return i;
+		}
+		return -1;
+	}
+
+	@Override
+	final int verifyNodeCount() {
+		int num = topCount + bottomCount;
+		for (int i = 0; i < numRungs; i++)
+			num += rungs[i].count;
+		return num;
+	}
+}
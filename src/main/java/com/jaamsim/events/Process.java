@@ -38,9 +38,14 @@ final class Process extends Thread {
 	private static final int maxPoolSize = 100; // Maximum number of Processes allowed to be pooled at a given time
 	private static int numProcesses = 0; // Total of all created processes to date (used to name new Processes)
 
+	// Process whose conditionals are being evaluated by a worker thread on its behalf
+	private static final ThreadLocal<Process> evaluating = new ThreadLocal<>();
+
 	private EventManager eventManager; // The EventManager that is currently managing this Process
 	private Process nextProcess; // The Process from which the present process was created
 	private ProcessTarget target; // The entity whose method is to be executed
+	private final WaitTarget waitTarget; // Target used to resume this Process after a wait
+	private ProcessTarget startTarget; // The target whose execution is suspended in this Process
 
 	// These are a very special references that is only safe to use from the currently
 	// executing Process, they are essentially Threadlocal variables that are only valid
@@ -60,18 +65,64 @@ final class Process extends Thread {
 	private Process(String name) {
 		// Construct a thread with the given name
 		super(name);
+		waitTarget = new WaitTarget(this);
+	}
+
+	/**
+	 * Returns the target used to resume this Process after it waits for an
+	 * event or a conditional. A Process has at most one wait pending, so the
+	 * same target is reused for every wait.
+	 */
+	final WaitTarget getWaitTarget() {
+		return waitTarget;
+	}
+
+	/**
+	 * Returns the target whose execution is in progress in this Process, or
+	 * null if the Process is not executing a target.
+	 */
+	final ProcessTarget getStartTarget() {
+		return startTarget;
+	}
+
+	final void setStartTarget(ProcessTarget t) {
+		startTarget = t;
 	}
 
 	/**
 	 * Returns the currently executing Process.
 	 */
 	static final Process current() {
-		try {
-			return (Process)Thread.currentThread();
-		}
-		catch (ClassCastException e) {
-			throw new ProcessError("Non-process thread called Process.current()");
-		}
+		Thread t = Thread.currentThread();
+		if (t instanceof Process)
+			return (Process)t;
+
+		Process p = evaluating.get();
+		if (p != null)
+			return p;
+
+		throw new ProcessError("Non-process thread called Process.current()");
+	}
+
+	/**
+	 * Returns true if the current thread is a Process, or is evaluating
+	 * conditionals on behalf of one.
+	 */
+	static final boolean hasCurrent() {
+		return Thread.currentThread() instanceof Process || evaluating.get() != null;
+	}
+
+	/**
+	 * Sets the Process on whose behalf the current worker thread evaluates
+	 * conditionals, or null when the evaluation is finished. The Process is
+	 * blocked in the conditional check for the duration, so only its read-only
+	 * state may be used by the worker.
+	 */
+	static final void setEvaluating(Process p) {
+		if (p == null)
+			evaluating.remove();
+		else
+			evaluating.set(p);
 	}
 
 	/**
@@ -103,6 +154,7 @@ final class Process extends Thread {
 			// Ensure all state is cleared before returning to the pool
 			evt = null;
 			hasNext = false;
+			startTarget = null;
 			setup(null, null, null);
 		}
 	}
@@ -23,4 +23,8 @@ final class ProcessError extends RuntimeException {
 	ProcessError(String msg) {
 		super(msg);
 	}
+
+	ProcessError(String msg, Throwable cause) {
+		super(msg, cause);
+	}
 }
@@ -21,6 +21,13 @@ public abstract class ProcessTarget {
 
 	void kill() {}
 
+	/**
+	 * Returns the object used to group the execution times for events when
+	 * they are profiled, normally the object that the target acts on. The
+	 * profiler keeps the object for the rest of the run.
+	 */
+	public Object getOwner() { return null; }
+
 	public abstract String getDescription();
 	public abstract void process();
 }
@@ -0,0 +1,435 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+/**
+ * TimingWheel is a hierarchical timing wheel (Varghese and Lauck, 1987) that
+ * holds the EventNodes scheduled within a fixed horizon of the wheel time in
+ * O(1), and passes the remainder to an EventTree. The nodes are held in three
+ * places:
+ * <ul>
+ * <li>Bottom - a sorted list of the nodes with ticks before the wheel time,
+ * which are the next nodes to be returned
+ * <li>Wheel - levels of 64 slots, the slots at level L covering 64^L ticks.
+ * A node is held at the lowest level whose slots separate it from the wheel
+ * time. When the wheel time enters a slot at level L, the nodes in that slot
+ * are cascaded down to the lower levels.
+ * <li>Overflow - an EventTree holding the nodes beyond the horizon. They are
+ * moved into the wheel when the wheel time reaches their part of the horizon.
+ * </ul>
+ * The location of a node is not stored in the node, it is recalculated from the
+ * node's tick and the wheel time. The left and right references in each node
+ * are used as the previous and next links for the list holding it. A hash index
+ * on tick and priority is used to find the nodes held in the bottom and wheel.
+ */
+final class TimingWheel extends EventQueue {
+	private static final int SLOT_BITS = 6;
+	private static final int NUM_SLOTS = 1 << SLOT_BITS;
+	private static final long SLOT_MASK = NUM_SLOTS - 1;
+	static final int MAX_LEVELS = 10;
+
+	private final int numLevels;
+	private final int horizonBits;   // number of low-order tick bits covered by the wheel
+
+	// Bottom
+	private EventNode bottomHead;
+	private EventNode bottomTail;
+	private int bottomCount;
+
+	// Wheel
+	private long wheelTick;          // ticks before this are in the bottom, the rest in the wheel or overflow
+	private final EventNode[][] slots;
+	private final long[] occupied;   // bit set for each non-empty slot at each level
+	private int wheelCount;
+
+	// Overflow
+	private final EventTree overflow = new EventTree();
+
+	private final EventNodeIndex index = new EventNodeIndex();
+	private EventNode freeList = null;
+
+	/**
+	 * Creates a timing wheel with enough levels to cover the given number of
+	 * ticks.
+	 * @param horizon - number of ticks beyond the wheel time to be held in the wheel
+	 */
+	TimingWheel(long horizon) {
+		int levels = 1;
+		while (levels < MAX_LEVELS && (1L << (SLOT_BITS * levels)) < horizon)
+			levels++;
+
+		numLevels = levels;
+		horizonBits = SLOT_BITS * levels;
+		slots = new EventNode[numLevels][NUM_SLOTS];
+		occupied = new long[numLevels];
+		this.reset();
+	}
+
+	/**
+	 * Returns the number of ticks covered by the wheel.
+	 */
+	long getHorizon() {
+		return 1L << horizonBits;
+	}
+
+	@Override
+	final EventNode getNextNode() {
+		if (bottomHead == null)
+			refillBottom();
+		if (bottomHead == null)
+			return overflow.getNextNode();
+		return bottomHead;
+	}
+
+	@Override
+	final void reset() {
+		bottomHead = null;
+		bottomTail = null;
+		bottomCount = 0;
+		wheelTick = 0;
+		for (int i = 0; i < numLevels; i++) {
+			for (int j = 0; j < NUM_SLOTS; j++)
+				slots[i][j] = null;
+			occupied[i] = 0;
+		}
+		wheelCount = 0;
+		overflow.reset();
+		index.clear();
+		freeList = null;
+	}
+
+	@Override
+	final EventNode createOrFindNode(long schedTick, int priority) {
+		if (isOverflow(schedTick))
+			return overflow.createOrFindNode(schedTick, priority);
+
+		EventNode node = index.find(schedTick, priority);
+		if (node != null)
+			return node;
+
+		node = getNewNode(schedTick, priority);
+		index.add(node);
+		insert(node);
+		return node;
+	}
+
+	@Override
+	final boolean removeNode(long schedTick, int priority) {
+		if (isOverflow(schedTick))
+			return overflow.removeNode(schedTick, priority);
+
+		EventNode node = index.find(schedTick, priority);
+		if (node == null)
+			return false;
+
+		// Debugging
+		if (node.head != null || node.tail != null)
+			throw new RuntimeException("Removing non-empy node");
+
+		index.remove(node);
+		unlink(node);
+		reuseNode(node);
+		return true;
+	}
+
+	@Override
+	final EventNode find(long schedTick, int priority) {
+		if (isOverflow(schedTick))
+			return overflow.find(schedTick, priority);
+		return index.find(schedTick, priority);
+	}
+
+	@Override
+	final void runOnAllNodes(EventNode.Runner runner) {
+		for (EventNode n : index.getSortedNodes()) {
+			runner.runOnNode(n);
+		}
+
+		// Every overflow node follows the nodes in the bottom and wheel
+		overflow.runOnAllNodes(runner);
+	}
+
+	/**
+	 * Returns true if a node with the given tick is held by the overflow tree.
+	 * Nodes at the largest possible tick are always held in the overflow tree
+	 * so that the wheel time never needs to pass them.
+	 */
+	private boolean isOverflow(long tick) {
+		if (tick < wheelTick)
+			return false;
+		return (tick >>> horizonBits) != (wheelTick >>> horizonBits) || tick == Long.MAX_VALUE;
+	}
+
+	/**
+	 * Returns the wheel level for a tick that is not before the wheel time and
+	 * is within the horizon.
+	 */
+	private int getLevel(long tick) {
+		long diff = tick ^ wheelTick;
+		if (diff == 0)
+			return 0;
+		return (63 - Long.numberOfLeadingZeros(diff)) / SLOT_BITS;
+	}
+
+	private static int getSlot(long tick, int level) {
+		return (int)((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+	}
+
+	// Add a node to the bottom or the wheel
+	private void insert(EventNode node) {
+		long tick = node.schedTick;
+		if (tick < wheelTick) {
+			addToBottom(node);
+			return;
+		}
+
+		int level = getLevel(tick);
+		int slot = getSlot(tick, level);
+		EventNode head = slots[level][slot];
+		node.left = null;
+		node.right = head;
+		if (head != null)
+			head.left = node;
+		slots[level][slot] = node;
+		occupied[level] |= 1L << slot;
+		wheelCount++;
+	}
+
+	// Remove a node from the bottom or the wheel
+	private void unlink(EventNode node) {
+		long tick = node.schedTick;
+		EventNode prev = node.left;
+		EventNode next = node.right;
+		if (next != null)
+			next.left = prev;
+
+		if (tick < wheelTick) {
+			if (prev == null)
+				bottomHead = next;
+			else
+				prev.right = next;
+			if (next == null)
+				bottomTail = prev;
+			bottomCount--;
+			return;
+		}
+
+		if (prev == null) {
+			int level = getLevel(tick);
+			int slot = getSlot(tick, level);
+			slots[level][slot] = next;
+			if (next == null)
+				occupied[level] &= ~(1L << slot);
+		}
+		else {
+			prev.right = next;
+		}
+		wheelCount--;
+	}
+
+	// Insert a node into the sorted bottom list, searching from the end
+	private void addToBottom(EventNode node) {
+		EventNode prev = bottomTail;
+		while (prev != null && prev.compareToNode(node) > 0)
+			prev = prev.left;
+
+		EventNode next = (prev == null) ? bottomHead : prev.right;
+		node.left = prev;
+		node.right = next;
+		if (prev == null)
+			bottomHead = node;
+		else
+			prev.right = node;
+		if (next == null)
+			bottomTail = node;
+		else
+			next.left = node;
+		bottomCount++;
+	}
+
+	// Advance the wheel time until there are nodes in the bottom
+	private void refillBottom() {
+		while (bottomHead == null) {
+			if (wheelCount == 0) {
+				EventNode first = overflow.getNextNode();
+				if (first == null || first.schedTick == Long.MAX_VALUE)
+					return;
+
+				setWheelTick(first.schedTick);
+				continue;
+			}
+
+			// Move the first non-empty slot at the lowest level to the bottom.
+			// All the nodes in a lowest level slot share the same tick.
+			long bits = occupied[0] & (-1L << getSlot(wheelTick, 0));
+			if (bits != 0) {
+				int slot = Long.numberOfTrailingZeros(bits);
+				EventNode list = slots[0][slot];
+				slots[0][slot] = null;
+				occupied[0] &= ~(1L << slot);
+				setWheelTick(list.schedTick + 1);
+
+				EventNode n = list;
+				while (n != null) {
+					EventNode next = n.right;
+					wheelCount--;
+					addToBottom(n);
+					n = next;
+				}
+				continue;
+			}
+
+			// Advance to the start of the next non-empty slot at a higher level
+			for (int level = 1; level < numLevels; level++) {
+				bits = occupied[level] & (-2L << getSlot(wheelTick, level));
+				if (bits == 0)
+					continue;
+
+				int slot = Long.numberOfTrailingZeros(bits);
+				int shift = SLOT_BITS * level;
+				long start = ((wheelTick >>> (shift + SLOT_BITS)) << (shift + SLOT_BITS)) | ((long)slot << shift);
+				setWheelTick(start);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Advances the wheel time, cascading the nodes in each slot that is entered
+	 * to the lower levels. The wheel time must only pass ticks that have no
+	 * nodes in the wheel.
+	 */
+	private void setWheelTick(long tick) {
+		long oldTick = wheelTick;
+		wheelTick = tick;
+
+		// Move the overflow nodes that are now within the horizon into the wheel
+		if ((tick >>> horizonBits) != (oldTick >>> horizonBits)) {
+			while (true) {
+				EventNode first = overflow.getNextNode();
+				if (first == null || isOverflow(first.schedTick))
+					break;
+
+				// The tree may move events between its nodes, so a new node is used
+				EventNode node = getNewNode(first.schedTick, first.priority);
+				node.cloneFrom(first);
+				first.head = null;
+				first.tail = null;
+				overflow.removeNode(node.schedTick, node.priority);
+				index.add(node);
+				insert(node);
+			}
+		}
+
+		for (int level = numLevels - 1; level > 0; level--) {
+			int shift = SLOT_BITS * level;
+			if ((tick >>> shift) == (oldTick >>> shift))
+				continue;
+
+			int slot = getSlot(tick, level);
+			EventNode n = slots[level][slot];
+			if (n == null)
+				continue;
+
+			slots[level][slot] = null;
+			occupied[level] &= ~(1L << slot);
+			while (n != null) {
+				EventNode next = n.right;
+				wheelCount--;
+				insert(n);
+				n = next;
+			}
+		}
+	}
+
+	private EventNode getNewNode(long schedTick, int priority) {
+		if (freeList == null) {
+			return new EventNode(schedTick, priority);
+		}
+
+		EventNode ret = freeList;
+		freeList = freeList.right;
+
+		ret.schedTick = schedTick;
+		ret.priority = priority;
+		ret.head = null;
+		ret.tail = null;
+		return ret;
+	}
+
+	private void reuseNode(EventNode node) {
+		node.left = null;
+		node.head = null;
+		node.tail = null;
+
+		node.right = freeList;
+		freeList = node;
+	}
+
+	@Override
+	final void verify() {
+		int num = 0;
+		for (EventNode n = bottomHead; n != null; n = n.right) {
+			if (n.schedTick >= wheelTick)
+				throw new RuntimeException("Timing wheel bottom verify failed");
+			if (n.right != null && n.compareToNode(n.right) >= 0)
+				throw new RuntimeException("Timing wheel bottom order verify failed");
+			if (n.right == null && n != bottomTail)
+				throw new RuntimeException("Timing wheel bottom tail verify failed");
+			verifyLinks(n);
+			num++;
+		}
+		if (num != bottomCount)
+			throw new RuntimeException("Timing wheel bottom count verify failed");
+
+		num = 0;
+		for (int level = 0; level < numLevels; level++) {
+			for (int slot = 0; slot < NUM_SLOTS; slot++) {
+				EventNode head = slots[level][slot];
+				if ((head != null) != ((occupied[level] & (1L << slot)) != 0))
+					throw new RuntimeException("Timing wheel occupied verify failed");
+
+				for (EventNode n = head; n != null; n = n.right) {
+					if (n.schedTick < wheelTick || isOverflow(n.schedTick) ||
+					    getLevel(n.schedTick) != level || getSlot(n.schedTick, level) != slot)
+						throw new RuntimeException("Timing wheel slot verify failed");
+					verifyLinks(n);
+					num++;
+				}
+			}
+		}
+		if (num != wheelCount)
+			throw new RuntimeException("Timing wheel count verify failed");
+
+		if (bottomCount + wheelCount != index.size())
+			throw new RuntimeException("Timing wheel index count verify failed");
+
+		overflow.verify();
+	}
+
+	private void verifyLinks(EventNode n) {
+		if (n.right != null && n.right.left != n)
+			throw new RuntimeException("Timing wheel link verify failed");
+		if (find(n.schedTick, n.priority) != n)
+			throw new RuntimeException("Timing wheel index verify failed");
+	}
+
+	@Override
+	final int verifyNodeCount() {
+		return bottomCount + wheelCount + overflow.verifyNodeCount();
+	}
+}
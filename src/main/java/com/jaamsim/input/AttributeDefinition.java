@@ -0,0 +1,54 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import com.jaamsim.units.Unit;
+
+/**
+ * The name, unit type and initial value for an attribute, as defined by the
+ * AttributeDefinitionList input. The list of definitions is shared by an
+ * entity and its copies, and the position of a definition in the list gives
+ * the slot in which each entity stores the attribute's value.
+ */
+public final class AttributeDefinition {
+	private final String name;
+	private final Class<? extends Unit> unitType;
+	private final ExpResult initialValue;
+
+	public AttributeDefinition(String attribName, Class<? extends Unit> ut, ExpResult init) {
+		name = attribName.intern();
+		unitType = ut;
+		initialValue = init;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Class<? extends Unit> getUnitType() {
+		return unitType;
+	}
+
+	public ExpResult getInitialValue() {
+		return initialValue.getCopy();
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
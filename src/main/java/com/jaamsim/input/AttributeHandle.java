@@ -18,45 +18,33 @@ package com.jaamsim.input;
 
 import com.jaamsim.basicsim.Entity;
 
+/**
+ * OutputHandle for an attribute. The value is held by the entity in the slot
+ * for the attribute's name.
+ */
 public class AttributeHandle extends OutputHandle {
 	private final String attributeName;
-	private ExpResult initialValue;
-	private ExpResult value;
 
 	public AttributeHandle(Entity e, String outputName) {
 		super(e);
 		this.attributeName = outputName;
 	}
 
-	public void setInitialValue(ExpResult val) {
-		initialValue = val;
-	}
-
-	public ExpResult getInitialValue() {
-		return initialValue.getCopy();
-	}
-
-	public void setValue(ExpResult val) {
-		value = val;
-	}
-
 	@Override
 	public <T> T getValue(double simTime, Class<T> klass) {
-		if (!ent.hasAttribute(attributeName)) {
-			return null;
-		}
-		if (value == null) {
+		int slot = ent.getAttributeSlot(attributeName);
+		if (slot < 0) {
 			return null;
 		}
-		return value.getValue(simTime, klass);
+		return ent.getAttributeValue(slot).getValue(simTime, klass);
 	}
 
 	@Override
 	public double getValueAsDouble(double simTime, double def) {
-		if (value.type == ExpResType.NUMBER)
-			return value.value;
-		else
+		int slot = ent.getAttributeSlot(attributeName);
+		if (slot < 0)
 			return def;
+		return ent.getAttributeNumber(slot, def);
 	}
 
 	@Override
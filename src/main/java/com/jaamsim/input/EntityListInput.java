@@ -30,6 +30,8 @@ public class EntityListInput<T extends Entity> extends ListInput<ArrayList<T>> {
 	private ArrayList<Class<? extends Entity>> validClasses; // list of valid classes (including subclasses).  if empty, then all classes are valid
 	private ArrayList<Class<? extends Entity>> invalidClasses; // list of invalid classes (including subclasses).
 
+	private static final ArrayList<Class<? extends Entity>> noClasses = new ArrayList<>(0);
+
 	public EntityListInput(Class<T> aClass, String key, String cat, ArrayList<T> def) {
 		super(key, cat, def);
 		entClass = aClass;
@@ -37,8 +39,8 @@ public class EntityListInput<T extends Entity> extends ListInput<ArrayList<T>> {
 		even = false;
 		includeSubclasses = true;
 		includeSelf = true;
-		validClasses = new ArrayList<>();
-		invalidClasses = new ArrayList<>();
+		validClasses = noClasses;
+		invalidClasses = noClasses;
 	}
 
 	@Override
@@ -232,9 +234,13 @@ public class EntityListInput<T extends Entity> extends ListInput<ArrayList<T>> {
 
 	@Override
 	public void removeReferences(Entity ent) {
-		if (value == null)
+		if (value == null || !value.contains(ent))
 			return;
-		value.removeAll(Collections.singleton(ent));
+
+		// The value may be shared with other inputs, so it is replaced instead of modified
+		ArrayList<T> newValue = new ArrayList<>(value);
+		newValue.removeAll(Collections.singleton(ent));
+		value = newValue;
 	}
 
 }
@@ -91,9 +91,24 @@ public class EntityListListInput<T extends Entity> extends ListInput<ArrayList<A
 		if (value == null)
 			return;
 
+		boolean found = false;
 		for (ArrayList<T> list : value) {
-			list.removeAll(Collections.singleton(ent));
+			if (list.contains(ent)) {
+				found = true;
+				break;
+			}
+		}
+		if (!found)
+			return;
+
+		// The value may be shared with other inputs, so it is replaced instead of modified
+		ArrayList<ArrayList<T>> newValue = new ArrayList<>(value.size());
+		for (ArrayList<T> list : value) {
+			ArrayList<T> newList = new ArrayList<>(list);
+			newList.removeAll(Collections.singleton(ent));
+			newValue.add(newList);
 		}
+		value = newValue;
 	}
 
 }
@@ -17,6 +17,7 @@
  */
 package com.jaamsim.input;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -278,9 +279,36 @@ public class ExpEvaluator {
 
 	}
 
+	/**
+	 * Slot for an attribute in the entities that share a list of attribute
+	 * definitions.
+	 */
+	private static final class AttributeSlot {
+		final ArrayList<AttributeDefinition> defs;
+		final int slot;
+
+		AttributeSlot(ArrayList<AttributeDefinition> d, int s) {
+			defs = d;
+			slot = s;
+		}
+
+		/**
+		 * Returns the slot for the attribute with the given name, or -1 if the
+		 * entity has no such attribute. The last slot found is re-used for
+		 * entities with the same attribute definitions.
+		 */
+		static AttributeSlot find(AttributeSlot last, Entity ent, String name) {
+			ArrayList<AttributeDefinition> defs = ent.getAttributeDefinitions();
+			if (last != null && last.defs == defs)
+				return last;
+			return new AttributeSlot(defs, ent.getAttributeSlot(name));
+		}
+	}
+
 	private static class EntityResolver implements ExpParser.OutputResolver {
 
 		private final String outputName;
+		private AttributeSlot attribSlot;  // slot for the attribute, if the output is an attribute
 
 		public EntityResolver(String name) {
 			outputName = name.intern();
@@ -304,6 +332,12 @@ public class ExpEvaluator {
 				throw new ExpError(null, 0, "Trying to resolve output on null entity");
 			}
 
+			// Attributes are read directly from their slots
+			AttributeSlot as = AttributeSlot.find(attribSlot, ent, outputName);
+			attribSlot = as;
+			if (as.slot >= 0)
+				return ent.getAttributeValue(as.slot);
+
 			OutputHandle oh = ent.getOutputHandleInterned(outputName);
 			if (oh == null) {
 				throw new ExpError(null, 0, "Could not find output '%s' on entity '%s'", outputName, ent.getName());
@@ -334,8 +368,10 @@ public class ExpEvaluator {
 	private static class EntityAssigner implements ExpParser.Assigner {
 
 		private final String attribName;
+		private AttributeSlot attribSlot;
+
 		EntityAssigner(String attribName) {
-			this.attribName = attribName;
+			this.attribName = attribName.intern();
 		}
 
 		@Override
@@ -348,7 +384,12 @@ public class ExpEvaluator {
 				throw new ExpError(null, 0, "Trying to assign to a null entity");
 			}
 
-			assignEnt.setAttribute(attribName, index, val);
+			AttributeSlot as = AttributeSlot.find(attribSlot, assignEnt, attribName);
+			attribSlot = as;
+			if (as.slot < 0)
+				assignEnt.setAttribute(attribName, index, val);
+			else
+				assignEnt.setAttribute(as.slot, index, val);
 		}
 
 	}
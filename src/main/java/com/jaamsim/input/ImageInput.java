@@ -21,7 +21,13 @@ import java.net.URI;
 
 import javax.imageio.ImageIO;
 
+/**
+ * Input for an image file. The image is not read until it is needed, so that
+ * loading a model does not start the image decoders when the model is executed
+ * without a user interface.
+ */
 public class ImageInput extends Input<BufferedImage> {
+	private URI uri;
 
 	public ImageInput(String key, String cat, BufferedImage def) {
 		super(key, cat, def);
@@ -29,22 +35,46 @@ public class ImageInput extends Input<BufferedImage> {
 
 	@Override
 	public void parse(KeywordIndex kw) throws InputErrorException {
-		BufferedImage temp;
-		URI uri = Input.parseURI(kw);
+		URI temp = Input.parseURI(kw);
 
 		// Confirm that the file exists
-		if (!InputAgent.fileExists(uri))
+		if (!InputAgent.fileExists(temp))
 			throw new InputErrorException("The specified file does not exist.\n" +
 					"File path = %s", kw.getArg(0));
 
-		try {
-			temp = ImageIO.read(uri.toURL());
-		}
-		catch (Exception ex) {
-			throw new InputErrorException("Bad image file");
-		}
+		uri = temp;
+		value = null;
+	}
+
+	@Override
+	public void copyFrom(Input<?> in) {
+		super.copyFrom(in);
+		uri = ((ImageInput) in).uri;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		uri = null;
+	}
 
-		value = temp;
+	/**
+	 * Returns the image, reading it from its file the first time it is
+	 * requested. Returns null if the file is not a valid image.
+	 */
+	@Override
+	public BufferedImage getValue() {
+		if (value == null && uri != null) {
+			try {
+				value = ImageIO.read(uri.toURL());
+			}
+			catch (Exception ex) {
+				InputAgent.logMessage("Bad image file: %s", uri);
+			}
+			if (value == null)
+				uri = null;
+		}
+		return value;
 	}
 
 }
@@ -175,6 +175,9 @@ public abstract class Input<T> {
 	/**
 	 * Assigns the internal state for this input to the same values as the
 	 * specified input.
+	 * <p>
+	 * The value object is shared with the specified input, not copied, so an
+	 * input must replace its value rather than modify it when it is changed.
 	 * @param in - input object to be copied.
 	 */
 	public void copyFrom(Input<?> in) {
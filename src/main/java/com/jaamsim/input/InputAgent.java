@@ -42,14 +42,14 @@ import com.jaamsim.StringProviders.StringProvider;
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.ErrorException;
 import com.jaamsim.basicsim.FileEntity;
+import com.jaamsim.basicsim.GUIListener;
 import com.jaamsim.basicsim.Group;
+import com.jaamsim.basicsim.JaamSimModel;
 import com.jaamsim.basicsim.ObjectType;
 import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.datatypes.DoubleVector;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.math.Vec3d;
-import com.jaamsim.ui.GUIFrame;
-import com.jaamsim.ui.LogBox;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.TimeUnit;
 import com.jaamsim.units.Unit;
@@ -57,40 +57,18 @@ import com.jaamsim.units.Unit;
 public class InputAgent {
 	private static final String recordEditsMarker = "RecordEdits";
 
-	private static int numErrors = 0;
-	private static int numWarnings = 0;
-	private static FileEntity logFile;
-
-	private static long lastTickForTrace;
-
-	private static File configFile;           // present configuration file
+	// The state for the model being read is held by JaamSimModel.getCurrent()
 	private static boolean batchRun;
 	private static boolean scriptMode;        // TRUE if script mode (command line) is specified
-	private static boolean sessionEdited;     // TRUE if any inputs have been changed after loading a configuration file
-	private static boolean recordEditsFound;  // TRUE if the "RecordEdits" marker is found in the configuration file
-	private static boolean recordEdits;       // TRUE if input changes are to be marked as edited.
 
 	private static final String INP_ERR_DEFINEUSED = "The name: %s has already been used and is a %s";
 	private static final String[] EARLY_KEYWORDS = {"UnitType", "UnitTypeList", "DataFile", "AttributeDefinitionList", "CustomOutputList"};
 
-	private static File reportDir;
-	private static FileEntity reportFile;     // file to which the output report will be written
-	private static PrintStream outStream;  // location where the selected outputs will be written
-
-	private static long preDefinedEntityCount; // Number of Entities after loading autoload.cfg
-
 	private static ArrayList<Command> undoList;
 	private static ArrayList<Command> redoList;
 
 	static {
-		recordEditsFound = false;
-		sessionEdited = false;
 		batchRun = false;
-		configFile = null;
-		reportDir = null;
-		reportFile = null;
-		outStream = null;
-		lastTickForTrace = -1l;
 		undoList = new ArrayList<>();
 		redoList = new ArrayList<>();
 	}
@@ -99,14 +77,13 @@ public class InputAgent {
 	 * Clears the InputAgent prior to loading a new model.
 	 */
 	public static void clear() {
-		logFile = null;
-		numErrors = 0;
-		numWarnings = 0;
-		recordEditsFound = false;
+		JaamSimModel sim = JaamSimModel.getCurrent();
+		sim.setLogFile(null);
+		sim.resetErrorCounts();
+		sim.setRecordEditsFound(false);
 		setSessionEdited(false);
-		configFile = null;
-		reportDir = null;
-		lastTickForTrace = -1l;
+		sim.setConfigFile(null);
+		sim.setLastTickForTrace(-1L);
 		setReportDirectory(null);
 		stop();
 		undoList.clear();
@@ -117,25 +94,27 @@ public class InputAgent {
 	 * Resets the InputAgent when a run is stopped and reset to zero simulation time.
 	 */
 	public static void stop() {
-
-		if (reportFile != null) {
-			reportFile.close();
-			reportFile = null;
+		JaamSimModel sim = JaamSimModel.getCurrent();
+		if (sim.getReportFile() != null) {
+			sim.getReportFile().close();
+			sim.setReportFile(null);
 		}
-		if (outStream != null) {
-			outStream.close();
-			outStream = null;
+		if (sim.getOutStream() != null) {
+			sim.getOutStream().close();
+			sim.setOutStream(null);
 		}
 	}
 
 	public static void setPreDefinedEntityCount(long count) {
-		preDefinedEntityCount = count;
+		JaamSimModel.getCurrent().setPreDefinedEntityCount(count);
 	}
 
 	private static String getReportDirectory() {
+		File reportDir = JaamSimModel.getCurrent().getReportDirectory();
 		if (reportDir != null)
 			return reportDir.getPath() + File.separator;
 
+		File configFile = JaamSimModel.getCurrent().getConfigFile();
 		if (configFile != null)
 			return configFile.getParentFile().getPath() + File.separator;
 
@@ -147,14 +126,15 @@ public class InputAgent {
 	}
 
 	public static void setReportDirectory(File dir) {
-		reportDir = dir;
-		if (reportDir == null)
+		JaamSimModel.getCurrent().setReportDirectory(dir);
+		if (dir == null)
 			return;
-		if (!reportDir.exists() && !reportDir.mkdirs())
-			throw new InputErrorException("Was unable to create the Report Directory: %s", reportDir.toString());
+		if (!dir.exists() && !dir.mkdirs())
+			throw new InputErrorException("Was unable to create the Report Directory: %s", dir.toString());
 	}
 
 	public static void prepareReportDirectory() {
+		File reportDir = JaamSimModel.getCurrent().getReportDirectory();
 		if (reportDir != null) reportDir.mkdirs();
 	}
 
@@ -164,7 +144,7 @@ public class InputAgent {
 	 * @param file - the present configuration file.
 	 */
 	public static void setConfigFile(File file) {
-		configFile = file;
+		JaamSimModel.getCurrent().setConfigFile(file);
 	}
 
 	/**
@@ -175,7 +155,7 @@ public class InputAgent {
 	 * @return the present configuration file.
 	 */
 	public static File getConfigFile() {
-		return configFile;
+		return JaamSimModel.getCurrent().getConfigFile();
 	}
 
 	/**
@@ -205,7 +185,7 @@ public class InputAgent {
 	 * @param bool - TRUE if a RecordEdits marker was found.
 	 */
 	public static void setRecordEditsFound(boolean bool) {
-		recordEditsFound = bool;
+		JaamSimModel.getCurrent().setRecordEditsFound(bool);
 	}
 
 	/**
@@ -214,7 +194,7 @@ public class InputAgent {
 	 * @return - TRUE if a RecordEdits marker was found.
 	 */
 	public static boolean getRecordEditsFound() {
-		return recordEditsFound;
+		return JaamSimModel.getCurrent().getRecordEditsFound();
 	}
 
 	/**
@@ -233,7 +213,7 @@ public class InputAgent {
 	 * @return the RecordEdits mode for the InputAgent.
 	 */
 	public static boolean recordEdits() {
-		return recordEdits;
+		return JaamSimModel.getCurrent().getRecordEdits();
 	}
 
 	/**
@@ -252,18 +232,21 @@ public class InputAgent {
 	 * @param b - boolean value for the RecordEdits mode
 	 */
 	public static void setRecordEdits(boolean b) {
-		recordEdits = b;
+		JaamSimModel.getCurrent().setRecordEdits(b);
 	}
 
 	public static void setSessionEdited(boolean bool) {
-		if (bool == sessionEdited)
+		JaamSimModel sim = JaamSimModel.getCurrent();
+		if (bool == sim.isSessionEdited())
 			return;
-		sessionEdited = bool;
-		GUIFrame.updateSaveButton();
+		sim.setSessionEdited(bool);
+		GUIListener gui = sim.getGUIListener();
+		if (gui != null)
+			gui.updateSaveButton();
 	}
 
 	public static boolean isSessionEdited() {
-		return sessionEdited;
+		return JaamSimModel.getCurrent().isSessionEdited();
 	}
 
 	public static void setBatch(boolean batch) {
@@ -296,7 +279,7 @@ public class InputAgent {
 		}
 		cmd.execute();
 		redoList.clear();
-		GUIFrame.getInstance().updateForUndo();
+		InputAgent.updateForUndo();
 	}
 
 	public static void undo() {
@@ -305,7 +288,7 @@ public class InputAgent {
 		Command cmd = undoList.remove(undoList.size() - 1);
 		redoList.add(cmd);
 		cmd.undo();
-		GUIFrame.getInstance().updateForUndo();
+		InputAgent.updateForUndo();
 	}
 
 	public static void redo() {
@@ -314,7 +297,7 @@ public class InputAgent {
 		Command cmd = redoList.remove(redoList.size() - 1);
 		undoList.add(cmd);
 		cmd.execute();
-		GUIFrame.getInstance().updateForUndo();
+		InputAgent.updateForUndo();
 	}
 
 	public static boolean hasUndo() {
@@ -562,6 +545,29 @@ public class InputAgent {
 		return ent;
 	}
 
+	/**
+	 * Creates a generated entity whose name is the given prefix followed by
+	 * the given number. The name is only built when it is first requested, so
+	 * the prefix is not checked and must already be a valid entity name.
+	 * @param proto - class of the entity to create
+	 * @param prefix - start of the name for the entity
+	 * @param num - number that completes the name
+	 * @return new entity, or null if it could not be created
+	 */
+	public static <T extends Entity> T generateEntityWithName(Class<T> proto, String prefix, long num) {
+		if (prefix == null)
+			throw new ErrorException("Must provide a name for generated Entities");
+
+		T ent = createInstance(proto);
+		if (ent == null) {
+			InputAgent.logError("Could not create new Entity: %s%d", prefix, num);
+			return null;
+		}
+		ent.setFlag(Entity.FLAG_GENERATED);
+		ent.setGeneratedName(prefix, num);
+		return ent;
+	}
+
 	public static String getUniqueName(String name, String sep) {
 
 		// Is the provided name unused?
@@ -592,7 +598,7 @@ public class InputAgent {
 		return defineEntity(proto, name, addedEntity);
 	}
 
-	private static boolean isValidName(String key) {
+	public static boolean isValidName(String key) {
 		for (int i = 0; i < key.length(); ++i) {
 			final char c = key.charAt(i);
 			if (c == ' ' || c == '\t' || c == '{' || c == '}')
@@ -719,17 +725,20 @@ public class InputAgent {
 	// Load the run file
 	public static void loadConfigurationFile( File file) throws URISyntaxException {
 
+		JaamSimModel sim = JaamSimModel.getCurrent();
 		String inputTraceFileName = InputAgent.getRunName() + ".log";
 		// Initializing the tracing for the model
 		URI logURI = null;
 		try {
-			LogBox.logLine( "Creating trace file" );
+			GUIListener gui = sim.getGUIListener();
+			if (gui != null)
+				gui.logLine("Creating trace file");
 
 			URI confURI = file.toURI();
 			logURI = confURI.resolve(new URI(null, inputTraceFileName, null)); // The new URI here effectively escapes the file name
 
 			// Set and open the input trace file name
-			logFile = new FileEntity( logURI.getPath());
+			sim.setLogFile(new FileEntity( logURI.getPath()));
 		}
 		catch( Exception e ) {
 			InputAgent.logWarning("Could not create trace file");
@@ -742,18 +751,19 @@ public class InputAgent {
 		setSessionEdited(false);
 
 		// Save and close the input trace file
+		FileEntity logFile = sim.getLogFile();
 		if (logFile != null) {
-			if (InputAgent.numWarnings == 0 && InputAgent.numErrors == 0) {
+			if (sim.getNumWarnings() == 0 && sim.getNumErrors() == 0) {
 				logFile.close();
 				logFile.delete();
 				if (logURI != null)
-					logFile = new FileEntity( logURI.getPath() );
+					sim.setLogFile(new FileEntity( logURI.getPath() ));
 			}
 		}
 
 		//  Check for found errors
-		if( InputAgent.numErrors > 0 )
-			throw new InputErrorException("%d input errors and %d warnings found", InputAgent.numErrors, InputAgent.numWarnings);
+		if( sim.getNumErrors() > 0 )
+			throw new InputErrorException("%d input errors and %d warnings found", sim.getNumErrors(), sim.getNumWarnings());
 
 		if (Simulation.getPrintInputReport())
 			InputAgent.printInputFileKeywords();
@@ -776,6 +786,12 @@ public class InputAgent {
 		InputAgent.apply(ent, kw);
 	}
 
+	private static void updateForUndo() {
+		GUIListener gui = JaamSimModel.getCurrent().getGUIListener();
+		if (gui != null)
+			gui.updateForUndo();
+	}
+
 	public static final void apply(Entity ent, KeywordIndex kw) {
 		Input<?> in = ent.getInput(kw.keyword);
 		if (in == null) {
@@ -784,7 +800,7 @@ public class InputAgent {
 		}
 
 		InputAgent.apply(ent, in, kw);
-		GUIFrame.updateUI();
+		JaamSimModel.getCurrent().updateUI();
 	}
 
 	public static final void apply(Entity ent, Input<?> in, KeywordIndex kw) {
@@ -814,7 +830,7 @@ public class InputAgent {
 		Input<?> input = entity.getInput( key.keyword );
 		if (input != null) {
 			InputAgent.apply(entity, input, key);
-			GUIFrame.updateUI();
+			JaamSimModel.getCurrent().updateUI();
 			return;
 		}
 
@@ -847,6 +863,7 @@ public class InputAgent {
 
 		FileEntity inputReportFile = new FileEntity( inputReportFileName);
 		inputReportFile.flush();
+		long preDefinedEntityCount = JaamSimModel.getCurrent().getPreDefinedEntityCount();
 
 		ArrayList<ObjectType> objectTypes = new ArrayList<>();
 		for (ObjectType type : ObjectType.getAll())
@@ -1053,16 +1070,18 @@ public class InputAgent {
 	}
 
 	public static void closeLogFile() {
+		JaamSimModel sim = JaamSimModel.getCurrent();
+		FileEntity logFile = sim.getLogFile();
 		if (logFile == null)
 			return;
 
 		logFile.flush();
 		logFile.close();
 
-		if (numErrors ==0 && numWarnings == 0) {
+		if (sim.getNumErrors() == 0 && sim.getNumWarnings() == 0) {
 			logFile.delete();
 		}
-		logFile = null;
+		sim.setLogFile(null);
 	}
 
 	private static final String errPrefix = "*** ERROR *** %s%n";
@@ -1070,14 +1089,15 @@ public class InputAgent {
 	private static final String wrnPrefix = "***WARNING*** %s%n";
 
 	public static int numErrors() {
-		return numErrors;
+		return JaamSimModel.getCurrent().getNumErrors();
 	}
 
 	public static int numWarnings() {
-		return numWarnings;
+		return JaamSimModel.getCurrent().getNumWarnings();
 	}
 
 	private static void echoInputRecord(ArrayList<String> tokens) {
+		FileEntity logFile = JaamSimModel.getCurrent().getLogFile();
 		if (logFile == null)
 			return;
 
@@ -1108,9 +1128,13 @@ public class InputAgent {
 	 */
 	public static void logMessage(String fmt, Object... args) {
 		String msg = String.format(fmt, args);
-		LogBox.logLine(msg);
+		JaamSimModel sim = JaamSimModel.getCurrent();
+		GUIListener gui = sim.getGUIListener();
+		if (gui != null)
+			gui.logLine(msg);
 		System.err.println(msg);
 
+		FileEntity logFile = sim.getLogFile();
 		if (logFile == null)
 			return;
 
@@ -1132,13 +1156,14 @@ public class InputAgent {
 	public static final void trace(int indent, Entity ent, String fmt, Object... args) {
 		// Print a TIME header every time time has advanced
 		long traceTick = EventManager.simTicks();
-		if (lastTickForTrace != traceTick) {
+		JaamSimModel sim = JaamSimModel.getCurrent();
+		if (sim.getLastTickForTrace() != traceTick) {
 			double unitFactor = Unit.getDisplayedUnitFactor(TimeUnit.class);
 			String unitString = Unit.getDisplayedUnit(TimeUnit.class);
 			System.out.format(" \nTIME = %.6f %s,  TICKS = %d\n",
 					EventManager.current().ticksToSeconds(traceTick) / unitFactor, unitString,
 					traceTick);
-			lastTickForTrace = traceTick;
+			sim.setLastTickForTrace(traceTick);
 		}
 
 		// Create an indent string to space the lines
@@ -1161,7 +1186,7 @@ public class InputAgent {
 	 * @param args - objects used by the format string
 	 */
 	public static void logWarning(String fmt, Object... args) {
-		numWarnings++;
+		JaamSimModel.getCurrent().incrementNumWarnings();
 		String msg = String.format(fmt, args);
 		InputAgent.logMessage(wrnPrefix, msg);
 	}
@@ -1172,7 +1197,7 @@ public class InputAgent {
 	 * @param args - objects used by the format string
 	 */
 	public static void logError(String fmt, Object... args) {
-		numErrors++;
+		JaamSimModel.getCurrent().incrementNumErrors();
 		String msg = String.format(fmt, args);
 		InputAgent.logMessage(errPrefix, msg);
 	}
@@ -1183,7 +1208,7 @@ public class InputAgent {
 	 * @param args - objects used by the format string
 	 */
 	public static void logInpError(String fmt, Object... args) {
-		numErrors++;
+		JaamSimModel.getCurrent().incrementNumErrors();
 		String msg = String.format(fmt, args);
 		InputAgent.logMessage(inpErrPrefix, msg);
 	}
@@ -1388,53 +1413,12 @@ public class InputAgent {
 	public static void printRunOutputs(double simTime) {
 
 		// Set up the custom outputs
+		JaamSimModel sim = JaamSimModel.getCurrent();
+		PrintStream outStream = sim.getOutStream();
 		if (outStream == null) {
-
-			// Select either standard out or a file for the outputs
-			outStream = System.out;
-			if (!InputAgent.isScriptMode()) {
-				StringBuilder sb = new StringBuilder();
-				sb.append(InputAgent.getReportFileName(InputAgent.getRunName()));
-				sb.append(".dat");
-				try {
-					outStream = new PrintStream(sb.toString());
-				}
-				catch (FileNotFoundException e) {
-					throw new InputErrorException(
-							"FileNotFoundException thrown trying to open PrintStream: " + e );
-				}
-				catch (SecurityException e) {
-					throw new InputErrorException(
-							"SecurityException thrown trying to open PrintStream: " + e );
-				}
-			}
-
-			// Write the header line for the expressions
-			StringBuilder sb = new StringBuilder();
-			ArrayList<String> toks = new ArrayList<>();
-			Simulation.getRunOutputList().getValueTokens(toks);
-			boolean first = true;
-			for (String str : toks) {
-				if (str.equals("{") || str.equals("}"))
-					continue;
-				if (first)
-					first = false;
-				else
-					sb.append("\t");
-				sb.append(str);
-			}
-			outStream.println(sb.toString());
-
-			// Write the header line for the units
-			sb = new StringBuilder();
-			for (int i=0; i<Simulation.getRunOutputList().getListSize(); i++) {
-				Class<? extends Unit> ut = Simulation.getRunOutputList().getUnitType(i);
-				String unit = Unit.getDisplayedUnit(ut);
-				if (i > 0)
-					sb.append("\t");
-				sb.append(unit);
-			}
-			outStream.println(sb.toString());
+			outStream = InputAgent.openRunOutputStream();
+			InputAgent.printRunOutputHeaders(outStream);
+			sim.setOutStream(outStream);
 		}
 
 		// Write the selected outputs
@@ -1458,8 +1442,67 @@ public class InputAgent {
 		// Terminate the outputs
 		if (Simulation.isLastRun()) {
 			outStream.close();
-			outStream = null;
+			sim.setOutStream(null);
+		}
+	}
+
+	/**
+	 * Opens the stream to which the selected outputs for the simulation runs
+	 * are written: standard out in script mode, or the .dat file otherwise.
+	 */
+	public static PrintStream openRunOutputStream() {
+		if (InputAgent.isScriptMode())
+			return System.out;
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(InputAgent.getReportFileName(InputAgent.getRunName()));
+		sb.append(".dat");
+		try {
+			return new PrintStream(sb.toString());
+		}
+		catch (FileNotFoundException e) {
+			throw new InputErrorException(
+					"FileNotFoundException thrown trying to open PrintStream: " + e );
+		}
+		catch (SecurityException e) {
+			throw new InputErrorException(
+					"SecurityException thrown trying to open PrintStream: " + e );
+		}
+	}
+
+	/**
+	 * Prints the header lines for the selected outputs: one line for the
+	 * expressions and one for their units.
+	 * @param outStream - stream to which the headers are written.
+	 */
+	public static void printRunOutputHeaders(PrintStream outStream) {
+
+		// Write the header line for the expressions
+		StringBuilder sb = new StringBuilder();
+		ArrayList<String> toks = new ArrayList<>();
+		Simulation.getRunOutputList().getValueTokens(toks);
+		boolean first = true;
+		for (String str : toks) {
+			if (str.equals("{") || str.equals("}"))
+				continue;
+			if (first)
+				first = false;
+			else
+				sb.append("\t");
+			sb.append(str);
 		}
+		outStream.println(sb.toString());
+
+		// Write the header line for the units
+		sb = new StringBuilder();
+		for (int i=0; i<Simulation.getRunOutputList().getListSize(); i++) {
+			Class<? extends Unit> ut = Simulation.getRunOutputList().getUnitType(i);
+			String unit = Unit.getDisplayedUnit(ut);
+			if (i > 0)
+				sb.append("\t");
+			sb.append(unit);
+		}
+		outStream.println(sb.toString());
 	}
 
 	/**
@@ -1469,11 +1512,14 @@ public class InputAgent {
 	public static void printReport(double simTime) {
 
 		// Create the report file
+		JaamSimModel sim = JaamSimModel.getCurrent();
+		FileEntity reportFile = sim.getReportFile();
 		if (reportFile == null) {
 			StringBuilder tmp = new StringBuilder("");
 			tmp.append(InputAgent.getReportFileName(InputAgent.getRunName()));
 			tmp.append(".rep");
 			reportFile = new FileEntity(tmp.toString());
+			sim.setReportFile(reportFile);
 		}
 
 		// Print run number header when multiple runs are to be performed
@@ -1527,7 +1573,7 @@ public class InputAgent {
 		// Close the report file
 		if (Simulation.isLastRun()) {
 			reportFile.close();
-			reportFile = null;
+			sim.setReportFile(null);
 		}
 	}
 
@@ -16,12 +16,16 @@
  */
 package com.jaamsim.input;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.ErrorException;
@@ -39,10 +43,22 @@ public class OutputHandle {
 	public OutputStaticInfo outputInfo;
 	public Class<? extends Unit> unitType;
 
-	private static final HashMap<Class<? extends Entity>, ArrayList<OutputStaticInfo>> outputInfoCache;
+	// Shared by all models, so it must be safe for concurrent access
+	private static final ConcurrentHashMap<Class<? extends Entity>, ClassOutputs> outputInfoCache;
+
+	private static final MethodType OBJECT_TYPE = MethodType.methodType(Object.class, Entity.class, double.class);
+	private static final MethodType DOUBLE_TYPE = MethodType.methodType(double.class, Entity.class, double.class);
+	private static final MethodHandle BOOLEAN_TO_DOUBLE;
 
 	static {
-		outputInfoCache = new HashMap<>();
+		outputInfoCache = new ConcurrentHashMap<>();
+		try {
+			BOOLEAN_TO_DOUBLE = MethodHandles.lookup().findStatic(OutputHandle.class, "booleanToDouble",
+					MethodType.methodType(double.class, boolean.class));
+		}
+		catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new ErrorException(e);
+		}
 	}
 
 	public OutputHandle(Entity e, String outputName) {
@@ -65,17 +81,89 @@ public class OutputHandle {
 		public final boolean reportable;
 		public final Class<? extends Unit> unitType;
 		public final int sequence;
+		public final OutputTable table;  // null if the class has no generated table
+		public final int index;
+		public final MethodHandle handle;  // (Entity, double)Object, null if not accessible
+		public final MethodHandle doubleHandle;  // (Entity, double)double, null if not a primitive number
 
-		public OutputStaticInfo(Method m, Output a) {
+		public OutputStaticInfo(Method m, Output a, OutputTable t) {
 			method = m;
 			desc = a.description();
 			reportable = a.reportable();
 			name = a.name().intern();
 			unitType = a.unitType();
 			sequence = a.sequence();
+
+			int ind = -1;
+			if (t != null)
+				ind = t.indexOf(m.getName());
+			table = (ind == -1) ? null : t;
+			index = ind;
+
+			// The MethodHandles are used only for classes without a generated table
+			handle = (table == null) ? getHandle(m) : null;
+			doubleHandle = (table == null) ? getDoubleHandle(m) : null;
 		}
 	}
 
+	/**
+	 * The outputs for a single class in the order returned by getMethods(),
+	 * along with an index by output name. It is not modified after it has
+	 * been added to the cache.
+	 */
+	private static final class ClassOutputs {
+		public final ArrayList<OutputStaticInfo> list;
+		public final HashMap<String, OutputStaticInfo> nameMap;
+
+		public ClassOutputs(ArrayList<OutputStaticInfo> outputs) {
+			list = outputs;
+			nameMap = new HashMap<>(outputs.size() * 2);
+			for (OutputStaticInfo each : outputs) {
+				if (!nameMap.containsKey(each.name))
+					nameMap.put(each.name, each);
+			}
+		}
+	}
+
+	/**
+	 * Returns a MethodHandle that calls the output method with the type
+	 * (Entity, double)Object, or null if the method cannot be accessed.
+	 */
+	private static MethodHandle getHandle(Method m) {
+		try {
+			return MethodHandles.lookup().unreflect(m).asType(OBJECT_TYPE);
+		}
+		catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns a MethodHandle that calls the output method with the type
+	 * (Entity, double)double, or null if the output is not a primitive number
+	 * or boolean. The conversions match those made by getValueAsDouble.
+	 */
+	private static MethodHandle getDoubleHandle(Method m) {
+		Class<?> rtype = m.getReturnType();
+		if (rtype != boolean.class && (!isNumericType(rtype) || !rtype.isPrimitive()))
+			return null;
+
+		try {
+			MethodHandle ret = MethodHandles.lookup().unreflect(m);
+			if (rtype == boolean.class)
+				ret = MethodHandles.filterReturnValue(ret, BOOLEAN_TO_DOUBLE);
+			return ret.asType(DOUBLE_TYPE);
+		}
+		catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	@SuppressWarnings("unused") // Called through BOOLEAN_TO_DOUBLE
+	private static double booleanToDouble(boolean val) {
+		return val ? 1.0d : 0.0d;
+	}
+
 	// Note: this method will not include attributes in the list. For a complete list use
 	// Entity.hasOutput()
 	public static boolean hasOutput(Class<? extends Entity> klass, String outputName) {
@@ -87,28 +175,26 @@ public class OutputHandle {
 	}
 
 	private static OutputStaticInfo getOutputInfo(Class<? extends Entity> klass, String outputName) {
-		for (OutputStaticInfo p : getOutputInfoImp(klass)) {
-			if( p.name.equals(outputName) )
-				return p;
-		}
-		return null;
+		return getClassOutputs(klass).nameMap.get(outputName);
 	}
 
 	private static OutputStaticInfo getOutputInfoInterned(Class<? extends Entity> klass, String outputName) {
-		for (OutputStaticInfo p : getOutputInfoImp(klass)) {
-			if( p.name == outputName )
-				return p;
-		}
-		return null;
+		// String.equals() tests for identity first, so the map lookup is as fast for interned names
+		return getClassOutputs(klass).nameMap.get(outputName);
 	}
 
 	private static ArrayList<OutputStaticInfo> getOutputInfoImp(Class<? extends Entity> klass) {
-		ArrayList<OutputStaticInfo> ret = outputInfoCache.get(klass);
-		if (ret != null)
-			return ret;
+		return getClassOutputs(klass).list;
+	}
+
+	private static ClassOutputs getClassOutputs(Class<? extends Entity> klass) {
+		ClassOutputs outputs = outputInfoCache.get(klass);
+		if (outputs != null)
+			return outputs;
 
 		// klass has not been cached yet, generate info
-		ret = new ArrayList<>();
+		ArrayList<OutputStaticInfo> ret = new ArrayList<>();
+		HashMap<Class<?>, OutputTable> tables = new HashMap<>();
 		for (Method m : klass.getMethods()) {
 			Output a = m.getAnnotation(Output.class);
 			if (a == null)
@@ -121,10 +207,18 @@ public class OutputHandle {
 				continue;
 			}
 
-			ret.add(new OutputStaticInfo(m, a));
+			// Use the generated table for the declaring class, if there is one
+			Class<?> declaringClass = m.getDeclaringClass();
+			if (!tables.containsKey(declaringClass))
+				tables.put(declaringClass, OutputTable.getTable(declaringClass));
+
+			ret.add(new OutputStaticInfo(m, a, tables.get(declaringClass)));
 		}
-		outputInfoCache.put(klass, ret);
-		return ret;
+		outputs = new ClassOutputs(ret);
+		ClassOutputs prev = outputInfoCache.putIfAbsent(klass, outputs);
+		if (prev != null)
+			return prev;
+		return outputs;
 	}
 
 	/**
@@ -198,20 +292,24 @@ public class OutputHandle {
 		if( outputInfo.method == null )
 			return null;
 
-		T ret = null;
+		if (!klass.isAssignableFrom(outputInfo.method.getReturnType()))
+			return null;
+
 		try {
-			if (!klass.isAssignableFrom(outputInfo.method.getReturnType()))
-				return null;
+			if (outputInfo.table != null)
+				return (T)outputInfo.table.getValue(ent, outputInfo.index, simTime);
+
+			if (outputInfo.handle != null)
+				return (T)(Object)outputInfo.handle.invokeExact(ent, simTime);
 
-			ret = (T)outputInfo.method.invoke(ent, simTime);
+			return (T)outputInfo.method.invoke(ent, simTime);
 		}
 		catch (InvocationTargetException ex) {
 			throw new ErrorException(ex.getTargetException());
 		}
-		catch (IllegalAccessException | ClassCastException ex) {
+		catch (Throwable ex) {
 			throw new ErrorException(ex);
 		}
-		return ret;
 	}
 
 	public boolean canCache() {
@@ -282,6 +380,22 @@ public class OutputHandle {
 	 * @return
 	 */
 	public double getValueAsDouble(double simTime, double def) {
+
+		// Avoid boxing the value if the output can be read from its table or
+		// from a MethodHandle that returns a double
+		if (outputInfo != null) {
+			try {
+				if (outputInfo.table != null)
+					return outputInfo.table.getValueAsDouble(ent, outputInfo.index, simTime, def);
+
+				if (outputInfo.doubleHandle != null)
+					return (double)outputInfo.doubleHandle.invokeExact(ent, simTime);
+			}
+			catch (Throwable t) {
+				throw new ErrorException(t);
+			}
+		}
+
 		Class<?> retType = this.getReturnType();
 
 		if (retType == double.class)
@@ -385,14 +499,10 @@ public class OutputHandle {
 		}
 
 		@SuppressWarnings("unchecked")
-		ArrayList<OutputStaticInfo> infos = getOutputInfoImp((Class<? extends Entity>)klass);
-
-		for (OutputStaticInfo info : infos) {
-			if (info.name.equals(outputName)) {
-				 return info.method.getReturnType();
-			}
-		}
-		return null;
+		OutputStaticInfo info = getOutputInfo((Class<? extends Entity>)klass, outputName);
+		if (info == null)
+			return null;
+		return info.method.getReturnType();
 	}
 
 	// Lookup an outputs return type from the unit type
@@ -402,14 +512,10 @@ public class OutputHandle {
 		}
 
 		@SuppressWarnings("unchecked")
-		ArrayList<OutputStaticInfo> infos = getOutputInfoImp((Class<? extends Entity>)klass);
-
-		for (OutputStaticInfo info : infos) {
-			if (info.name.equals(outputName)) {
-				 return info.unitType;
-			}
-		}
-		return null;
+		OutputStaticInfo info = getOutputInfo((Class<? extends Entity>)klass, outputName);
+		if (info == null)
+			return null;
+		return info.unitType;
 	}
 
 }
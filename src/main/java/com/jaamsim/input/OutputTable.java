@@ -0,0 +1,97 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import com.jaamsim.basicsim.Entity;
+
+/**
+ * Calls the output methods declared by an entity class without the use of
+ * reflection.
+ * <p>
+ * A subclass is generated at build time by the OutputProcessor for each class
+ * that declares methods with the Output annotation. The subclass is placed in
+ * the same package as the entity class and is named for its binary name with
+ * each '$' replaced by '_', followed by "_OutputTable". An output is
+ * identified by its index in the list of method names passed to the
+ * constructor.
+ * <p>
+ * Classes compiled without the OutputProcessor do not have a table, in which
+ * case OutputHandle calls their output methods by reflection.
+ */
+public abstract class OutputTable {
+	private final String[] methodNames;
+
+	protected OutputTable(String... names) {
+		methodNames = names;
+	}
+
+	/**
+	 * Returns the index for the output method with the specified name, or -1
+	 * if the method is not in the table.
+	 * @param methodName - name of the method.
+	 * @return index for the method.
+	 */
+	public final int indexOf(String methodName) {
+		for (int i = 0; i < methodNames.length; i++) {
+			if (methodNames[i].equals(methodName))
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the value of the output with the specified index. Primitive
+	 * values are returned as their wrapper types.
+	 * @param ent - entity whose output is to be returned.
+	 * @param index - index for the output method.
+	 * @param simTime - simulation time at which the output is evaluated.
+	 * @return value of the output.
+	 */
+	public abstract Object getValue(Entity ent, int index, double simTime);
+
+	/**
+	 * Returns the value of a numeric or boolean output without creating a
+	 * wrapper object. Boolean values are returned as 1 or 0.
+	 * @param ent - entity whose output is to be returned.
+	 * @param index - index for the output method.
+	 * @param simTime - simulation time at which the output is evaluated.
+	 * @param def - value returned if the output is null or not a number.
+	 * @return value of the output.
+	 */
+	public abstract double getValueAsDouble(Entity ent, int index, double simTime, double def);
+
+	/**
+	 * Returns the generated table for the specified class, or null if the
+	 * class was not compiled with the OutputProcessor.
+	 * @param klass - class that declares the output methods.
+	 * @return table of output methods.
+	 */
+	public static OutputTable getTable(Class<?> klass) {
+		String name = klass.getName();
+		int dot = name.lastIndexOf('.');
+		name = name.substring(0, dot + 1) + name.substring(dot + 1).replace('$', '_') + "_OutputTable";
+		try {
+			Class<?> tableClass = Class.forName(name, true, klass.getClassLoader());
+			if (!OutputTable.class.isAssignableFrom(tableClass))
+				return null;
+			return (OutputTable) tableClass.getDeclaredConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+}
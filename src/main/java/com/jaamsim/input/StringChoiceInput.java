@@ -21,6 +21,7 @@ import java.util.ArrayList;
 
 public class StringChoiceInput extends IntegerInput {
 	private ArrayList<String> choices;
+	private boolean acceptAnyChoice;  // true if an unlisted value is to be added to the choices
 
 	{
 		choices = new ArrayList<>();
@@ -34,10 +35,27 @@ public class StringChoiceInput extends IntegerInput {
 	public void parse(KeywordIndex kw)
 	throws InputErrorException {
 		Input.assertCount(kw, 1);
+		if (acceptAnyChoice) {
+			// The list of choices can be shared by several models
+			synchronized (choices) {
+				this.addChoice(kw.getArg(0));
+				String temp = Input.parseString(kw.getArg(0), choices);
+				value = choices.indexOf( temp );
+			}
+			return;
+		}
 		String temp = Input.parseString(kw.getArg(0), choices);
 		value = choices.indexOf( temp );
 	}
 
+	/**
+	 * Sets whether a value that is not one of the choices is to be added to
+	 * the list of choices instead of being rejected.
+	 */
+	public void setAcceptAnyChoice(boolean bool) {
+		acceptAnyChoice = bool;
+	}
+
 	public void addChoice(String choice) {
 		if (!choices.contains(choice))
 			choices.add(choice);
@@ -65,6 +65,8 @@ public class StateEntity extends DisplayEntity {
 	protected static final String STATE_IDLE = "Idle";
 	protected static final String STATE_WORKING = "Working";
 
+	private static final ArrayList<String> defWorkingStates = new ArrayList<>(0);
+
 	{
 		stateGraphics = new StringKeyInput<>(DisplayEntity.class, "StateGraphics", KEY_INPUTS);
 		stateGraphics.setHidden(true);
@@ -74,7 +76,7 @@ public class StateEntity extends DisplayEntity {
 		traceState.setHidden(true);
 		this.addInput(traceState);
 
-		workingStateListInput = new StringListInput("WorkingStateList", MAINTENANCE, new ArrayList<String>(0));
+		workingStateListInput = new StringListInput("WorkingStateList", MAINTENANCE, defWorkingStates);
 		this.addInput(workingStateListInput);
 	}
 
@@ -29,6 +29,7 @@ import javax.swing.JRadioButtonMenuItem;
 import com.jaamsim.Commands.DefineCommand;
 import com.jaamsim.Commands.CoordinateCommand;
 import com.jaamsim.Commands.DeleteCommand;
+import com.jaamsim.DisplayModels.ColladaModel;
 import com.jaamsim.Commands.KeywordCommand;
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.Graphics.EntityLabel;
@@ -43,6 +44,10 @@ import com.jaamsim.math.Vec3d;
 public class ContextMenu {
 	private static final ArrayList<ContextMenuItem> menuItems = new ArrayList<>();
 
+	static {
+		addCustomMenuHandler(new ColladaModel.ExportColladaModelHandler());
+	}
+
 	private ContextMenu() {}
 
 	public static final void addCustomMenuHandler(ContextMenuItem i) {
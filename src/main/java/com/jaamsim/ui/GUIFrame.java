@@ -30,6 +30,7 @@ import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.Toolkit;
 import java.awt.datatransfer.Clipboard;
+import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.StringSelection;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -81,8 +82,11 @@ import com.jaamsim.Commands.Command;
 import com.jaamsim.Commands.DefineViewCommand;
 import com.jaamsim.Commands.KeywordCommand;
 import com.jaamsim.Graphics.DisplayEntity;
+import com.jaamsim.basicsim.BatchRunner;
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.ErrorException;
+import com.jaamsim.basicsim.GUIListener;
+import com.jaamsim.basicsim.JaamSimModel;
 import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.controllers.RateLimiter;
 import com.jaamsim.controllers.RenderManager;
@@ -90,6 +94,7 @@ import com.jaamsim.datatypes.IntegerVector;
 import com.jaamsim.events.EventErrorListener;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.EventTimeListener;
+import com.jaamsim.events.EventTraceListener;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.InputErrorException;
@@ -104,7 +109,7 @@ import com.jaamsim.units.Unit;
  * The main window for a Graphical Simulation.  It provides the controls for managing then
  * EventManager (run, pause, ...) and the graphics (zoom, pan, ...)
  */
-public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErrorListener {
+public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErrorListener, GUIListener {
 	private static GUIFrame instance;
 
 	// global shutdown flag
@@ -306,7 +311,7 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		public void windowIconified(WindowEvent e) {
 
 			// Close all the tools
-			Simulation.closeAllTools();
+			GUIFrame.closeAllTools();
 
 			// Save whether each window is open or closed
 			for (View v : View.getAll()) {
@@ -376,6 +381,9 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		InputAgent.readResource("<res>/inputs/autoload.cfg");
 		InputAgent.setPreDefinedEntityCount( Entity.getAll().get( Entity.getAll().size() - 1 ).getEntityNumber());
 
+		// The new Simulation entity needs the window defaults for this display
+		Simulation.setWindowDefaults();
+
 		updateForUndo();
 	}
 
@@ -1599,7 +1607,8 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 	 *
 	 * @param state - an index that designates the state of the simulation run.
 	 */
-	void updateForSimulationState(int state) {
+	@Override
+	public void updateForSimulationState(int state) {
 		simState = state;
 
 		switch( getSimState() ) {
@@ -1701,30 +1710,16 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		fileMenu.setEnabled( true );
 	}
 
-	public static void updateSaveButton() {
-		GUIFrame inst = GUIFrame.getInstance();
-		if (inst == null)
-			return;
-
-		inst.updateSB();
-	}
-
-	private void updateSB() {
+	@Override
+	public void updateSaveButton() {
 		fileSave.setEnabled(InputAgent.isSessionEdited());
 	}
 
-	public static synchronized void updateForRealTime(boolean executeRT, double factorRT) {
-		GUIFrame inst = GUIFrame.getInstance();
-		if (inst == null)
-			return;
-
-		inst.updateForRT(executeRT, factorRT);
-	}
-
 	/**
 	 * updates RealTime button and Spinner
 	 */
-	private void updateForRT(boolean executeRT, double factorRT) {
+	@Override
+	public synchronized void updateForRealTime(boolean executeRT, double factorRT) {
 		currentEvt.setExecuteRealTime(executeRT, factorRT);
 		controlRealTime.setSelected(executeRT);
 		spinner.setValue(factorRT);
@@ -1734,18 +1729,11 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 			spinner.setEnabled(false);
 	}
 
-	public static void updateForPauseTime(String str) {
-		GUIFrame inst = GUIFrame.getInstance();
-		if (inst == null)
-			return;
-
-		inst.updateForPT(str);
-	}
-
 	/**
 	 * updates PauseTime entry
 	 */
-	private void updateForPT(String str) {
+	@Override
+	public void updateForPauseTime(String str) {
 		pauseTime.setText(str);
 	}
 
@@ -1781,6 +1769,7 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		}
 	}
 
+	@Override
 	public void updateForUndo() {
 		undo.setEnabled(InputAgent.hasUndo());
 		undoDropdown.setEnabled(InputAgent.hasUndo());
@@ -1789,19 +1778,136 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		GUIFrame.updateUI();
 	}
 
+	@Override
 	public void updateForSnapToGrid() {
 		snapToGrid.setSelected(Simulation.isSnapToGrid());
 	}
 
+	@Override
+	public void showTool(Tool tool, boolean visible) {
+		if (tool == Tool.EVENT_VIEWER && !visible) {
+			if (EventViewer.hasInstance())
+				EventViewer.getInstance().dispose();
+			return;
+		}
+		setWindowVisible(getTool(tool), visible);
+	}
+
+	@Override
+	public void setToolLocation(Tool tool, int x, int y) {
+		if (tool == Tool.EVENT_VIEWER && !EventViewer.hasInstance())
+			return;
+		getTool(tool).setLocation(x, y);
+	}
+
+	@Override
+	public void setToolSize(Tool tool, int width, int height) {
+		if (tool == Tool.EVENT_VIEWER && !EventViewer.hasInstance())
+			return;
+		getTool(tool).setSize(width, height);
+	}
+
+	@Override
+	public void setControlPanelWidth(int width) {
+		this.setSize(width, this.getSize().height);
+	}
+
+	@Override
+	public EventTraceListener getEventViewer() {
+		return EventViewer.getInstance();
+	}
+
+	/**
+	 * Returns the specified Tools window, which is created if necessary.
+	 */
+	private static JFrame getTool(Tool tool) {
+		switch (tool) {
+		case MODEL_BUILDER:
+			return EntityPallet.getInstance();
+		case OBJECT_SELECTOR:
+			return ObjectSelector.getInstance();
+		case INPUT_EDITOR:
+			return EditBox.getInstance();
+		case OUTPUT_VIEWER:
+			return OutputBox.getInstance();
+		case PROPERTY_VIEWER:
+			return PropertyBox.getInstance();
+		case LOG_VIEWER:
+			return LogBox.getInstance();
+		case EVENT_VIEWER:
+			return EventViewer.getInstance();
+		}
+		throw new ErrorException("Unknown tool: %s", tool);
+	}
+
+	private static void setWindowVisible(JFrame f, boolean visible) {
+		f.setVisible(visible);
+		if (visible)
+			f.toFront();
+	}
+
+	/**
+	 * Closes all the Tools windows temporarily.
+	 */
+	private static void closeAllTools() {
+		if (GUIFrame.getInstance() == null)
+			return;
+		setWindowVisible(EntityPallet.getInstance(), false);
+		setWindowVisible(ObjectSelector.getInstance(), false);
+		setWindowVisible(EditBox.getInstance(), false);
+		setWindowVisible(OutputBox.getInstance(), false);
+		setWindowVisible(PropertyBox.getInstance(), false);
+		setWindowVisible(LogBox.getInstance(), false);
+		if (EventViewer.hasInstance())
+			setWindowVisible(EventViewer.getInstance(), false);
+	}
+
+	@Override
+	public void logLine(String line) {
+		LogBox.logLine(line);
+	}
+
+	@Override
+	public void updateAll() {
+		GUIFrame.updateUI();
+	}
+
+	@Override
+	public void invokeErrorDialogBox(String title, String pre, String message, String post) {
+		GUIFrame.showErrorDialog(title, pre, message, post);
+	}
+
+	@Override
+	public void exit(int errorCode) {
+		GUIFrame.shutdown(errorCode);
+	}
+
 	public static Image getWindowIcon() {
 		return iconImage;
 	}
 
 	public void copyLocationToClipBoard(Vec3d pos) {
 		String data = String.format("(%.3f, %.3f, %.3f)", pos.x, pos.y, pos.z);
-		StringSelection stringSelection = new StringSelection(data);
+		GUIFrame.copyToClipboard(data);
+	}
+
+	public static void copyToClipboard(String str) {
 		Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-		clipboard.setContents( stringSelection, null );
+		clipboard.setContents(new StringSelection(str), null);
+	}
+
+	/**
+	 * Returns the text held by the system clipboard, or null if it does not
+	 * hold any text.
+	 */
+	public static String getStringFromClipboard() {
+		Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
+		try {
+			return (String)clipboard.getData(DataFlavor.stringFlavor);
+		}
+		catch (Throwable err) {
+			return null;
+		}
 	}
 
 	public static void showLocatorPosition(Vec3d pos) {
@@ -1977,11 +2083,12 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		// create a graphic simulation
 		LogBox.logLine("Loading Simulation Environment ... ");
 
-		EventManager evt = new EventManager("DefaultEventManager");
+		EventManager evt = JaamSimModel.getCurrent().getEventManager();
 		GUIFrame gui = null;
 		if (!headless) {
 			gui = GUIFrame.createInstance();
 			gui.setEventManager(evt);
+			JaamSimModel.getCurrent().setGUIListener(gui);
 			gui.updateForSimulationState(SIM_STATE_LOADED);
 			evt.setTimeListener(gui);
 			evt.setErrorListener(gui);
@@ -2058,7 +2165,7 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 
 		// If in batch or quiet mode, close the any tools that were opened
 		if (quiet || batch)
-			Simulation.closeAllTools();
+			GUIFrame.closeAllTools();
 
 		// Set RecordEdits mode (if it has not already been set in the configuration file)
 		InputAgent.setRecordEdits(true);
@@ -2067,7 +2174,12 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		if (batch) {
 			if (InputAgent.numErrors() > 0)
 				GUIFrame.shutdown(0);
-			Simulation.start(evt);
+			if (gui == null || BatchRunner.canRunConcurrently()) {
+				GUIFrame.runBatch();
+				return;
+			}
+			if (!Simulation.start(evt))
+				GUIFrame.shutdown(1);
 			return;
 		}
 
@@ -2085,6 +2197,24 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		FrameBox.setSelectedEntity(Simulation.getInstance(), false);
 	}
 
+	/**
+	 * Executes the runs for the model without updating the Control Panel and
+	 * then terminates the program.
+	 */
+	private static void runBatch() {
+		try {
+			new BatchRunner().execute();
+		}
+		catch (Throwable t) {
+			InputAgent.logMessage("Error during run: %s", t.getMessage());
+			InputAgent.logStackTrace(t);
+			InputAgent.closeLogFile();
+			GUIFrame.shutdown(1);
+		}
+		InputAgent.closeLogFile();
+		GUIFrame.shutdown(0);
+	}
+
 	public static class SpeedFactorListener implements ChangeListener {
 
 		@Override
@@ -20,8 +20,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.JaamSimModel;
 import com.jaamsim.basicsim.ObjectType;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.Keyword;
@@ -40,13 +42,11 @@ public abstract class Unit extends Entity {
 		this.addInput(conversionFactorToSI);
 	}
 
-	private static final HashMap<Class<? extends Unit>, Unit>
-		preferredUnit = new HashMap<>();
-
 	public Unit() {}
 
-	private static final HashMap<Class<? extends Unit>, String>
-		siUnit = new HashMap<>();
+	// SI unit names are registered by the unit classes and shared by all models
+	private static final ConcurrentHashMap<Class<? extends Unit>, String>
+		siUnit = new ConcurrentHashMap<>();
 
 	public static final void setSIUnit(Class<? extends Unit> unitType, String si) {
 		siUnit.put(unitType, si);
@@ -79,11 +79,12 @@ public abstract class Unit extends Entity {
 		for (String utName : utList) {
 			ObjectType ot = Input.parseEntity(utName, ObjectType.class);
 			Class<? extends Unit> ut = Input.checkCast(ot.getJavaClass(), Unit.class);
-			preferredUnit.remove(ut);
+			JaamSimModel.getCurrent().getPreferredUnitMap().remove(ut);
 		}
 	}
 
 	public static final void setPreferredUnit(Class<? extends Unit> type, Unit u) {
+		HashMap<Class<? extends Unit>, Unit> preferredUnit = JaamSimModel.getCurrent().getPreferredUnitMap();
 		if (u.getName().equals(Unit.getSIUnit(type))) {
 			preferredUnit.remove(type);
 			return;
@@ -92,11 +93,11 @@ public abstract class Unit extends Entity {
 	}
 
 	public static final ArrayList<Unit> getPreferredUnitList() {
-		return new ArrayList<>(preferredUnit.values());
+		return new ArrayList<>(JaamSimModel.getCurrent().getPreferredUnitMap().values());
 	}
 
 	public static final <T extends Unit> Unit getPreferredUnit(Class<T> type) {
-		return preferredUnit.get(type);
+		return JaamSimModel.getCurrent().getPreferredUnitMap().get(type);
 	}
 
 	public static final <T extends Unit> String getDisplayedUnit(Class<T> ut) {
@@ -0,0 +1,229 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates an OutputTable for each class that declares methods with the
+ * Output annotation. The table calls the output methods directly, so that
+ * OutputHandle does not need to use reflection.
+ * <p>
+ * Output methods that the table could not call, such as those in private
+ * nested classes, are left to OutputHandle's reflection code.
+ * <p>
+ * The Keyword annotation is read at run time, it is claimed here so that the
+ * compiler does not report it as unprocessed.
+ */
+@SupportedAnnotationTypes({"com.jaamsim.input.Output", "com.jaamsim.input.Keyword"})
+public class OutputProcessor extends AbstractProcessor {
+
+	private static final String OUTPUT = "com.jaamsim.input.Output";
+	private static final String ENTITY = "com.jaamsim.basicsim.Entity";
+	private static final String TABLE = "com.jaamsim.input.OutputTable";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annot : annotations) {
+			if (!annot.getQualifiedName().contentEquals(OUTPUT))
+				continue;
+
+			// Group the output methods by the class that declares them
+			LinkedHashMap<TypeElement, ArrayList<ExecutableElement>> outputs = new LinkedHashMap<>();
+			for (Element each : roundEnv.getElementsAnnotatedWith(annot)) {
+				if (each.getKind() != ElementKind.METHOD)
+					continue;
+
+				ExecutableElement method = (ExecutableElement) each;
+				TypeElement type = (TypeElement) method.getEnclosingElement();
+				if (!isOutputMethod(method) || !isAccessible(type))
+					continue;
+
+				ArrayList<ExecutableElement> list = outputs.get(type);
+				if (list == null) {
+					list = new ArrayList<>();
+					outputs.put(type, list);
+				}
+				list.add(method);
+			}
+
+			for (Entry<TypeElement, ArrayList<ExecutableElement>> each : outputs.entrySet()) {
+				try {
+					writeTable(each.getKey(), each.getValue());
+				}
+				catch (IOException e) {
+					processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+							"Could not write the output table: " + e.getMessage(), each.getKey());
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if the method has the signature required for an output,
+	 * which is a public instance method with a single double parameter.
+	 */
+	private static boolean isOutputMethod(ExecutableElement method) {
+		Set<Modifier> mods = method.getModifiers();
+		if (!mods.contains(Modifier.PUBLIC) || mods.contains(Modifier.STATIC))
+			return false;
+		if (method.getParameters().size() != 1)
+			return false;
+		if (!method.getTypeParameters().isEmpty())
+			return false;
+		return method.getParameters().get(0).asType().getKind() == TypeKind.DOUBLE;
+	}
+
+	/**
+	 * Returns true if a class in the same package as the specified type can
+	 * refer to it by name.
+	 */
+	private static boolean isAccessible(TypeElement type) {
+		Element elem = type;
+		while (elem instanceof TypeElement) {
+			TypeElement each = (TypeElement) elem;
+			if (each.getNestingKind() != NestingKind.TOP_LEVEL && each.getNestingKind() != NestingKind.MEMBER)
+				return false;
+			if (each.getModifiers().contains(Modifier.PRIVATE))
+				return false;
+			elem = each.getEnclosingElement();
+		}
+		return true;
+	}
+
+	private void writeTable(TypeElement type, ArrayList<ExecutableElement> methods) throws IOException {
+		PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+		String pkgName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String tableName = binaryName.substring(binaryName.lastIndexOf('.') + 1).replace('$', '_') + "_OutputTable";
+		String typeName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+
+		String cast = typeName.equals(ENTITY) ? "ent" : "(" + typeName + ") ent";
+
+		String qualifiedName = pkg.isUnnamed() ? tableName : pkgName + "." + tableName;
+		try (PrintWriter out = new PrintWriter(processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter())) {
+			if (!pkg.isUnnamed()) {
+				out.printf("package %s;%n%n", pkgName);
+			}
+			out.printf("/**%n * Output table for %s, generated by the OutputProcessor.%n */%n", typeName);
+			out.printf("@SuppressWarnings({\"rawtypes\", \"deprecation\"})%n");
+			out.printf("public final class %s extends %s {%n%n", tableName, TABLE);
+
+			// Constructor
+			out.printf("\tpublic %s() {%n", tableName);
+			out.printf("\t\tsuper(");
+			for (int i = 0; i < methods.size(); i++) {
+				out.printf("%s\"%s\"", i == 0 ? "" : ", ", methods.get(i).getSimpleName());
+			}
+			out.printf(");%n\t}%n%n");
+
+			// Output values
+			out.printf("\t@Override%n");
+			out.printf("\tpublic Object getValue(%s ent, int index, double simTime) {%n", ENTITY);
+			out.printf("\t\t%s obj = %s;%n", typeName, cast);
+			out.printf("\t\tswitch (index) {%n");
+			for (int i = 0; i < methods.size(); i++) {
+				out.printf("\t\tcase %d: return obj.%s(simTime);%n", i, methods.get(i).getSimpleName());
+			}
+			out.printf("\t\tdefault: throw new IndexOutOfBoundsException(\"Output index: \" + index);%n");
+			out.printf("\t\t}%n\t}%n%n");
+
+			// Numeric values without boxing
+			out.printf("\t@Override%n");
+			out.printf("\tpublic double getValueAsDouble(%s ent, int index, double simTime, double def) {%n", ENTITY);
+			out.printf("\t\t%s obj = %s;%n", typeName, cast);
+			out.printf("\t\tswitch (index) {%n");
+			for (int i = 0; i < methods.size(); i++) {
+				String expr = getDoubleExpression(methods.get(i).getReturnType(),
+						"obj." + methods.get(i).getSimpleName() + "(simTime)");
+				if (expr == null)
+					continue;
+				out.printf("\t\tcase %d: %s%n", i, expr);
+			}
+			out.printf("\t\tdefault: return def;%n");
+			out.printf("\t\t}%n\t}%n");
+			out.printf("}%n");
+		}
+	}
+
+	/**
+	 * Returns the statements that convert the value of a call to a double, or
+	 * null if the value is not a number. The conversions match those made by
+	 * OutputHandle.getValueAsDouble.
+	 */
+	private static String getDoubleExpression(TypeMirror type, String call) {
+		switch (type.getKind()) {
+		case DOUBLE:
+		case INT:
+		case LONG:
+		case FLOAT:
+		case SHORT:
+		case CHAR:
+			return "return " + call + ";";
+		case BOOLEAN:
+			return "return " + call + " ? 1.0d : 0.0d;";
+		case DECLARED:
+			break;
+		default:
+			return null;
+		}
+
+		String name = type.toString();
+		String value;
+		if (name.equals("java.lang.Double") || name.equals("java.lang.Integer")
+				|| name.equals("java.lang.Float") || name.equals("java.lang.Long")
+				|| name.equals("java.lang.Short")) {
+			value = "val.doubleValue()";
+		}
+		else if (name.equals("java.lang.Character")) {
+			value = "val.charValue()";
+		}
+		else if (name.equals("java.lang.Boolean")) {
+			value = "(val.booleanValue() ? 1.0d : 0.0d)";
+		}
+		else {
+			return null;
+		}
+		return String.format("{ %s val = %s; return val == null ? def : %s; }", name, call, value);
+	}
+}
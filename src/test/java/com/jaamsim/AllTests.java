@@ -22,8 +22,14 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
 @SuiteClasses({
+	com.jaamsim.basicsim.TestJaamSimModel.class,
+	com.jaamsim.basicsim.TestBatchRunner.class,
+	com.jaamsim.basicsim.TestReplicationRunner.class,
+	com.jaamsim.basicsim.TestEventTrace.class,
 	com.jaamsim.events.TestEventManager.class,
 	com.jaamsim.events.TestEventTree.class,
+	com.jaamsim.events.TestLadderQueue.class,
+	com.jaamsim.events.TestTimingWheel.class,
 	com.jaamsim.math.TestAABB.class,
 	com.jaamsim.math.TestQuaternion.class,
 	com.jaamsim.math.TestTransform.class,
@@ -0,0 +1,151 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.InputErrorException;
+
+public class TestBatchRunner {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final String[] MODEL = {
+		"Define ExponentialDistribution { IATDist }",
+		"Define SimEntity { Proto }",
+		"Define EntityGenerator { Gen }",
+		"Define EntitySink { Sink }",
+		"IATDist UnitType { TimeUnit } RandomSeed { 1 } Mean { 10 s }",
+		"Gen NextComponent { Sink } InterArrivalTime { IATDist } PrototypeEntity { Proto }",
+		"Simulation RunDuration { 1 h } GlobalSubstreamSeed { [Simulation].RunNumber }",
+		"Simulation RunIndexDefinitionList { 3 } StartingRunNumber { 1 } EndingRunNumber { 3 }",
+		"Simulation UnitTypeList { DimensionlessUnit DimensionlessUnit }",
+		"Simulation RunOutputList { { [Simulation].RunNumber } { [Sink].NumberAdded } }",
+	};
+
+	/**
+	 * Executes each of the runs for a model and checks that a line of outputs
+	 * was written for every run.
+	 */
+	@Test
+	public void testRuns() throws Throwable {
+		File file = writeModel(folder.newFolder("runs"), MODEL);
+		runInNewThread(file);
+
+		List<String> lines = Files.readAllLines(new File(file.getParentFile(), "model.dat").toPath(),
+				StandardCharsets.UTF_8);
+		assertEquals(5, lines.size());
+		for (int i = 1; i <= 3; i++) {
+			assertTrue(lines.get(i + 1).startsWith(i + ".0\t"));
+		}
+	}
+
+	/**
+	 * Checks that input errors are reported to the caller.
+	 */
+	@Test
+	public void testInputError() throws Throwable {
+		File file = writeModel(folder.newFolder("error"), new String[] { "Define NoSuchType { Foo }" });
+		try {
+			runInNewThread(file);
+			fail("Input errors were not reported");
+		}
+		catch (InputErrorException e) {}
+	}
+
+	/**
+	 * Executes a model with BatchRunner in a separate JVM and checks that none
+	 * of the Swing, AWT or JOGL classes were loaded.
+	 */
+	@Test
+	public void testNoUserInterfaceClasses() throws Exception {
+		File file = writeModel(folder.newFolder("classes"), MODEL);
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		ProcessBuilder pb = new ProcessBuilder(java, "-verbose:class",
+				"-cp", System.getProperty("java.class.path"),
+				BatchRunner.class.getName(), file.getPath());
+		pb.redirectErrorStream(true);
+		Process proc = pb.start();
+
+		int numLoaded = 0;
+		ArrayList<String> uiClasses = new ArrayList<>();
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(proc.getInputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.contains(" java.lang.Object "))
+					numLoaded++;
+				if (line.contains(" javax.swing.") || line.contains(" java.awt.") || line.contains(" com.jogamp."))
+					uiClasses.add(line);
+			}
+		}
+		assertEquals(0, proc.waitFor());
+
+		// Check that the class loading output was recognized
+		assertEquals(1, numLoaded);
+		assertTrue("User interface classes loaded: " + uiClasses, uiClasses.isEmpty());
+	}
+
+	private static File writeModel(File dir, String[] model) throws IOException {
+		File file = new File(dir, "model.cfg");
+		try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+			for (String line : model)
+				out.println(line);
+		}
+		return file;
+	}
+
+	private static void runInNewThread(final File file) throws Throwable {
+		final Throwable[] errors = new Throwable[1];
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				JaamSimModel.setCurrent(new JaamSimModel());
+				try {
+					new BatchRunner().run(file);
+				}
+				catch (Throwable t) {
+					errors[0] = t;
+				}
+				finally {
+					InputAgent.setBatch(false);
+				}
+			}
+		});
+		thread.start();
+		thread.join();
+		if (errors[0] != null)
+			throw errors[0];
+	}
+}
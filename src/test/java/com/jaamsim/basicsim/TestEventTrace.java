@@ -0,0 +1,135 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventTimeListener;
+import com.jaamsim.events.EventTraceListener;
+import com.jaamsim.events.ProcessTarget;
+
+public class TestEventTrace {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Records a trace file for a set of events and checks that the same events
+	 * are verified against it, while a different set of events is not.
+	 */
+	@Test
+	public void testRecordAndVerify() throws Exception {
+		String evtName = new File(folder.getRoot(), "test.evt").getPath();
+
+		EventRecorder rec = new EventRecorder(evtName);
+		ArrayList<String> log = runEvents(rec, 200, 0);
+		rec.close();
+		assertEquals(201, log.size());
+
+		// The same events run to completion
+		log = runEvents(new EventTracer(evtName), 200, 0);
+		assertEquals(201, log.size());
+
+		// Verification pauses the model at the first difference
+		log = runEvents(new EventTracer(evtName), 200, 1);
+		assertEquals(1, log.size());
+	}
+
+	/**
+	 * Records a trace that is several times larger than the recorder's ring of
+	 * buffers and checks that it is verified in full.
+	 */
+	@Test
+	public void testLargeTrace() throws Exception {
+		File evtFile = new File(folder.getRoot(), "large.evt");
+
+		EventRecorder rec = new EventRecorder(evtFile.getPath());
+		ArrayList<String> log = runEvents(rec, 50000, 0);
+		rec.close();
+		assertEquals(50001, log.size());
+		assertTrue(evtFile.length() > 8 * 65536 * 4);
+
+		log = runEvents(new EventTracer(evtFile.getPath()), 50000, 0);
+		assertEquals(50001, log.size());
+	}
+
+	private static ArrayList<String> runEvents(EventTraceListener trc, int last, int offset) throws Exception {
+		EventManager evt = new EventManager("DefaultEventManager");
+		evt.clear();
+		evt.setTraceListener(trc);
+
+		ArrayList<String> log = new ArrayList<>();
+		evt.scheduleProcessExternal(0, 0, false, new ChainTarget(0, last, offset, log), null);
+
+		final CountDownLatch done = new CountDownLatch(1);
+		evt.setTimeListener(new EventTimeListener() {
+			@Override
+			public void tickUpdate(long tick) {}
+
+			@Override
+			public void timeRunning(boolean running) {
+				if (!running)
+					done.countDown();
+			}
+		});
+		evt.resume(Long.MAX_VALUE);
+		done.await(60, TimeUnit.SECONDS);
+		evt.setTraceListener(null);
+		return log;
+	}
+
+	private static class ChainTarget extends ProcessTarget {
+		final int num;
+		final int last;
+		final int offset;
+		final ArrayList<String> log;
+		ChainTarget(int n, int l, int o, ArrayList<String> lg) {
+			num = n;
+			last = l;
+			offset = o;
+			log = lg;
+		}
+
+		@Override
+		public String getDescription() {
+			return "Chain" + (num % 7);
+		}
+
+		@Override
+		public void process() {
+			log.add(getDescription());
+			if (num == last)
+				return;
+
+			// Each event schedules the next, plus a wait to mix the entry types
+			EventManager.scheduleTicks(num % 5 + 1 + offset, num % 3, true,
+					new ChainTarget(num + 1, last, offset, log), null);
+			EventManager.waitTicks(0, 0, true, null);
+		}
+	}
+}
@@ -0,0 +1,523 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventTimeListener;
+import com.jaamsim.input.EntityListInput;
+import com.jaamsim.input.ExpEvaluator;
+import com.jaamsim.input.ExpParser;
+import com.jaamsim.input.ExpResult;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.OutputHandle;
+import com.jaamsim.units.DistanceUnit;
+
+public class TestJaamSimModel {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final String[] MODEL_A = {
+		"Define ExponentialDistribution { IATDist }",
+		"Define UniformDistribution { ServiceDist }",
+		"Define SimEntity { Proto }",
+		"Define EntityGenerator { Gen }",
+		"Define Queue { Q1 }",
+		"Define Server { Serv }",
+		"Define EntitySink { Sink }",
+		"IATDist UnitType { TimeUnit } RandomSeed { 1 } Mean { 10 s }",
+		"ServiceDist UnitType { TimeUnit } RandomSeed { 2 } MinValue { 2 s } MaxValue { 15 s }",
+		"Gen NextComponent { Serv } InterArrivalTime { IATDist } PrototypeEntity { Proto }",
+		"Serv NextComponent { Sink } WaitQueue { Q1 } ServiceTime { ServiceDist }",
+		"Simulation RunDuration { 100 h }",
+		"Simulation UnitTypeList { DimensionlessUnit DimensionlessUnit DimensionlessUnit }",
+		"Simulation RunOutputList { { [Sink].NumberAdded } { [Q1].QueueLengthAverage } { [Serv].NumberProcessed } }",
+	};
+
+	private static final String[] MODEL_B = {
+		"Define ExponentialDistribution { IATDist ServiceDist1 }",
+		"Define UniformDistribution { ServiceDist2 }",
+		"Define SimEntity { Part }",
+		"Define EntityGenerator { Source }",
+		"Define Queue { Queue1 Queue2 }",
+		"Define Server { Server1 Server2 }",
+		"Define EntitySink { Exit }",
+		"IATDist UnitType { TimeUnit } RandomSeed { 5 } Mean { 4 min }",
+		"ServiceDist1 UnitType { TimeUnit } RandomSeed { 6 } Mean { 3 min }",
+		"ServiceDist2 UnitType { TimeUnit } RandomSeed { 7 } MinValue { 1 min } MaxValue { 6 min }",
+		"Source NextComponent { Server1 } InterArrivalTime { IATDist } PrototypeEntity { Part }",
+		"Server1 NextComponent { Server2 } WaitQueue { Queue1 } ServiceTime { ServiceDist1 }",
+		"Server2 NextComponent { Exit } WaitQueue { Queue2 } ServiceTime { ServiceDist2 }",
+		"Simulation TickLength { 1e-5 s } InitializationDuration { 10 h } RunDuration { 500 h }",
+		"Simulation UnitTypeList { DimensionlessUnit TimeUnit }",
+		"Simulation RunOutputList { { [Exit].NumberAdded } { [Queue2].AverageQueueTime } }",
+	};
+
+	@Test
+	public void testCurrentModel() throws Throwable {
+		final JaamSimModel model = new JaamSimModel();
+		assertNotSame(model, JaamSimModel.getCurrent());
+
+		final JaamSimModel[] seen = new JaamSimModel[2];
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				JaamSimModel.setCurrent(model);
+				seen[0] = JaamSimModel.getCurrent();
+
+				// Threads created by this thread inherit its model
+				Thread child = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						seen[1] = JaamSimModel.getCurrent();
+					}
+				});
+				child.start();
+				try {
+					child.join();
+				}
+				catch (InterruptedException e) {}
+			}
+		});
+		thread.start();
+		thread.join();
+
+		assertTrue(seen[0] == model);
+		assertTrue(seen[1] == model);
+		assertTrue(model.getEventManager().getJaamSimModel() == model);
+	}
+
+	/**
+	 * Runs two different models side by side and checks that each produces
+	 * the same outputs as when it is run on its own.
+	 */
+	@Test
+	public void testConcurrentModels() throws Throwable {
+		File sepA = writeModel(folder.newFolder("sepA"), "modelA.cfg", MODEL_A);
+		File sepB = writeModel(folder.newFolder("sepB"), "modelB.cfg", MODEL_B);
+		File conA = writeModel(folder.newFolder("conA"), "modelA.cfg", MODEL_A);
+		File conB = writeModel(folder.newFolder("conB"), "modelB.cfg", MODEL_B);
+
+		runModels(sepA);
+		runModels(sepB);
+		runModels(conA, conB);
+
+		List<String> outA = readOutputs(sepA);
+		List<String> outB = readOutputs(sepB);
+		assertEquals(3, outA.size());
+		assertEquals(3, outB.size());
+		assertEquals(outA, readOutputs(conA));
+		assertEquals(outB, readOutputs(conB));
+	}
+
+	/**
+	 * Runs a model with and without recycling the generated entities and
+	 * checks that the outputs are the same.
+	 */
+	@Test
+	public void testRecycledEntities() throws Throwable {
+		String[] recycled = Arrays.copyOf(MODEL_A, MODEL_A.length + 1);
+		recycled[MODEL_A.length] = "Gen RecycleEntities { TRUE }";
+		File plain = writeModel(folder.newFolder("plain"), "modelA.cfg", MODEL_A);
+		File recycle = writeModel(folder.newFolder("recycle"), "modelA.cfg", recycled);
+
+		runModels(plain);
+		runModels(recycle);
+		assertEquals(readOutputs(plain), readOutputs(recycle));
+	}
+
+	/**
+	 * Checks that a generated name is only built when it is first requested
+	 * and that it is discarded when the entity is killed or renamed.
+	 */
+	@Test
+	public void testGeneratedNames() {
+		JaamSimModel model = new JaamSimModel();
+		JaamSimModel.setCurrent(model);
+		try {
+			Entity ent = InputAgent.generateEntityWithName(Entity.class, "Gen_", 12);
+			assertTrue(ent.testFlag(Entity.FLAG_GENERATED));
+			assertNull(ent.entityName);
+			assertEquals("Gen_12", ent.getName());
+			assertSame(ent.getName(), ent.getName());
+			assertNull(model.getNamedEntity("Gen_12"));
+
+			ent.setName("Renamed");
+			assertEquals("Renamed", ent.getName());
+
+			ent.setGeneratedName("Gen_", 13);
+			ent.kill();
+			assertNull(ent.getName());
+
+			ent.restore("Restored");
+			assertEquals("Restored", ent.getName());
+		}
+		finally {
+			JaamSimModel.setCurrent(null);
+		}
+	}
+
+	/**
+	 * Checks that the events for generated entities are profiled by the start
+	 * of their names rather than by the entities themselves.
+	 */
+	@Test
+	public void testProfileOwner() {
+		JaamSimModel model = new JaamSimModel();
+		JaamSimModel.setCurrent(model);
+		try {
+			Entity defined = InputAgent.defineEntityWithUniqueName(Entity.class, "A", "", true);
+			assertSame(defined, defined.getProfileOwner());
+
+			Entity gen1 = InputAgent.generateEntityWithName(Entity.class, "Gen_", 1);
+			Entity gen2 = InputAgent.generateEntityWithName(Entity.class, new StringBuilder("Gen_").toString(), 2);
+			assertEquals("Gen_", gen1.getProfileOwner());
+			assertEquals(gen1.getProfileOwner(), gen2.getProfileOwner());
+
+			Entity named = InputAgent.generateEntityWithName(Entity.class, "Named_1");
+			assertSame(Entity.class, named.getProfileOwner());
+		}
+		finally {
+			JaamSimModel.setCurrent(null);
+		}
+	}
+
+	/**
+	 * Adds, removes and restores entities in a random order and checks that
+	 * the model's list of entities and the lookup by entity number match a
+	 * sorted list of the live entities.
+	 */
+	@Test
+	public void testEntityRegistry() {
+		JaamSimModel model = new JaamSimModel();
+		JaamSimModel.setCurrent(model);
+		try {
+			Random rand = new Random(1);
+			ArrayList<Entity> live = new ArrayList<>();
+			ArrayList<Entity> dead = new ArrayList<>();
+			for (int i = 0; i < 5000; i++) {
+				int op = rand.nextInt(10);
+				if (op < 6 || live.isEmpty()) {
+					Entity ent = new Entity();
+					ent.setFlag(Entity.FLAG_GENERATED);
+					live.add(ent);
+				}
+				else if (op < 9 || dead.isEmpty()) {
+					Entity ent = live.remove(rand.nextInt(live.size()));
+					ent.kill();
+					assertTrue(ent.testFlag(Entity.FLAG_DEAD));
+					dead.add(ent);
+				}
+				else {
+					Entity ent = dead.remove(rand.nextInt(dead.size()));
+					ent.restore("Restored" + i);
+					live.add(ent);
+					Collections.sort(live, entityOrder);
+				}
+
+				// Check the list itself only occasionally, since access by
+				// position reclaims the empty slots
+				if (i % 100 == 0)
+					assertEquals(live, model.getEntities());
+				assertEquals(live.size(), model.getEntities().size());
+			}
+			assertEquals(live, model.getEntities());
+
+			for (Entity ent : live)
+				assertTrue(model.idToEntity(ent.getEntityNumber()) == ent);
+			for (Entity ent : dead)
+				assertTrue(model.idToEntity(ent.getEntityNumber()) == null);
+
+			// Killing an entity again has no effect
+			Entity ent = live.get(0);
+			ent.kill();
+			ent.kill();
+			live.remove(0);
+			assertEquals(live, model.getEntities());
+		}
+		finally {
+			JaamSimModel.setCurrent(null);
+		}
+	}
+
+	@Test
+	public void testMemberLists() {
+		JaamSimModel model = new JaamSimModel();
+		JaamSimModel.setCurrent(model);
+		try {
+			Random rand = new Random(2);
+			ArrayList<Entity> live = new ArrayList<>();
+			ArrayList<Entity> dead = new ArrayList<>();
+			for (int i = 0; i < 3000; i++) {
+				int op = rand.nextInt(10);
+				if (op < 6 || live.isEmpty()) {
+					Entity ent;
+					switch (rand.nextInt(3)) {
+					case 0: ent = new Entity(); break;
+					case 1: ent = new MemberEntity(); break;
+					default: ent = new MarkedMemberEntity(); break;
+					}
+					ent.setFlag(Entity.FLAG_GENERATED);
+					live.add(ent);
+				}
+				else if (op < 9 || dead.isEmpty()) {
+					Entity ent = live.remove(rand.nextInt(live.size()));
+					ent.kill();
+					dead.add(ent);
+				}
+				else {
+					Entity ent = dead.remove(rand.nextInt(dead.size()));
+					ent.restore("Restored" + i);
+					live.add(ent);
+					Collections.sort(live, entityOrder);
+				}
+
+				// The lists are created at different points in the model's history
+				if (i % 250 == 0)
+					checkMembers(live);
+			}
+			checkMembers(live);
+		}
+		finally {
+			JaamSimModel.setCurrent(null);
+		}
+	}
+
+	private static void checkMembers(ArrayList<Entity> live) {
+		ArrayList<Entity> clones = new ArrayList<>();
+		ArrayList<Entity> instances = new ArrayList<>();
+		ArrayList<Entity> marked = new ArrayList<>();
+		for (Entity ent : live) {
+			if (ent instanceof MemberEntity)
+				clones.add(ent);
+			if (ent.getClass() == MemberEntity.class)
+				instances.add(ent);
+			if (ent instanceof Marker)
+				marked.add(ent);
+		}
+
+		assertEquals(live, toList(Entity.getClonesOfIterator(Entity.class)));
+		assertEquals(clones, toList(Entity.getClonesOfIterator(MemberEntity.class)));
+		assertEquals(instances, toList(Entity.getInstanceIterator(MemberEntity.class)));
+		assertEquals(marked, toList(Entity.getClonesOfIterator(Entity.class, Marker.class)));
+	}
+
+	private static ArrayList<Entity> toList(Iterable<? extends Entity> it) {
+		ArrayList<Entity> ret = new ArrayList<>();
+		for (Entity ent : it)
+			ret.add(ent);
+		return ret;
+	}
+
+	private static interface Marker {}
+
+	public static class MemberEntity extends Entity {}
+
+	public static class MarkedMemberEntity extends MemberEntity implements Marker {}
+
+	@Test
+	public void testSharedInputValues() {
+		JaamSimModel model = new JaamSimModel();
+		JaamSimModel.setCurrent(model);
+		try {
+			Entity a = InputAgent.defineEntityWithUniqueName(Entity.class, "A", "", true);
+			Entity b = InputAgent.defineEntityWithUniqueName(Entity.class, "B", "", true);
+			ListEntity proto = InputAgent.defineEntityWithUniqueName(ListEntity.class, "Proto", "", true);
+			InputAgent.applyArgs(proto, "EntityList", "A", "B");
+
+			// A generated copy refers to the prototype's value
+			ListEntity copy = InputAgent.generateEntityWithName(ListEntity.class, "Proto_1");
+			Entity.fastCopyInputs(proto, copy);
+			assertTrue(copy.entityList.getValue() == proto.entityList.getValue());
+
+			// The value is replaced when it is changed for the copy
+			copy.entityList.removeReferences(b);
+			assertEquals(Arrays.asList(a), copy.entityList.getValue());
+			assertEquals(Arrays.asList(a, b), proto.entityList.getValue());
+		}
+		finally {
+			JaamSimModel.setCurrent(null);
+		}
+	}
+
+	@Test
+	public void testAttributeSlots() throws Throwable {
+		JaamSimModel model = new JaamSimModel();
+		JaamSimModel.setCurrent(model);
+		try {
+			InputAgent.setRecordEdits(false);
+			InputAgent.readResource("<res>/inputs/autoload.cfg");
+			Entity proto = InputAgent.defineEntityWithUniqueName(Entity.class, "Proto", "", true);
+			InputAgent.applyArgs(proto, "AttributeDefinitionList", "{", "a", "1", "m", "}", "{", "b", "2", "}");
+
+			// A generated copy shares the definitions but not the values
+			Entity copy = InputAgent.generateEntityWithName(Entity.class, "Proto_1");
+			Entity.fastCopyInputs(proto, copy);
+			assertTrue(copy.getAttributeDefinitions() == proto.getAttributeDefinitions());
+			assertEquals(1, copy.getAttributeSlot("b"));
+			assertEquals(-1, copy.getAttributeSlot("c"));
+
+			// Each entity re-uses one output handle per attribute
+			OutputHandle h = copy.getOutputHandle("a");
+			assertSame(h, copy.getOutputHandle("a"));
+			assertNotSame(h, proto.getOutputHandle("a"));
+			assertTrue(h.getUnitType() == DistanceUnit.class);
+
+			ExpParser.Assignment assign = ExpParser.parseAssignment(ExpEvaluator.getParseContext(copy, ""), "this.a = this.a + 2[m]");
+			assign.evaluate(null);
+			assign.evaluate(null);
+			assertEquals(5.0d, copy.getAttributeNumber(0, 0.0d), 0.0d);
+			assertEquals(1.0d, proto.getAttributeNumber(0, 0.0d), 0.0d);
+			assertTrue(copy.getAttributeValue(0).unitType == DistanceUnit.class);
+
+			// An attribute can hold a value that is not a number
+			copy.setAttribute("b", null, ExpResult.makeStringResult("abc"));
+			ExpParser.Expression exp = ExpParser.parseExpression(ExpEvaluator.getParseContext(copy, ""), "this.b");
+			assertEquals("abc", ExpEvaluator.evaluateExpression(exp, 0.0d).stringVal);
+			assertEquals(-1.0d, copy.getAttributeNumber(1, -1.0d), 0.0d);
+
+			// The initial values are restored by earlyInit
+			copy.earlyInit();
+			assertEquals(1.0d, copy.getAttributeNumber(0, 0.0d), 0.0d);
+			assertEquals(2.0d, ExpEvaluator.evaluateExpression(exp, 0.0d).value, 0.0d);
+		}
+		finally {
+			JaamSimModel.setCurrent(null);
+		}
+	}
+
+	public static class ListEntity extends Entity {
+		final EntityListInput<Entity> entityList;
+
+		{
+			entityList = new EntityListInput<>(Entity.class, "EntityList", KEY_INPUTS, null);
+			this.addInput(entityList);
+		}
+	}
+
+	private static final Comparator<Entity> entityOrder = new Comparator<Entity>() {
+		@Override
+		public int compare(Entity e1, Entity e2) {
+			return Long.compare(e1.getEntityNumber(), e2.getEntityNumber());
+		}
+	};
+
+	private File writeModel(File dir, String name, String[] lines) throws IOException {
+		File file = new File(dir, name);
+		try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+			for (String line : lines)
+				out.println(line);
+		}
+		return file;
+	}
+
+	private static List<String> readOutputs(File cfg) throws IOException {
+		String name = cfg.getName().replace(".cfg", ".dat");
+		return Files.readAllLines(new File(cfg.getParentFile(), name).toPath(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Loads and runs each configuration file in a separate JaamSimModel, with
+	 * all of the models executing at the same time.
+	 */
+	private static void runModels(File... files) throws Throwable {
+		final Throwable[] errors = new Throwable[files.length];
+		Thread[] threads = new Thread[files.length];
+		for (int i = 0; i < files.length; i++) {
+			final int index = i;
+			final File file = files[i];
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						runModel(file);
+					}
+					catch (Throwable t) {
+						errors[index] = t;
+					}
+				}
+			});
+		}
+
+		for (Thread each : threads)
+			each.start();
+		for (Thread each : threads)
+			each.join();
+
+		for (Throwable t : errors) {
+			if (t != null)
+				throw t;
+		}
+	}
+
+	private static void runModel(File file) throws Exception {
+		JaamSimModel model = new JaamSimModel();
+		JaamSimModel.setCurrent(model);
+
+		InputAgent.setRecordEdits(false);
+		InputAgent.readResource("<res>/inputs/autoload.cfg");
+		InputAgent.setConfigFile(file);
+		InputAgent.loadConfigurationFile(file);
+		assertEquals(0, InputAgent.numErrors());
+
+		EventManager evt = model.getEventManager();
+		RunListener listener = new RunListener();
+		evt.setTimeListener(listener);
+		Simulation.start(evt);
+		assertTrue(listener.done.await(60, TimeUnit.SECONDS));
+
+		// The other models must not have changed the state for this one
+		assertTrue(InputAgent.getConfigFile() == file);
+	}
+
+	private static class RunListener implements EventTimeListener {
+		final CountDownLatch done = new CountDownLatch(1);
+
+		@Override
+		public void tickUpdate(long tick) {}
+
+		@Override
+		public void timeRunning(boolean running) {
+			if (!running)
+				done.countDown();
+		}
+	}
+}
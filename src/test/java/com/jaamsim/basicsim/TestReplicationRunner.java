@@ -0,0 +1,138 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventTimeListener;
+import com.jaamsim.input.InputAgent;
+
+public class TestReplicationRunner {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final String[] MODEL = {
+		"Define ExponentialDistribution { IATDist }",
+		"Define UniformDistribution { ServiceDist }",
+		"Define SimEntity { Proto }",
+		"Define EntityGenerator { Gen }",
+		"Define Queue { Q1 }",
+		"Define Server { Serv }",
+		"Define EntitySink { Sink }",
+		"IATDist UnitType { TimeUnit } RandomSeed { 1 } Mean { 10 s }",
+		"ServiceDist UnitType { TimeUnit } RandomSeed { 2 } MinValue { 2 s } MaxValue { 15 s }",
+		"Gen NextComponent { Serv } InterArrivalTime { IATDist } PrototypeEntity { Proto }",
+		"Serv NextComponent { Sink } WaitQueue { Q1 } ServiceTime { ServiceDist }",
+		"Simulation RunDuration { 10 h } GlobalSubstreamSeed { [Simulation].RunNumber }",
+		"Simulation RunIndexDefinitionList { 6 } StartingRunNumber { 1 } EndingRunNumber { 6 }",
+		"Simulation UnitTypeList { DimensionlessUnit DimensionlessUnit DimensionlessUnit }",
+		"Simulation RunOutputList { { [Simulation].RunNumber } { [Sink].NumberAdded } { [Q1].QueueLengthAverage } }",
+	};
+
+	/**
+	 * Executes the same set of runs one after another and on several threads
+	 * and checks that the selected outputs are identical.
+	 */
+	@Test
+	public void testSerialEquivalence() throws Throwable {
+		final File serial = writeModel(folder.newFolder("serial"));
+		final File parallel = writeModel(folder.newFolder("parallel"));
+
+		final Throwable[] errors = new Throwable[1];
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					runSerial(serial);
+					loadModel(parallel);
+					new ReplicationRunner(parallel, 1, 6, 3).run();
+				}
+				catch (Throwable t) {
+					errors[0] = t;
+				}
+			}
+		});
+		thread.start();
+		thread.join();
+		if (errors[0] != null)
+			throw errors[0];
+
+		List<String> expected = readOutputs(serial);
+		assertEquals(8, expected.size());
+		assertEquals(expected, readOutputs(parallel));
+	}
+
+	private File writeModel(File dir) throws IOException {
+		File file = new File(dir, "model.cfg");
+		try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+			for (String line : MODEL)
+				out.println(line);
+		}
+		return file;
+	}
+
+	private static List<String> readOutputs(File cfg) throws IOException {
+		return Files.readAllLines(new File(cfg.getParentFile(), "model.dat").toPath(), StandardCharsets.UTF_8);
+	}
+
+	private static JaamSimModel loadModel(File file) throws Exception {
+		JaamSimModel model = new JaamSimModel();
+		JaamSimModel.setCurrent(model);
+
+		InputAgent.setRecordEdits(false);
+		InputAgent.readResource("<res>/inputs/autoload.cfg");
+		InputAgent.setConfigFile(file);
+		InputAgent.readStream("", file.getParentFile().toURI(), file.getName());
+		assertEquals(0, InputAgent.numErrors());
+		return model;
+	}
+
+	private static void runSerial(File file) throws Exception {
+		final JaamSimModel model = loadModel(file);
+		EventManager evt = model.getEventManager();
+		final CountDownLatch done = new CountDownLatch(1);
+		evt.setTimeListener(new EventTimeListener() {
+			@Override
+			public void tickUpdate(long tick) {}
+
+			@Override
+			public void timeRunning(boolean running) {
+				// The output file is closed at the end of the last run
+				if (!running && model.getOutStream() == null)
+					done.countDown();
+			}
+		});
+		Simulation.start(evt);
+		assertTrue(done.await(60, TimeUnit.SECONDS));
+	}
+}
@@ -19,6 +19,7 @@ package com.jaamsim.events;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 
 import org.junit.Test;
@@ -337,6 +338,578 @@ public class TestEventManager {
 		}
 	}
 
+	/**
+	 * Run the same set of waiting processes with and without direct handoff
+	 * between Processes and test that the order of execution is unchanged.
+	 */
+	@Test
+	public void testDirectHandoff() {
+		ArrayList<String> expected = runWaitProcesses(false, EventManager.QueueType.RED_BLACK_TREE);
+		ArrayList<String> log = runWaitProcesses(true, EventManager.QueueType.RED_BLACK_TREE);
+
+		assertTrue(expected.size() == 4 * 21);
+		assertTrue(expected.size() == log.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertTrue(expected.get(i).equals(log.get(i)));
+		}
+	}
+
+	/**
+	 * Run the same set of waiting processes using each type of event queue and
+	 * test that the order of execution is unchanged.
+	 */
+	@Test
+	public void testQueueType() {
+		ArrayList<String> expected = runWaitProcesses(false, EventManager.QueueType.RED_BLACK_TREE);
+		for (EventManager.QueueType type : EventManager.QueueType.values()) {
+			ArrayList<String> log = runWaitProcesses(false, type);
+
+			assertTrue(expected.size() == log.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertTrue(expected.get(i).equals(log.get(i)));
+			}
+		}
+	}
+
+	private ArrayList<String> runWaitProcesses(boolean direct, EventManager.QueueType type) {
+		EventManager evt = new EventManager("testDirectHandoffEVT");
+		evt.clear();
+		evt.setQueueType(type);
+		evt.setDirectHandoff(direct);
+
+		ArrayList<String> log = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			evt.scheduleProcessExternal(i, 0, true, new WaitTarget(i, log), null);
+		}
+
+		TestFrameworkHelpers.runEventsToTick(evt, 1000, 1000);
+		return log;
+	}
+
+	private static class WaitTarget extends ProcessTarget {
+		final ArrayList<String> log;
+		final int num;
+		WaitTarget(int i, ArrayList<String> l) {
+			log = l;
+			num = i;
+		}
+
+		@Override
+		public String getDescription() {
+			return "Wait:" + num;
+		}
+
+		@Override
+		public void process() {
+			log.add("Wait" + num + ":" + EventManager.simTicks());
+			for (int i = 0; i < 20; i++) {
+				// Mix waits that resume the same Process with waits that resume others
+				EventManager.waitTicks((i * (num + 1)) % 3, i % 2, (i + num) % 2 == 0, null);
+				log.add("Wait" + num + ":" + EventManager.simTicks());
+			}
+		}
+	}
+
+	/**
+	 * Test that a conditional declaring its dependencies is only evaluated after
+	 * they change, and that it is released in the same order as conditionals
+	 * that are evaluated on every time advance.
+	 */
+	@Test
+	public void testConditionalDependencies() {
+		EventManager evt = new EventManager("testConditionalDependenciesEVT");
+		evt.clear();
+
+		final int[] count = new int[1];
+		final ArrayList<String> log = new ArrayList<>();
+		CountConditional scanned1 = new CountConditional(count, null);
+		CountConditional declared = new CountConditional(count, new Object[]{ count });
+		CountConditional scanned2 = new CountConditional(count, null);
+
+		evt.scheduleProcessExternal(0, 0, false, new UntilTarget("Scanned1", scanned1, log), null);
+		evt.scheduleProcessExternal(0, 0, false, new UntilTarget("Declared", declared, log), null);
+		evt.scheduleProcessExternal(0, 0, false, new UntilTarget("Scanned2", scanned2, log), null);
+
+		// Advance time every tick, but change the count only every 10 ticks
+		evt.scheduleProcessExternal(0, 0, false, new ProcessTarget() {
+			@Override
+			public String getDescription() { return ""; }
+
+			@Override
+			public void process() {
+				for (int i = 1; i <= 50; i++) {
+					EventManager.waitTicks(1, 0, true, null);
+					if (i % 10 == 0) {
+						count[0]++;
+						EventManager.markChanged(count);
+					}
+				}
+			}
+		}, null);
+
+		TestFrameworkHelpers.runEventsToTick(evt, 100, 1000);
+
+		// The scheduled processes run in LIFO order and each conditional is satisfied at tick 30
+		ArrayList<String> expected = new ArrayList<>();
+		expected.add("Scanned2:30");
+		expected.add("Declared:30");
+		expected.add("Scanned1:30");
+
+		assertTrue(expected.size() == log.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertTrue(expected.get(i).equals(log.get(i)));
+		}
+
+		// Evaluated once when first added and once for each of the three changes
+		assertTrue(declared.numEvals == 4);
+		assertTrue(scanned1.numEvals > 20);
+		assertTrue(scanned2.numEvals > 20);
+	}
+
+	/**
+	 * Test that evaluating the side-effect-free conditionals in parallel releases
+	 * the same events in the same order as sequential evaluation, including
+	 * when they are mixed with conditionals that have side-effects.
+	 */
+	@Test
+	public void testParallelConditionals() {
+		ArrayList<String> expected = runConditionals(false);
+		ArrayList<String> log = runConditionals(true);
+
+		assertTrue(expected.size() == 90);
+		assertTrue(expected.equals(log));
+	}
+
+	private static ArrayList<String> runConditionals(boolean parallel) {
+		EventManager evt = new EventManager("testParallelConditionalsEVT");
+		evt.clear();
+		evt.setParallelConditionals(parallel);
+
+		final int[] count = new int[1];
+		int[] evals = new int[1];
+		ArrayList<String> log = new ArrayList<>();
+		for (int i = 0; i < 90; i++) {
+			// Every other conditional is scanned and also waits for a given tick
+			Object[] deps = (i % 2 == 0) ? null : new Object[]{ count };
+			Conditional c;
+			if (i % 7 == 0)
+				c = new CountingConditional(count, evals, i % 25, deps);
+			else
+				c = new TickConditional(count, i % 25, deps == null ? i : 0, deps);
+			evt.scheduleProcessExternal(0, 0, false, new UntilTarget("Cond" + i, c, log), null);
+		}
+
+		// Advance time every tick and change the count every 3 ticks
+		evt.scheduleProcessExternal(0, 0, false, new ProcessTarget() {
+			@Override
+			public String getDescription() { return ""; }
+
+			@Override
+			public void process() {
+				for (int i = 1; i <= 400; i++) {
+					EventManager.waitTicks(1, 0, true, null);
+					if (i % 3 == 0) {
+						count[0]++;
+						EventManager.markChanged(count);
+					}
+				}
+			}
+		}, null);
+
+		TestFrameworkHelpers.runEventsToTick(evt, 1000, 20000);
+		return log;
+	}
+
+	/**
+	 * Test that scheduling a batch of events gives the same order of execution
+	 * as scheduling each of them in turn, for each type of event queue.
+	 */
+	@Test
+	public void testScheduleBatch() {
+		for (EventManager.QueueType type : EventManager.QueueType.values()) {
+			ArrayList<String> expected = runBatch(type, false);
+			ArrayList<String> log = runBatch(type, true);
+
+			assertTrue(expected.size() == 2100);
+			assertTrue(expected.equals(log));
+		}
+
+		// Events must be added in order
+		EventBatch batch = new EventBatch();
+		batch.add(10, 1, new LogTarget(0, null));
+		try {
+			batch.add(10, 0, new LogTarget(1, null));
+			fail("Batch event out of order");
+		}
+		catch (ProcessError e) {}
+		assertTrue(batch.size() == 1);
+	}
+
+	private static ArrayList<String> runBatch(EventManager.QueueType type, boolean useBatch) {
+		EventManager evt = new EventManager("testScheduleBatchEVT");
+		evt.clear();
+		evt.setQueueType(type);
+
+		// Events already scheduled, sharing some of the batch times
+		final ArrayList<String> log = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+			evt.scheduleProcessExternal(i * 7, i % 3, (i % 2) == 0, new LogTarget(i, log), null);
+
+		EventBatch batch = new EventBatch(4);
+		for (int i = 0; i < 1000; i++) {
+			long delay = i / 3;
+			int prio = i % 3 == 0 ? 0 : 2;
+			if (useBatch)
+				batch.add(delay, prio, new LogTarget(1000 + i, log));
+			else
+				evt.scheduleProcessExternal(delay, prio, true, new LogTarget(1000 + i, log), null);
+		}
+		if (useBatch)
+			evt.scheduleBatchExternal(batch);
+
+		// Schedule a second batch from within the model after time has advanced
+		final boolean inModel = useBatch;
+		evt.scheduleProcessExternal(50, 1, true, new ProcessTarget() {
+			@Override
+			public String getDescription() { return ""; }
+
+			@Override
+			public void process() {
+				EventBatch b = new EventBatch();
+				for (int i = 0; i < 1000; i++) {
+					int prio = (i % 5) < 3 ? 0 : 1;
+					if (inModel)
+						b.add(i / 5, prio, new LogTarget(2000 + i, log));
+					else
+						EventManager.scheduleTicks(i / 5, prio, true, new LogTarget(2000 + i, log), null);
+				}
+				if (inModel)
+					EventManager.scheduleBatch(b);
+			}
+		}, null);
+
+		TestFrameworkHelpers.runEventsToTick(evt, 10000, 10000);
+		return log;
+	}
+
+	/**
+	 * Checks that the profiler counts each executed event against its target
+	 * class, including the events that resume a Process after a wait.
+	 */
+	@Test
+	public void testProfiler() {
+		EventManager evt = new EventManager("testProfilerEVT");
+		evt.clear();
+		EventProfiler profiler = new EventProfiler();
+		evt.setProfiler(profiler);
+
+		ArrayList<String> log = new ArrayList<>();
+		for (int i = 0; i < 5; i++)
+			evt.scheduleProcessExternal(i, 0, false, new LogTarget(i, log), null);
+		evt.scheduleProcessExternal(0, 0, false, new WaitTarget(0, log), null);
+
+		TestFrameworkHelpers.runEventsToTick(evt, 1000, 1000);
+
+		long logCount = 0;
+		long waitCount = 0;
+		long numEvents = 0;
+		for (EventProfiler.Stats each : profiler.getClassStats()) {
+			if (each.getKey() == LogTarget.class)
+				logCount = each.getCount();
+			if (each.getKey() == WaitTarget.class)
+				waitCount = each.getCount();
+			numEvents += each.getCount();
+			assertTrue(each.getMaxNanos() <= each.getTotalNanos());
+		}
+		assertTrue(logCount == 5);
+
+		// Each of the 20 waits is resumed by a separate event
+		assertTrue(waitCount == 21);
+		assertTrue(numEvents == 26);
+		assertTrue(profiler.getOwnerStats().isEmpty());
+	}
+
+	/**
+	 * Checks that the longest event for a target that starts another Process
+	 * includes the time before and after the new Process runs.
+	 */
+	@Test
+	public void testProfilerEventTime() {
+		EventManager evt = new EventManager("testProfilerEventTimeEVT");
+		evt.clear();
+		EventProfiler profiler = new EventProfiler();
+		evt.setProfiler(profiler);
+
+		evt.scheduleProcessExternal(0, 0, false, new SpinTarget(2000000L, new SpinTarget(1000000L, null)), null);
+		TestFrameworkHelpers.runEventsToTick(evt, 1000, 1000);
+
+		long maxNanos = 0L;
+		for (EventProfiler.Stats each : profiler.getClassStats()) {
+			if (each.getKey() == SpinTarget.class)
+				maxNanos = each.getMaxNanos();
+		}
+		assertTrue("max event " + maxNanos + " ns", maxNanos >= 4000000L);
+	}
+
+	private static class SpinTarget extends ProcessTarget {
+		final long nanos;
+		final SpinTarget child;
+
+		SpinTarget(long n, SpinTarget c) {
+			nanos = n;
+			child = c;
+		}
+
+		@Override
+		public String getDescription() {
+			return "SpinTarget";
+		}
+
+		@Override
+		public void process() {
+			spin(nanos);
+			if (child == null)
+				return;
+			EventManager.startProcess(child);
+			spin(nanos);
+		}
+
+		private static void spin(long nanos) {
+			long start = System.nanoTime();
+			while (System.nanoTime() - start < nanos) {}
+		}
+	}
+
+	/**
+	 * Checks that the real-time lag records an event that starts late because
+	 * the event before it took longer than the time between them.
+	 */
+	@Test
+	public void testRealTimeLag() {
+		EventManager evt = new EventManager("testRealTimeLagEVT");
+		evt.clear();
+		evt.setExecuteRealTime(true, 1.0d);
+
+		// Events 1 ms apart, with a tick length of one microsecond. The wall
+		// clock is matched to the simulation time when the time first advances.
+		evt.scheduleProcessExternal(1000, 0, false, new SpinTarget(20000000L, null), null);
+		evt.scheduleProcessExternal(2000, 0, false, new SpinTarget(0L, null), null);
+
+		TestFrameworkHelpers.runEventsToTick(evt, 3000, 5000);
+
+		// The second event cannot start until the first has spun for 20 ms
+		double lag = evt.getMaxRealTimeLag();
+		assertTrue("max lag " + lag + " s", lag >= 0.019d);
+		assertTrue(evt.getRealTimeLag() <= lag);
+
+		evt.clear();
+		assertTrue(evt.getMaxRealTimeLag() == 0.0d);
+	}
+
+	/**
+	 * Counts the memory allocated while a Process repeatedly waits for a time
+	 * delay, a change-driven conditional and a conditional that is evaluated on
+	 * every time advance. Only the direct handoff mode is checked, since it
+	 * keeps the waits on the Process's own thread. In the default mode each
+	 * wait wakes a different thread, which allocates an InterruptedException.
+	 * The allocations are counted for the Process thread and the test thread,
+	 * which are the only threads taking part.
+	 */
+	@Test
+	public void testSteadyStateAllocation() {
+		if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean))
+			return;
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled())
+			return;
+
+		EventManager evt = new EventManager("testSteadyStateAllocationEVT");
+		evt.clear();
+		evt.setDirectHandoff(true);
+
+		// A distant event allows the conditionals to be checked
+		evt.scheduleProcessExternal(1L << 40, 0, false, new LogTarget(0, new ArrayList<String>()), null);
+
+		CycleTarget cycle = new CycleTarget(bean, Thread.currentThread().getId());
+		evt.scheduleProcessExternal(0, 0, false, cycle, null);
+		TestFrameworkHelpers.runEventsToTick(evt, 1L << 30, 10000);
+
+		assertTrue(cycle.done);
+		assertTrue("Process thread blocked " + cycle.numWaited + " times", cycle.numWaited == 0);
+		assertTrue("allocated " + cycle.allocated + " bytes", cycle.allocated < 4096);
+	}
+
+	private static class CycleTarget extends ProcessTarget {
+		final com.sun.management.ThreadMXBean bean;
+		final EventHandle handle = new EventHandle();
+		final boolean[] flag = new boolean[1];
+		final Conditional changeCond = new Conditional() {
+			@Override
+			public boolean evaluate() {
+				return flag[0];
+			}
+
+			@Override
+			public Object[] getDependencies() {
+				return deps;
+			}
+		};
+		final Object[] deps = { flag };
+		final Conditional scanCond = new Conditional() {
+			@Override
+			public boolean evaluate() {
+				return !flag[0];
+			}
+		};
+		final long testThreadId;
+		long procThreadId;
+		long numWaited;  // times the Process thread blocked while being measured
+		long allocated;
+		boolean done;
+
+		CycleTarget(com.sun.management.ThreadMXBean b, long id) {
+			bean = b;
+			testThreadId = id;
+		}
+
+		@Override
+		public String getDescription() {
+			return "CycleTarget";
+		}
+
+		@Override
+		public void process() {
+			procThreadId = Thread.currentThread().getId();
+
+			// The first set of cycles allows the free lists to fill and the
+			// methods to be compiled
+			runCycles(20000);
+
+			// If the Process thread never blocks, no other thread has executed
+			// any events
+			long waited = bean.getThreadInfo(procThreadId).getWaitedCount();
+			long start = getAllocatedBytes();
+			runCycles(50000);
+			allocated = getAllocatedBytes() - start;
+			numWaited = bean.getThreadInfo(procThreadId).getWaitedCount() - waited;
+			done = true;
+		}
+
+		private void runCycles(int num) {
+			for (int i = 0; i < num; i++) {
+				EventManager.waitTicks(1, 0, true, handle);
+
+				flag[0] = true;
+				EventManager.markChanged(flag);
+				EventManager.waitUntil(changeCond, handle);
+
+				flag[0] = false;
+				EventManager.waitUntil(scanCond, null);
+			}
+		}
+
+		private long getAllocatedBytes() {
+			return bean.getThreadAllocatedBytes(procThreadId)
+			     + bean.getThreadAllocatedBytes(testThreadId);
+		}
+	}
+
+	private static class CountConditional extends Conditional {
+		final int[] count;
+		final Object[] deps;
+		int numEvals;
+		CountConditional(int[] c, Object[] d) {
+			count = c;
+			deps = d;
+		}
+
+		@Override
+		public boolean evaluate() {
+			numEvals++;
+			return count[0] >= 3;
+		}
+
+		@Override
+		public Object[] getDependencies() {
+			return deps;
+		}
+	}
+
+	private static class TickConditional extends Conditional {
+		final int[] count;
+		final int minCount;
+		final long minTick;
+		final Object[] deps;
+		TickConditional(int[] c, int n, long t, Object[] d) {
+			count = c;
+			minCount = n;
+			minTick = t;
+			deps = d;
+		}
+
+		@Override
+		public boolean evaluate() {
+			return count[0] >= minCount && EventManager.simTicks() >= minTick;
+		}
+
+		@Override
+		public Object[] getDependencies() {
+			return deps;
+		}
+
+		@Override
+		public boolean isSideEffectFree() {
+			return true;
+		}
+	}
+
+	private static class CountingConditional extends Conditional {
+		final int[] count;
+		final int[] evals;
+		final int minCount;
+		final Object[] deps;
+		CountingConditional(int[] c, int[] e, int n, Object[] d) {
+			count = c;
+			evals = e;
+			minCount = n;
+			deps = d;
+		}
+
+		@Override
+		public boolean evaluate() {
+			// Only satisfied on every third evaluation, counted over all instances
+			evals[0]++;
+			return count[0] >= minCount && evals[0] % 3 == 0;
+		}
+
+		@Override
+		public Object[] getDependencies() {
+			return deps;
+		}
+	}
+
+	private static class UntilTarget extends ProcessTarget {
+		final String name;
+		final Conditional cond;
+		final ArrayList<String> log;
+		UntilTarget(String n, Conditional c, ArrayList<String> l) {
+			name = n;
+			cond = c;
+			log = l;
+		}
+
+		@Override
+		public String getDescription() {
+			return name;
+		}
+
+		@Override
+		public void process() {
+			EventManager.waitUntil(cond, null);
+			log.add(name + ":" + EventManager.simTicks());
+		}
+	}
+
 	private static class LogTarget extends ProcessTarget {
 		final ArrayList<String> log;
 		final int num;
@@ -18,6 +18,12 @@ package com.jaamsim.events;
 
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+
 import org.junit.Test;
 
 public class TestEventTree {
@@ -84,4 +90,59 @@ public void testRBTree() {
 		assertTrue((20000-2-2*i) == nodeCount);
 	}
 }
+
+@Test
+public void testBatchNodes() {
+	Random rand = new Random(1);
+	int[] existingSizes = { 0, 1, 10, 1000, 5000 };
+	int[] batchSizes = { 1, 2, 7, 100, 3000 };
+	for (int numExisting : existingSizes) {
+		for (int numBatch : batchSizes) {
+			EventTree tree = new EventTree();
+			HashSet<Long> keys = new HashSet<>();
+			for (int i = 0; i < numExisting; i++) {
+				long tick = rand.nextInt(2000);
+				int prio = rand.nextInt(3);
+				tree.createOrFindNode(tick, prio);
+				keys.add(tick * 3 + prio);
+			}
+
+			// Sorted batch with repeated entries
+			long[] batchKeys = new long[numBatch];
+			for (int i = 0; i < numBatch; i++)
+				batchKeys[i] = rand.nextInt(6000);
+			Arrays.sort(batchKeys);
+			long[] ticks = new long[numBatch];
+			int[] prios = new int[numBatch];
+			for (int i = 0; i < numBatch; i++) {
+				ticks[i] = batchKeys[i] / 3;
+				prios[i] = (int)(batchKeys[i] % 3);
+				keys.add(batchKeys[i]);
+			}
+
+			EventNode[] nodes = new EventNode[numBatch];
+			tree.createOrFindNodes(ticks, prios, numBatch, nodes);
+			tree.verify();
+			assertTrue(tree.verifyNodeCount() == keys.size());
+			for (int i = 0; i < numBatch; i++) {
+				assertTrue(nodes[i].schedTick == ticks[i] && nodes[i].priority == prios[i]);
+				assertTrue(tree.find(ticks[i], prios[i]) == nodes[i]);
+			}
+
+			long lowest = Collections.min(keys);
+			assertTrue(tree.getNextNode().schedTick == lowest / 3);
+			assertTrue(tree.getNextNode().priority == lowest % 3);
+
+			// The rebuilt tree must stay balanced as the nodes are removed
+			ArrayList<Long> order = new ArrayList<>(keys);
+			Collections.shuffle(order, rand);
+			for (long key : order) {
+				assertTrue(tree.removeNode(key / 3, (int)(key % 3)));
+				tree.verify();
+			}
+			assertTrue(tree.verifyNodeCount() == 0);
+			assertTrue(tree.getNextNode() == null);
+		}
+	}
+}
 }
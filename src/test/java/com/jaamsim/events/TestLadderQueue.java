@@ -0,0 +1,213 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestLadderQueue {
+
+	@Test
+	public void testSequential() {
+		LadderQueue queue = new LadderQueue();
+
+		for (int i = 10000; i > 0; --i) {
+			queue.createOrFindNode(i, 0);
+			queue.createOrFindNode(-i, 0);
+		}
+		queue.verify();
+		assertEquals(20000, queue.verifyNodeCount());
+		assertEquals(-10000, queue.getNextNode().schedTick);
+
+		for (int i = -10000; i <= 10000; ++i) {
+			if (i == 0)
+				continue;
+			EventNode node = queue.getNextNode();
+			assertEquals(i, node.schedTick);
+			assertTrue(queue.removeNode(i, 0));
+		}
+		queue.verify();
+		assertEquals(0, queue.verifyNodeCount());
+		assertNull(queue.getNextNode());
+		assertTrue(!queue.removeNode(1, 0));
+	}
+
+	/**
+	 * Applies the same random sequence of scheduling, removal and execution of
+	 * events to an EventTree and a LadderQueue and checks that both return the
+	 * events in the same order.
+	 */
+	@Test
+	public void testRandomEquivalence() {
+		for (long seed = 0; seed < 20; seed++) {
+			runEquivalence(new Random(seed), 20000, new LadderQueue());
+		}
+	}
+
+	private static class QueuePair {
+		final EventTree tree = new EventTree();
+		final EventQueue queue;
+
+		// Matching events in each queue, indexed by event id
+		final ArrayList<Event> treeEvts = new ArrayList<>();
+		final ArrayList<Event> queueEvts = new ArrayList<>();
+		final IdentityHashMap<Event, Integer> ids = new IdentityHashMap<>();
+		final ArrayList<Integer> scheduled = new ArrayList<>();
+
+		QueuePair(EventQueue queue) {
+			this.queue = queue;
+		}
+
+		void schedule(long tick, int prio, boolean fifo) {
+			Event te = new Event();
+			Event le = new Event();
+			int id = treeEvts.size();
+			treeEvts.add(te);
+			queueEvts.add(le);
+			ids.put(te, id);
+			ids.put(le, id);
+			scheduled.add(id);
+
+			te.node = tree.createOrFindNode(tick, prio);
+			te.node.addEvent(te, fifo);
+			le.node = queue.createOrFindNode(tick, prio);
+			le.node.addEvent(le, fifo);
+		}
+
+		void remove(int id) {
+			scheduled.remove(Integer.valueOf(id));
+			removeEvent(tree, treeEvts.get(id));
+			removeEvent(queue, queueEvts.get(id));
+		}
+
+		private static void removeEvent(EventQueue queue, Event evt) {
+			EventNode node = evt.node;
+			node.removeEvent(evt);
+			evt.node = null;
+			if (node.head == null)
+				assertTrue(queue.removeNode(node.schedTick, node.priority));
+		}
+
+		long pop() {
+			EventNode tn = tree.getNextNode();
+			EventNode ln = queue.getNextNode();
+			assertEquals(tn.schedTick, ln.schedTick);
+			assertEquals(tn.priority, ln.priority);
+			assertEquals(ids.get(tn.head), ids.get(ln.head));
+			long tick = tn.schedTick;
+			remove(ids.get(tn.head));
+			return tick;
+		}
+
+		void compareAll() {
+			final ArrayList<Integer> treeOrder = new ArrayList<>();
+			final ArrayList<Integer> queueOrder = new ArrayList<>();
+			tree.runOnAllNodes(new OrderRunner(treeOrder, ids));
+			queue.runOnAllNodes(new OrderRunner(queueOrder, ids));
+			assertEquals(treeOrder, queueOrder);
+			assertEquals(tree.verifyNodeCount(), queue.verifyNodeCount());
+		}
+	}
+
+	private static class OrderRunner implements EventNode.Runner {
+		private final ArrayList<Integer> order;
+		private final IdentityHashMap<Event, Integer> ids;
+
+		OrderRunner(ArrayList<Integer> order, IdentityHashMap<Event, Integer> ids) {
+			this.order = order;
+			this.ids = ids;
+		}
+
+		@Override
+		public void runOnNode(EventNode node) {
+			for (Event e = node.head; e != null; e = e.next)
+				order.add(ids.get(e));
+		}
+	}
+
+	/**
+	 * Applies a random sequence of operations to an EventTree and the given
+	 * queue and checks that both return the events in the same order.
+	 */
+	static void runEquivalence(Random rand, int numOps, EventQueue queue) {
+		QueuePair pair = new QueuePair(queue);
+		long curTick = 0;
+
+		for (int i = 0; i < numOps; i++) {
+			int op = rand.nextInt(100);
+
+			// Schedule an event, mixing zero delays, short delays, long delays and
+			// occasional bursts that share a tick
+			if (op < 50 || pair.scheduled.isEmpty()) {
+				long delay;
+				int kind = rand.nextInt(10);
+				if (kind < 2)
+					delay = 0;
+				else if (kind < 7)
+					delay = rand.nextInt(1000);
+				else if (kind < 9)
+					delay = (long)(-Math.log(1.0d - rand.nextDouble()) * 1.0e6d);
+				else
+					delay = rand.nextInt(1 << 30);
+
+				int burst = (rand.nextInt(50) == 0) ? 100 : 1;
+				for (int j = 0; j < burst; j++)
+					pair.schedule(curTick + delay, rand.nextInt(5), rand.nextBoolean());
+				continue;
+			}
+
+			// Remove an arbitrary scheduled event
+			if (op < 60) {
+				int id = pair.scheduled.get(rand.nextInt(pair.scheduled.size()));
+				pair.remove(id);
+				continue;
+			}
+
+			// Look at the next event without executing it, as is done during a
+			// real-time wait
+			if (op < 65) {
+				assertEquals(pair.tree.getNextNode().schedTick, pair.queue.getNextNode().schedTick);
+				continue;
+			}
+
+			// Execute the next event
+			curTick = pair.pop();
+
+			if (i % 1000 == 0) {
+				pair.tree.verify();
+				pair.queue.verify();
+				pair.compareAll();
+			}
+		}
+
+		pair.queue.verify();
+		pair.compareAll();
+		while (!pair.scheduled.isEmpty())
+			pair.pop();
+
+		assertNull(pair.tree.getNextNode());
+		assertNull(pair.queue.getNextNode());
+		assertEquals(0, pair.queue.verifyNodeCount());
+	}
+}
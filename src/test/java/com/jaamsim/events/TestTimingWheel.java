@@ -0,0 +1,114 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2018 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestTimingWheel {
+
+	@Test
+	public void testSequential() {
+		TimingWheel queue = new TimingWheel(1000);
+
+		for (int i = 100000; i > 0; i -= 7) {
+			queue.createOrFindNode(i, 0);
+			queue.createOrFindNode(i, 1);
+		}
+		queue.verify();
+		int num = queue.verifyNodeCount();
+
+		long last = -1;
+		for (int i = 0; i < num; i++) {
+			EventNode node = queue.getNextNode();
+			assertTrue(node.schedTick >= last);
+			last = node.schedTick;
+			assertTrue(queue.removeNode(node.schedTick, node.priority));
+			if (i % 1000 == 0)
+				queue.verify();
+		}
+		queue.verify();
+		assertEquals(0, queue.verifyNodeCount());
+		assertNull(queue.getNextNode());
+		assertTrue(!queue.removeNode(1, 0));
+	}
+
+	/**
+	 * Checks that nodes scheduled before the wheel time, which has been
+	 * advanced by looking at the next node, are returned first.
+	 */
+	@Test
+	public void testScheduleBeforeWheelTime() {
+		TimingWheel queue = new TimingWheel(4096);
+		queue.createOrFindNode(5000, 0);
+		assertEquals(5000, queue.getNextNode().schedTick);
+
+		queue.createOrFindNode(300, 2);
+		queue.createOrFindNode(300, 1);
+		queue.createOrFindNode(70, 0);
+		queue.verify();
+
+		assertEquals(70, queue.getNextNode().schedTick);
+		assertTrue(queue.removeNode(70, 0));
+		assertEquals(1, queue.getNextNode().priority);
+		assertTrue(queue.removeNode(300, 1));
+		assertTrue(queue.removeNode(300, 2));
+		assertEquals(5000, queue.getNextNode().schedTick);
+		queue.verify();
+	}
+
+	/**
+	 * Checks that nodes at the largest tick are held until every other node
+	 * has been returned.
+	 */
+	@Test
+	public void testMaxTick() {
+		TimingWheel queue = new TimingWheel(64);
+		queue.createOrFindNode(Long.MAX_VALUE, 0);
+		queue.createOrFindNode(10, 0);
+		assertEquals(10, queue.getNextNode().schedTick);
+		assertTrue(queue.removeNode(10, 0));
+
+		assertEquals(Long.MAX_VALUE, queue.getNextNode().schedTick);
+		queue.createOrFindNode(Long.MAX_VALUE - 1, 0);
+		queue.createOrFindNode(Long.MAX_VALUE, -1);
+		queue.verify();
+		assertEquals(Long.MAX_VALUE - 1, queue.getNextNode().schedTick);
+		assertTrue(queue.removeNode(Long.MAX_VALUE - 1, 0));
+		assertEquals(-1, queue.getNextNode().priority);
+		assertEquals(2, queue.verifyNodeCount());
+	}
+
+	/**
+	 * Applies the same random sequence of scheduling, removal and execution of
+	 * events to an EventTree and to timing wheels with a range of horizons and
+	 * checks that they return the events in the same order.
+	 */
+	@Test
+	public void testRandomEquivalence() {
+		long[] horizons = { 1, 64, 5000, 1L << 24, Long.MAX_VALUE };
+		for (long seed = 0; seed < 20; seed++) {
+			long horizon = horizons[(int)(seed % horizons.length)];
+			TestLadderQueue.runEquivalence(new Random(seed), 20000, new TimingWheel(horizon));
+		}
+	}
+}
@@ -16,14 +16,17 @@
  */
 package com.jaamsim.input;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 
 import org.junit.Test;
 
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.JaamSimModel;
 
 public class TestOutput {
 
@@ -63,4 +66,44 @@ public class TestOutput {
 		}
 	}
 
+	/**
+	 * Checks that the generated output tables return the same values as the
+	 * reflected output methods. Classes built without the OutputProcessor
+	 * have no tables and are skipped.
+	 */
+	@Test
+	public void testOutputTables() throws Exception {
+		JaamSimModel.setCurrent(new JaamSimModel());
+		InputAgent.setRecordEdits(false);
+		InputAgent.readResource("<res>/inputs/autoload.cfg");
+		Entity ent = InputAgent.defineEntityWithUniqueName(DisplayEntity.class, "Ent", "", true);
+
+		for (Method m : DisplayEntity.class.getMethods()) {
+			if (m.getAnnotation(Output.class) == null)
+				continue;
+
+			OutputTable table = OutputTable.getTable(m.getDeclaringClass());
+			if (table == null)
+				continue;
+
+			int index = table.indexOf(m.getName());
+			assertTrue(m.getName(), index >= 0);
+			assertEquals(m.getName(), toString(m.invoke(ent, 0.0d)), toString(table.getValue(ent, index, 0.0d)));
+
+			OutputHandle out = new OutputHandle(ent, m.getAnnotation(Output.class).name());
+			Object val = m.invoke(ent, 0.0d);
+			if (val instanceof Number)
+				assertEquals(m.getName(), ((Number) val).doubleValue(), out.getValueAsDouble(0.0d, -1.0d), 0.0d);
+			else if (val instanceof Boolean)
+				assertEquals(m.getName(), (Boolean) val ? 1.0d : 0.0d, out.getValueAsDouble(0.0d, -1.0d), 0.0d);
+			else
+				assertEquals(m.getName(), -1.0d, out.getValueAsDouble(0.0d, -1.0d), 0.0d);
+		}
+		JaamSimModel.setCurrent(null);
+	}
+
+	private static String toString(Object obj) {
+		return Arrays.deepToString(new Object[] { obj });
+	}
+
 }